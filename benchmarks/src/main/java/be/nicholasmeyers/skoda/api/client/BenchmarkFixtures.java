@@ -0,0 +1,85 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import be.nicholasmeyers.skoda.JSON;
+import be.nicholasmeyers.skoda.client.resource.ChargingSessionWebResponseResource;
+import be.nicholasmeyers.skoda.client.resource.VehicleWebResponseResource;
+import com.google.gson.reflect.TypeToken;
+import okhttp3.OkHttpClient;
+
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Response bodies and client setup shared by the benchmarks.
+ */
+final class BenchmarkFixtures {
+
+    static final String VIN = "TMBJB9NY0RF000001";
+
+    static final String VEHICLES_JSON = """
+            [{"vin":"TMBJB9NY0RF000001","name":"Enyaq","licensePlate":"1ABC123","state":"ACTIVATED",\
+            "devicePlatform":"MBB_ODP","systemModelId":"5AZ","title":"Škoda Enyaq"}]""";
+
+    static final String STATUS_JSON = """
+            {"doorsLocked":"YES","locked":"YES","doors":"CLOSED","windows":"CLOSED","lights":"OFF",\
+            "reliableLockStatus":"LOCKED","sunroof":"CLOSED","trunk":"CLOSED","bonnet":"CLOSED",\
+            "carCapturedTimestamp":"2025-10-18T07:15:42.123Z"}""";
+
+    static final String RANGE_JSON = """
+            {"carType":"ELECTRIC","totalRangeInKm":342,"engineType":"ELECTRIC","currentSoCInPercent":78,\
+            "remainingRangeInKm":342,"carCapturedTimestamp":"2025-10-18T07:15:42.123Z"}""";
+
+    static final String LOCATION_JSON = """
+            {"latitude":50.8503,"longitude":4.3517,"address":"Grote Markt 1, 1000 Brussels, Belgium"}""";
+
+    static final String AIR_CONDITIONING_JSON = """
+            {"state":"OFF","temperature":21.5,"temperatureUnit":"CELSIUS",\
+            "carCapturedTimestamp":"2025-10-18T07:15:42.123Z"}""";
+
+    static final String CHARGING_STATUS_JSON = """
+            {"chargingRateInKilometersPerHour":43.5,"chargePowerInKw":10.8,"remainingTimeToFullyChargedInMinutes":95,\
+            "state":"CHARGING","chargeType":"AC","remainingCruisingRangeInMeters":342000,"stateOfChargeInPercent":78,\
+            "carCapturedTimestamp":"2025-10-18T07:15:42.123Z"}""";
+
+    static final String CHARGING_SESSIONS_JSON = chargingSessionsJson(100);
+
+    static final Type VEHICLES_TYPE = new TypeToken<List<VehicleWebResponseResource>>() {
+    }.getType();
+
+    static final Type CHARGING_SESSIONS_TYPE = new TypeToken<List<ChargingSessionWebResponseResource>>() {
+    }.getType();
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Returns a token service holding an access token that does not expire, so no login ever happens.
+     */
+    static TokenService tokenService() {
+        String payload = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{\"exp\":4102444800}".getBytes(StandardCharsets.UTF_8));
+        TokenService tokenService = new TokenService("benchmark@example.com", "benchmark");
+        tokenService.useTokens(CachedTokens.of("eyJhbGciOiJub25lIn0." + payload + ".benchmark", null));
+        return tokenService;
+    }
+
+    static ClientConfiguration clientConfiguration(OkHttpClient baseClient, String server) {
+        return new ClientConfiguration(tokenService(), baseClient, server);
+    }
+
+    static <T> T deserialize(String json, Type type) {
+        return JSON.deserialize(json, type);
+    }
+
+    private static String chargingSessionsJson(int count) {
+        StringJoiner sessions = new StringJoiner(",", "[", "]");
+        for (int i = 0; i < count; i++) {
+            sessions.add("{\"startAt\":\"2025-09-%02dT18:%02d:00Z\",\"chargedInKWh\":%d.4,\"durationInMinutes\":%d,\"currentType\":\"%s\"}"
+                    .formatted(1 + i % 28, i % 60, 10 + i % 50, 30 + i, i % 3 == 0 ? "DC" : "AC"));
+        }
+        return sessions.toString();
+    }
+}
@@ -0,0 +1,103 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import mockwebserver3.Dispatcher;
+import mockwebserver3.MockResponse;
+import mockwebserver3.MockWebServer;
+import mockwebserver3.RecordedRequest;
+import okhttp3.OkHttpClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures complete {@link VehicleService} calls against a local {@link MockWebServer} standing in for the API:
+ * interceptors, HTTP over loopback, deserialization and mapping.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EndToEndBenchmark {
+
+    private MockWebServer server;
+    private VehicleService vehicleService;
+
+    @Setup
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                List<String> segments = request.getUrl().pathSegments();
+                String body = switch (segments.getFirst()) {
+                    case "vehicle" -> BenchmarkFixtures.VEHICLES_JSON;
+                    case "status" -> BenchmarkFixtures.STATUS_JSON;
+                    case "range" -> BenchmarkFixtures.RANGE_JSON;
+                    case "location" -> BenchmarkFixtures.LOCATION_JSON;
+                    case "air-conditioning" -> BenchmarkFixtures.AIR_CONDITIONING_JSON;
+                    case "charging" -> segments.size() > 2 ? BenchmarkFixtures.CHARGING_SESSIONS_JSON
+                            : BenchmarkFixtures.CHARGING_STATUS_JSON;
+                    default -> null;
+                };
+                if (body == null) {
+                    return new MockResponse.Builder().code(404).build();
+                }
+                return new MockResponse.Builder()
+                        .addHeader("Content-Type", "application/json")
+                        .body(body)
+                        .build();
+            }
+        });
+        server.start(InetAddress.getLoopbackAddress(), 0);
+
+        String baseUrl = "http://" + server.getHostName() + ":" + server.getPort();
+        vehicleService = new VehicleService(BenchmarkFixtures.clientConfiguration(new OkHttpClient(), baseUrl));
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.close();
+    }
+
+    @Benchmark
+    public VehicleStatus getVehicleStatus() {
+        return vehicleService.getVehicleStatus(BenchmarkFixtures.VIN);
+    }
+
+    @Benchmark
+    public VehicleChargingState getVehicleChargingState() {
+        return vehicleService.getVehicleChargingState(BenchmarkFixtures.VIN);
+    }
+
+    @Benchmark
+    public List<VehicleChargingSession> getVehicleChargingSessions() {
+        return vehicleService.getVehicleChargingSessions(BenchmarkFixtures.VIN);
+    }
+
+    @Benchmark
+    public double forEachChargingSession() {
+        double[] chargedInKWh = new double[1];
+        vehicleService.forEachChargingSession(BenchmarkFixtures.VIN, session -> chargedInKWh[0] += session.getChargedInKWh());
+        return chargedInKWh[0];
+    }
+
+    @Benchmark
+    public VehicleSnapshot getVehicleSnapshot() {
+        return vehicleService.getVehicleSnapshot(BenchmarkFixtures.VIN);
+    }
+}
@@ -0,0 +1,68 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures predicate scans over a {@link FleetStateTable} filled with the state of a large fleet.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FleetStateTableBenchmark {
+
+    private static final FleetStatePredicate UNLOCKED = FleetStatePredicate.flag(VehicleStatusFlag.LOCKED, false);
+    private static final FleetStatePredicate LOW_BATTERY = FleetStatePredicate.stateOfChargeBelow(20);
+    private static final FleetStatePredicate CHARGING_DC = FleetStatePredicate.chargingState("CHARGING")
+            .and(FleetStatePredicate.chargeType("DC"));
+
+    @Param({"100000"})
+    private int fleetSize;
+
+    private FleetStateTable table;
+
+    @Setup
+    public void setUp() {
+        table = new FleetStateTable();
+        for (int i = 0; i < fleetSize; i++) {
+            String vin = "TMB%014d".formatted(i);
+            String capturedAt = "2025-10-18T07:15:42.123Z";
+            String lock = i % 10 == 0 ? "NO" : "YES";
+            table.update(vin, new VehicleStatus(lock, lock, "CLOSED", "CLOSED", "OFF", "LOCKED", "CLOSED", "CLOSED",
+                    "CLOSED", capturedAt));
+            table.update(vin, new VehicleRange("ELECTRIC", 420, "ELECTRIC", i % 101, 4 * (i % 101), capturedAt));
+            table.update(vin, new VehicleChargingState(43.5, i % 7 == 0 ? 120 : 11, 95,
+                    i % 3 == 0 ? "CHARGING" : "READY_FOR_CHARGING", i % 7 == 0 ? "DC" : "AC", 342000, i % 101, capturedAt));
+        }
+    }
+
+    @Benchmark
+    public List<String> findUnlocked() {
+        return table.findVins(UNLOCKED);
+    }
+
+    @Benchmark
+    public int countLowBattery() {
+        return table.count(LOW_BATTERY);
+    }
+
+    @Benchmark
+    public int countChargingDc() {
+        return table.count(CHARGING_DC);
+    }
+}
@@ -0,0 +1,74 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import be.nicholasmeyers.skoda.client.resource.LocationWebResponseResource;
+import be.nicholasmeyers.skoda.client.resource.RangeWebResponseResource;
+import be.nicholasmeyers.skoda.client.resource.StatusWebResponseResource;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.function.Function;
+
+/**
+ * Reports the retained heap size of the state of a fleet, once as the regular models returned by
+ * {@link VehicleService} and once as their compact forms.
+ * <p>
+ * Every vehicle gets its own deserialized response, like a fleet cache filled from real calls, so strings are
+ * not shared between vehicles unless the mapping shares them. Run it with
+ * {@code java -Djdk.attach.allowAttachSelf -cp target/benchmarks.jar be.nicholasmeyers.skoda.api.client.HeapFootprintReport [fleetSize]}.
+ * </p>
+ */
+public class HeapFootprintReport {
+
+    private static final int DEFAULT_FLEET_SIZE = 10_000;
+
+    public static void main(String[] args) {
+        int fleetSize = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_FLEET_SIZE;
+
+        StatusWebResponseResource[] statuses = new StatusWebResponseResource[fleetSize];
+        RangeWebResponseResource[] ranges = new RangeWebResponseResource[fleetSize];
+        LocationWebResponseResource[] locations = new LocationWebResponseResource[fleetSize];
+        for (int i = 0; i < fleetSize; i++) {
+            String capturedAt = "2025-10-18T07:%02d:%02d.%03dZ".formatted(i / 3600 % 60, i / 60 % 60, i % 1000);
+            statuses[i] = BenchmarkFixtures.deserialize(BenchmarkFixtures.STATUS_JSON
+                    .replace("2025-10-18T07:15:42.123Z", capturedAt), StatusWebResponseResource.class);
+            ranges[i] = BenchmarkFixtures.deserialize(BenchmarkFixtures.RANGE_JSON
+                    .replace("2025-10-18T07:15:42.123Z", capturedAt)
+                    .replace("\"remainingRangeInKm\":342", "\"remainingRangeInKm\":" + (100 + i % 400))
+                    .replace("\"currentSoCInPercent\":78", "\"currentSoCInPercent\":" + i % 101), RangeWebResponseResource.class);
+            locations[i] = BenchmarkFixtures.deserialize(BenchmarkFixtures.LOCATION_JSON
+                    .replace("50.8503", Double.toString(50 + i * 1e-5))
+                    .replace("4.3517", Double.toString(4 + i * 1e-5)), LocationWebResponseResource.class);
+        }
+
+        System.out.printf("Retained heap per vehicle for a fleet of %d vehicles%n", fleetSize);
+        System.out.printf("%-10s %10s %10s %8s%n", "model", "regular", "compact", "saved");
+        long[] status = report("status", statuses, VehicleMapper::toStatus, VehicleMapper::toCompactStatus, fleetSize);
+        long[] range = report("range", ranges, VehicleMapper::toRange, VehicleMapper::toCompactRange, fleetSize);
+        long[] location = report("location", locations, VehicleMapper::toLocation, VehicleMapper::toCompactLocation, fleetSize);
+        print("total", status[0] + range[0] + location[0], status[1] + range[1] + location[1], fleetSize);
+    }
+
+    /**
+     * Prints and returns the retained size of the regular and the compact models of all resources.
+     */
+    private static <R> long[] report(String model, R[] resources, Function<R, ?> regularMapper,
+                                     Function<R, ?> compactMapper, int fleetSize) {
+        long regular = retainedSize(resources, regularMapper);
+        long compact = retainedSize(resources, compactMapper);
+        print(model, regular, compact, fleetSize);
+        return new long[]{regular, compact};
+    }
+
+    private static <R> long retainedSize(R[] resources, Function<R, ?> mapper) {
+        Object[] models = new Object[resources.length];
+        for (int i = 0; i < resources.length; i++) {
+            models[i] = mapper.apply(resources[i]);
+        }
+        long arraySize = GraphLayout.parseInstance((Object) new Object[resources.length]).totalSize();
+        return GraphLayout.parseInstance((Object) models).totalSize() - arraySize;
+    }
+
+    private static void print(String model, long regular, long compact, int fleetSize) {
+        System.out.printf("%-10s %9dB %9dB %7.0f%%%n", model, regular / fleetSize, compact / fleetSize,
+                100.0 * (regular - compact) / regular);
+    }
+}
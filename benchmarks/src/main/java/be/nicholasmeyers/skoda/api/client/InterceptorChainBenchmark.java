@@ -0,0 +1,77 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of the interceptors that {@link ClientConfiguration} adds to every request: rate limiting,
+ * authorization and metrics. The chain ends in an interceptor returning a canned response, so no network is involved.
+ * {@code bareChain} is the baseline without any of the client's interceptors.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InterceptorChainBenchmark {
+
+    private static final MediaType JSON = MediaType.get("application/json");
+
+    private OkHttpClient configuredClient;
+    private OkHttpClient bareClient;
+    private Request request;
+
+    @Setup
+    public void setUp() {
+        Interceptor cannedResponse = chain -> new Response.Builder()
+                .request(chain.request())
+                .protocol(Protocol.HTTP_2)
+                .code(200)
+                .message("OK")
+                .body(ResponseBody.create(BenchmarkFixtures.STATUS_JSON, JSON))
+                .build();
+
+        ClientConfiguration clientConfiguration = BenchmarkFixtures.clientConfiguration(new OkHttpClient(), null);
+        OkHttpClient.Builder configured = new OkHttpClient.Builder();
+        clientConfiguration.getApiClient().getHttpClient().interceptors().forEach(configured::addInterceptor);
+        configuredClient = configured.addInterceptor(cannedResponse).build();
+        bareClient = new OkHttpClient.Builder().addInterceptor(cannedResponse).build();
+
+        request = new Request.Builder()
+                .url("http://localhost/status/" + BenchmarkFixtures.VIN)
+                .build();
+    }
+
+    @Benchmark
+    public String configuredChain() throws IOException {
+        try (Response response = configuredClient.newCall(request).execute()) {
+            return response.body().string();
+        }
+    }
+
+    @Benchmark
+    public String bareChain() throws IOException {
+        try (Response response = bareClient.newCall(request).execute()) {
+            return response.body().string();
+        }
+    }
+}
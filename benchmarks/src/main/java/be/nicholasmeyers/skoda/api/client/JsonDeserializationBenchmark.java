@@ -0,0 +1,44 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import be.nicholasmeyers.skoda.client.resource.ChargingSessionWebResponseResource;
+import be.nicholasmeyers.skoda.client.resource.ChargingStatusWebResponseResource;
+import be.nicholasmeyers.skoda.client.resource.StatusWebResponseResource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the deserialization of API responses by the Gson configuration of the generated client.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonDeserializationBenchmark {
+
+    @Benchmark
+    public StatusWebResponseResource status() {
+        return BenchmarkFixtures.deserialize(BenchmarkFixtures.STATUS_JSON, StatusWebResponseResource.class);
+    }
+
+    @Benchmark
+    public ChargingStatusWebResponseResource chargingStatus() {
+        return BenchmarkFixtures.deserialize(BenchmarkFixtures.CHARGING_STATUS_JSON, ChargingStatusWebResponseResource.class);
+    }
+
+    @Benchmark
+    public List<ChargingSessionWebResponseResource> chargingSessions() {
+        return BenchmarkFixtures.deserialize(BenchmarkFixtures.CHARGING_SESSIONS_JSON, BenchmarkFixtures.CHARGING_SESSIONS_TYPE);
+    }
+}
@@ -0,0 +1,70 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import be.nicholasmeyers.skoda.client.resource.ChargingSessionWebResponseResource;
+import be.nicholasmeyers.skoda.client.resource.ChargingStatusWebResponseResource;
+import be.nicholasmeyers.skoda.client.resource.StatusWebResponseResource;
+import be.nicholasmeyers.skoda.client.resource.VehicleWebResponseResource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the mapping of API resources to the domain objects returned by {@link VehicleService}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+
+    private VehicleWebResponseResource vehicle;
+    private StatusWebResponseResource status;
+    private ChargingStatusWebResponseResource chargingStatus;
+    private List<ChargingSessionWebResponseResource> chargingSessions;
+
+    @Setup
+    public void setUp() {
+        List<VehicleWebResponseResource> vehicles = BenchmarkFixtures.deserialize(BenchmarkFixtures.VEHICLES_JSON, BenchmarkFixtures.VEHICLES_TYPE);
+        vehicle = vehicles.getFirst();
+        status = BenchmarkFixtures.deserialize(BenchmarkFixtures.STATUS_JSON, StatusWebResponseResource.class);
+        chargingStatus = BenchmarkFixtures.deserialize(BenchmarkFixtures.CHARGING_STATUS_JSON, ChargingStatusWebResponseResource.class);
+        chargingSessions = BenchmarkFixtures.deserialize(BenchmarkFixtures.CHARGING_SESSIONS_JSON, BenchmarkFixtures.CHARGING_SESSIONS_TYPE);
+    }
+
+    @Benchmark
+    public Vehicle toVehicle() {
+        return VehicleMapper.toVehicle(vehicle);
+    }
+
+    @Benchmark
+    public VehicleStatus toStatus() {
+        return VehicleMapper.toStatus(status);
+    }
+
+    @Benchmark
+    public CompactVehicleStatus toCompactStatus() {
+        return VehicleMapper.toCompactStatus(status);
+    }
+
+    @Benchmark
+    public VehicleChargingState toChargingState() {
+        return VehicleMapper.toChargingState(chargingStatus);
+    }
+
+    @Benchmark
+    public List<VehicleChargingSession> toChargingSessions() {
+        return VehicleMapper.toChargingSessions(chargingSessions);
+    }
+}
@@ -0,0 +1,12 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import be.nicholasmeyers.skoda.ApiException;
+
+/**
+ * A blocking call to one of the generated APIs.
+ */
+@FunctionalInterface
+interface ApiCall<T> {
+
+    T execute() throws ApiException;
+}
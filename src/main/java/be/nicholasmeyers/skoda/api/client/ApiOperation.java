@@ -0,0 +1,41 @@
+package be.nicholasmeyers.skoda.api.client;
+
+/**
+ * The operations of the Škoda API, with the endpoint they belong to and whether they may be retried.
+ */
+enum ApiOperation {
+
+    FIND_ALL_VEHICLES("findAllVehicles", "/vehicle", true),
+    GET_LOCATION("getLocation", "/location", true),
+    GET_STATUS("getStatus", "/status", true),
+    GET_RANGE("getRange", "/range", true),
+    GET_AIR_CONDITIONING("getAirConditioning", "/air-conditioning", true),
+    START_AIR_CONDITIONING("startAirConditioning", "/air-conditioning", false),
+    STOP_AIR_CONDITIONING("stopAirConditioning", "/air-conditioning", false),
+    GET_CHARGING_STATUS("getChargingStatus", "/charging", true),
+    GET_CHARGING_SESSION("getChargingSession", "/charging", true),
+    START_CHARGING("startCharging", "/charging", false),
+    STOP_CHARGING("stopCharging", "/charging", false);
+
+    private final String operationId;
+    private final String endpoint;
+    private final boolean idempotent;
+
+    ApiOperation(String operationId, String endpoint, boolean idempotent) {
+        this.operationId = operationId;
+        this.endpoint = endpoint;
+        this.idempotent = idempotent;
+    }
+
+    String getOperationId() {
+        return operationId;
+    }
+
+    String getEndpoint() {
+        return endpoint;
+    }
+
+    boolean isIdempotent() {
+        return idempotent;
+    }
+}
@@ -0,0 +1,13 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * An asynchronous call to one of the generated APIs. The returned future fails with an
+ * {@link be.nicholasmeyers.skoda.ApiException} when the call fails, and cancelling it cancels the call.
+ */
+@FunctionalInterface
+interface AsyncApiCall<T> {
+
+    CompletableFuture<T> start();
+}
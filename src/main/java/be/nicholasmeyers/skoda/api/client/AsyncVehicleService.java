@@ -0,0 +1,428 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import be.nicholasmeyers.skoda.ApiCallback;
+import be.nicholasmeyers.skoda.ApiException;
+import be.nicholasmeyers.skoda.client.AirConditioningApi;
+import be.nicholasmeyers.skoda.client.ChargingApi;
+import be.nicholasmeyers.skoda.client.LocationApi;
+import be.nicholasmeyers.skoda.client.RangeApi;
+import be.nicholasmeyers.skoda.client.StatusApi;
+import be.nicholasmeyers.skoda.client.VehicleApi;
+import okhttp3.Call;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Non-blocking counterpart of {@link VehicleService}.
+ * <p>
+ * Every method returns immediately with a {@link CompletableFuture} that completes when the HTTP
+ * round trip finishes. Requests are enqueued on the OkHttp dispatcher, so thousands of calls can be
+ * in flight without dedicating a thread to each of them.
+ * </p>
+ * <p>
+ * Failed calls complete the future exceptionally with a {@link VehicleServiceException}.
+ * Cancelling a returned future cancels the underlying HTTP call.
+ * </p>
+ * <p>
+ * Calls go through the same {@link ResiliencePolicy} as the blocking service. Retries and waits for a
+ * slot in the bulkhead of an endpoint do not hold a thread.
+ * </p>
+ */
+public class AsyncVehicleService {
+
+    private final VehicleApi vehicleApi;
+    private final LocationApi locationApi;
+    private final StatusApi statusApi;
+    private final RangeApi rangeApi;
+    private final AirConditioningApi airConditioningApi;
+    private final ChargingApi chargingApi;
+    private final VehicleMetricsRegistry metricsRegistry;
+    private final ResilientExecutor resilientExecutor;
+    private final ClientConfiguration clientConfiguration;
+    private final List<VehicleChangeListener> readListeners;
+
+    /**
+     * Constructs a new {@code AsyncVehicleService} using the default server configuration.
+     *
+     * @param email    the email address used for authentication.
+     * @param password the password used for authentication.
+     */
+    public AsyncVehicleService(String email, String password) {
+        this(new ClientConfiguration(email, password));
+    }
+
+    /**
+     * Constructs a new {@code AsyncVehicleService} using a custom server URL.
+     *
+     * @param email    the email address used for authentication.
+     * @param password the password used for authentication.
+     * @param server   the base URL of the API server to use.
+     */
+    public AsyncVehicleService(String email, String password, String server) {
+        this(new ClientConfiguration(email, password, server));
+    }
+
+    /**
+     * Constructs a new {@code AsyncVehicleService} on top of an existing client configuration.
+     *
+     * @param clientConfiguration the configuration providing the API client and token service.
+     */
+    AsyncVehicleService(ClientConfiguration clientConfiguration) {
+        this(clientConfiguration, new CopyOnWriteArrayList<>());
+    }
+
+    /**
+     * Constructs a new {@code AsyncVehicleService} that notifies the given read listeners, shared with a {@link VehicleService}.
+     *
+     * @param clientConfiguration the configuration providing the API client and token service.
+     * @param readListeners       the listeners receiving every value read.
+     */
+    AsyncVehicleService(ClientConfiguration clientConfiguration, List<VehicleChangeListener> readListeners) {
+        this.vehicleApi = new VehicleApi(clientConfiguration.getAsyncApiClient());
+        this.locationApi = new LocationApi(clientConfiguration.getAsyncApiClient());
+        this.statusApi = new StatusApi(clientConfiguration.getAsyncApiClient());
+        this.rangeApi = new RangeApi(clientConfiguration.getAsyncApiClient());
+        this.airConditioningApi = new AirConditioningApi(clientConfiguration.getAsyncApiClient());
+        this.chargingApi = new ChargingApi(clientConfiguration.getAsyncApiClient());
+        this.metricsRegistry = clientConfiguration.getMetricsRegistry();
+        this.resilientExecutor = clientConfiguration.getResilientExecutor();
+        this.clientConfiguration = clientConfiguration;
+        this.readListeners = readListeners;
+    }
+
+    /**
+     * Retrieves all vehicles associated with the authenticated account.
+     *
+     * @return a future completing with a list of {@link Vehicle} objects representing the user's vehicles.
+     */
+    public CompletableFuture<List<Vehicle>> getVehicles() {
+        return enqueue(ApiOperation.FIND_ALL_VEHICLES, vehicleApi::findAllVehiclesAsync, VehicleMapper::toVehicles,
+                "Failed to retrieve vehicles");
+    }
+
+    /**
+     * Retrieves the current location of a vehicle.
+     *
+     * @param vin the Vehicle Identification Number of the vehicle.
+     * @return a future completing with the {@link VehicleLocation} of the vehicle.
+     */
+    public CompletableFuture<VehicleLocation> getVehicleLocation(String vin) {
+        return enqueue(ApiOperation.GET_LOCATION, callback -> locationApi.getLocationAsync(vin, callback),
+                read(vin, VehicleDataType.LOCATION, VehicleMapper::toLocation, location -> null),
+                "Failed to get vehicle location");
+    }
+
+    /**
+     * Retrieves the current status of a vehicle, including door, window, and lock states.
+     *
+     * @param vin the Vehicle Identification Number of the vehicle.
+     * @return a future completing with the {@link VehicleStatus} of the vehicle.
+     */
+    public CompletableFuture<VehicleStatus> getVehicleStatus(String vin) {
+        return enqueue(ApiOperation.GET_STATUS, callback -> statusApi.getStatusAsync(vin, callback),
+                read(vin, VehicleDataType.STATUS, VehicleMapper::toStatus, VehicleStatus::getCarCapturedTimestamp),
+                "Failed to get vehicle status");
+    }
+
+    /**
+     * Retrieves the current range and battery information of a vehicle.
+     *
+     * @param vin the Vehicle Identification Number of the vehicle.
+     * @return a future completing with the {@link VehicleRange} of the vehicle.
+     */
+    public CompletableFuture<VehicleRange> getVehicleRange(String vin) {
+        return enqueue(ApiOperation.GET_RANGE, callback -> rangeApi.getRangeAsync(vin, callback),
+                read(vin, VehicleDataType.RANGE, VehicleMapper::toRange, VehicleRange::getCarCapturedTimestamp),
+                "Failed to get vehicle range");
+    }
+
+    /**
+     * Retrieves the current air conditioning status of a vehicle.
+     *
+     * @param vin the Vehicle Identification Number of the vehicle.
+     * @return a future completing with the {@link VehicleAirConditioningStatus} of the vehicle.
+     */
+    public CompletableFuture<VehicleAirConditioningStatus> getVehicleAirConditioning(String vin) {
+        return enqueue(ApiOperation.GET_AIR_CONDITIONING, callback -> airConditioningApi.getAirConditioningAsync(vin, callback),
+                read(vin, VehicleDataType.AIR_CONDITIONING, VehicleMapper::toAirConditioning,
+                        VehicleAirConditioningStatus::getCarCapturedTimestamp),
+                "Failed to get vehicle air conditioning");
+    }
+
+    /**
+     * Starts the air conditioning of a vehicle with the specified settings.
+     *
+     * @param vin             the Vehicle Identification Number of the vehicle.
+     * @param heaterSource    the heat source to use (e.g., electric).
+     * @param temperature     the desired target temperature.
+     * @param temperatureUnit the unit of the target temperature (e.g., Celsius).
+     * @return a future completing when the command has been accepted.
+     */
+    public CompletableFuture<Void> startVehicleAirConditioning(String vin, VehicleHeaterSource heaterSource, double temperature,
+                                                               VehicleTemperatureUnit temperatureUnit) {
+        return enqueue(ApiOperation.START_AIR_CONDITIONING, callback -> airConditioningApi.startAirConditioningAsync(vin,
+                        VehicleMapper.toAirConditioningRequest(heaterSource, temperature, temperatureUnit), callback),
+                Function.identity(), "Failed to start vehicle air conditioning");
+    }
+
+    /**
+     * Stops the air conditioning of a vehicle.
+     *
+     * @param vin the Vehicle Identification Number of the vehicle.
+     * @return a future completing when the command has been accepted.
+     */
+    public CompletableFuture<Void> stopVehicleAirConditioning(String vin) {
+        return enqueue(ApiOperation.STOP_AIR_CONDITIONING, callback -> airConditioningApi.stopAirConditioningAsync(vin, callback), Function.identity(),
+                "Failed to stop vehicle air conditioning");
+    }
+
+    /**
+     * Retrieves the current charging state of a vehicle.
+     *
+     * @param vin the Vehicle Identification Number of the vehicle.
+     * @return a future completing with the {@link VehicleChargingState} of the vehicle.
+     */
+    public CompletableFuture<VehicleChargingState> getVehicleChargingState(String vin) {
+        return enqueue(ApiOperation.GET_CHARGING_STATUS, callback -> chargingApi.getChargingStatusAsync(vin, callback),
+                read(vin, VehicleDataType.CHARGING_STATE, VehicleMapper::toChargingState, VehicleChargingState::getCarCapturedTimestamp),
+                "Failed to get vehicle charging state");
+    }
+
+    /**
+     * Retrieves the charging session history of a vehicle.
+     *
+     * @param vin the Vehicle Identification Number of the vehicle.
+     * @return a future completing with a list of {@link VehicleChargingSession} objects.
+     */
+    public CompletableFuture<List<VehicleChargingSession>> getVehicleChargingSessions(String vin) {
+        return enqueue(ApiOperation.GET_CHARGING_SESSION, callback -> chargingApi.getChargingSessionAsync(vin, callback), VehicleMapper::toChargingSessions,
+                "Failed to get vehicle charging sessions");
+    }
+
+    /**
+     * Starts a charging session for a vehicle.
+     *
+     * @param vin the Vehicle Identification Number of the vehicle.
+     * @return a future completing when the command has been accepted.
+     */
+    public CompletableFuture<Void> startCharging(String vin) {
+        return enqueue(ApiOperation.START_CHARGING, callback -> chargingApi.startChargingAsync(vin, callback), Function.identity(),
+                "Failed to start charging");
+    }
+
+    /**
+     * Stops the active charging session of a vehicle.
+     *
+     * @param vin the Vehicle Identification Number of the vehicle.
+     * @return a future completing when the command has been accepted.
+     */
+    public CompletableFuture<Void> stopCharging(String vin) {
+        return enqueue(ApiOperation.STOP_CHARGING, callback -> chargingApi.stopChargingAsync(vin, callback), Function.identity(),
+                "Failed to stop charging");
+    }
+
+    /**
+     * Retrieves the status, range, location, charging state and air conditioning of a vehicle in parallel.
+     * <p>
+     * The returned future never completes exceptionally: parts that fail are reported through
+     * {@link VehicleSnapshot#getErrors()}, while the other parts are still returned.
+     * </p>
+     *
+     * @param vin the Vehicle Identification Number of the vehicle.
+     * @return a future completing with the combined {@link VehicleSnapshot} once every part has finished.
+     */
+    public CompletableFuture<VehicleSnapshot> getVehicleSnapshot(String vin) {
+        Map<VehicleDataType, VehicleServiceException> errors = new ConcurrentHashMap<>();
+        CompletableFuture<VehicleStatus> status = recover(getVehicleStatus(vin), VehicleDataType.STATUS, errors);
+        CompletableFuture<VehicleRange> range = recover(getVehicleRange(vin), VehicleDataType.RANGE, errors);
+        CompletableFuture<VehicleLocation> location = recover(getVehicleLocation(vin), VehicleDataType.LOCATION, errors);
+        CompletableFuture<VehicleChargingState> chargingState =
+                recover(getVehicleChargingState(vin), VehicleDataType.CHARGING_STATE, errors);
+        CompletableFuture<VehicleAirConditioningStatus> airConditioning =
+                recover(getVehicleAirConditioning(vin), VehicleDataType.AIR_CONDITIONING, errors);
+
+        return CompletableFuture.allOf(status, range, location, chargingState, airConditioning)
+                .thenApply(ignored -> new VehicleSnapshot(vin, status.join(), range.join(), location.join(),
+                        chargingState.join(), airConditioning.join(), errors));
+    }
+
+    /**
+     * Registers a listener that receives every status, range, location, charging state and air conditioning
+     * status read by this service.
+     * <p>
+     * Listeners are called on the thread that completes the read. The listeners are shared with the
+     * {@link VehicleService} this view was obtained from, see {@link VehicleService#addReadListener(VehicleChangeListener)}.
+     * A listener that throws does not stop the other listeners and does not fail the read.
+     * </p>
+     *
+     * @param listener the listener to add.
+     */
+    public void addReadListener(VehicleChangeListener listener) {
+        readListeners.add(listener);
+    }
+
+    /**
+     * Removes a previously registered read listener.
+     *
+     * @param listener the listener to remove.
+     */
+    public void removeReadListener(VehicleChangeListener listener) {
+        readListeners.remove(listener);
+    }
+
+    private static <T> CompletableFuture<T> recover(CompletableFuture<T> future, VehicleDataType dataType,
+                                                    Map<VehicleDataType, VehicleServiceException> errors) {
+        return future.exceptionally(throwable -> {
+            Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+            errors.put(dataType, cause instanceof VehicleServiceException vehicleServiceException
+                    ? vehicleServiceException
+                    : new VehicleServiceException("Failed to get vehicle " + dataType.name().toLowerCase().replace('_', ' '), cause.getMessage()));
+            return null;
+        });
+    }
+
+    /**
+     * Maps a value that was read and hands it to the read listeners.
+     */
+    private <R, T> Function<R, T> read(String vin, VehicleDataType dataType, Function<R, T> mapper,
+                                       Function<T, String> timestamp) {
+        return resource -> {
+            T value = mapper.apply(resource);
+            if (!readListeners.isEmpty()) {
+                VehicleChangeListeners.deliver(readListeners,
+                        new VehicleChangeEvent<>(vin, dataType, null, timestamp.apply(value), value));
+            }
+            return value;
+        };
+    }
+
+    /**
+     * Sends a call under the resilience policy, reports its duration to the metrics registry, maps its result
+     * and converts API errors.
+     */
+    private <R, T> CompletableFuture<T> enqueue(ApiOperation operation, AsyncCall<R> asyncCall, Function<R, T> mapper,
+                                                String errorMessage) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        long start = System.nanoTime();
+        future.whenComplete((result, throwable) ->
+                metricsRegistry.recordOperation(operation.getOperationId(), System.nanoTime() - start, throwable == null));
+
+        CompletableFuture<R> response = resilientExecutor.executeAsync(operation, () -> send(asyncCall));
+        response.whenComplete((result, throwable) -> {
+            if (throwable != null) {
+                Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+                future.completeExceptionally(new VehicleServiceException(errorMessage, cause.getMessage()));
+                return;
+            }
+            try {
+                future.complete(mapper.apply(result));
+            } catch (RuntimeException e) {
+                future.completeExceptionally(new VehicleServiceException(errorMessage, e.getMessage()));
+            }
+        });
+        future.whenComplete((result, throwable) -> {
+            if (future.isCancelled()) {
+                response.cancel(true);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Sends a single attempt of a call once the rate limiter permits it. The wait for a permit is scheduled
+     * instead of blocking a thread. A request throttled by the API is sent again once the pause of the account
+     * has ended, until it has been throttled for longer than the maximum {@code Retry-After} in total.
+     * The returned future fails with the {@link ApiException} of the call, and cancelling it cancels the call.
+     */
+    private <R> CompletableFuture<R> send(AsyncCall<R> asyncCall) {
+        CompletableFuture<R> response = new CompletableFuture<>();
+        send(asyncCall, clientConfiguration.reserveRateLimitPermit(), 0, response);
+        return response;
+    }
+
+    private <R> void send(AsyncCall<R> asyncCall, long waitNanos, long throttledNanos, CompletableFuture<R> response) {
+        if (waitNanos < 0) {
+            response.completeExceptionally(new ApiException(new RateLimitExceededException("Rate limit exceeded")));
+            return;
+        }
+        Executor executor = waitNanos == 0 ? Runnable::run
+                : CompletableFuture.delayedExecutor(waitNanos, TimeUnit.NANOSECONDS);
+        executor.execute(() -> {
+            if (response.isDone()) {
+                return;
+            }
+            CompletableFuture<R> enqueued = enqueueCall(asyncCall);
+            response.whenComplete((result, throwable) -> {
+                if (response.isCancelled()) {
+                    enqueued.cancel(true);
+                }
+            });
+            enqueued.whenComplete((result, throwable) -> {
+                if (throwable == null) {
+                    response.complete(result);
+                    return;
+                }
+                long retryAfterNanos = clientConfiguration.getThrottledRetryAfterNanos(throwable);
+                if (retryAfterNanos < 0) {
+                    response.completeExceptionally(throwable);
+                } else if (throttledNanos + retryAfterNanos > clientConfiguration.getMaxRetryAfterNanos()) {
+                    response.completeExceptionally(new ApiException(new RateLimitExceededException(
+                            "Throttled by the API longer than the maximum Retry-After")));
+                } else {
+                    send(asyncCall, clientConfiguration.reserveRateLimitPermitAfterThrottle(),
+                            throttledNanos + retryAfterNanos, response);
+                }
+            });
+        });
+    }
+
+    /**
+     * Enqueues a call on the OkHttp dispatcher. The returned future fails with the {@link ApiException} of the
+     * call, and cancelling it cancels the call.
+     */
+    private static <R> CompletableFuture<R> enqueueCall(AsyncCall<R> asyncCall) {
+        CompletableFuture<R> response = new CompletableFuture<>();
+        try {
+            Call call = asyncCall.enqueue(new ApiCallback<>() {
+                @Override
+                public void onFailure(ApiException e, int statusCode, Map<String, List<String>> responseHeaders) {
+                    response.completeExceptionally(e);
+                }
+
+                @Override
+                public void onSuccess(R result, int statusCode, Map<String, List<String>> responseHeaders) {
+                    response.complete(result);
+                }
+
+                @Override
+                public void onUploadProgress(long bytesWritten, long contentLength, boolean done) {
+                }
+
+                @Override
+                public void onDownloadProgress(long bytesRead, long contentLength, boolean done) {
+                }
+            });
+            response.whenComplete((result, throwable) -> {
+                if (response.isCancelled()) {
+                    call.cancel();
+                }
+            });
+        } catch (ApiException e) {
+            response.completeExceptionally(e);
+        }
+        return response;
+    }
+
+    @FunctionalInterface
+    private interface AsyncCall<R> {
+        Call enqueue(ApiCallback<R> callback) throws ApiException;
+    }
+}
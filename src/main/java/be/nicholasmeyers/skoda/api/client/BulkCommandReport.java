@@ -0,0 +1,85 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The outcome of a {@link VehicleCommand} sent to many vehicles with
+ * {@link FleetExecutor#dispatch(java.util.Collection, VehicleCommand)}.
+ * <p>
+ * Instances of this class are created internally and are not intended to be constructed directly.
+ * </p>
+ */
+public class BulkCommandReport {
+
+    private final VehicleCommand command;
+    private final Map<String, FleetResult<Void>> results;
+    private final Duration duration;
+
+    BulkCommandReport(VehicleCommand command, Map<String, FleetResult<Void>> results, Duration duration) {
+        this.command = command;
+        this.results = results;
+        this.duration = duration;
+    }
+
+    /**
+     * Returns the command that was sent.
+     *
+     * @return the command.
+     */
+    public VehicleCommand getCommand() {
+        return command;
+    }
+
+    /**
+     * Returns the result of the command per vehicle.
+     *
+     * @return the result per VIN, in the order the VINs were passed.
+     */
+    public Map<String, FleetResult<Void>> getResults() {
+        return results;
+    }
+
+    /**
+     * Returns the vehicles that accepted the command.
+     *
+     * @return the VINs of the successful vehicles.
+     */
+    public List<String> getSucceededVins() {
+        return results.values().stream()
+                .filter(FleetResult::isSuccess)
+                .map(FleetResult::getVin)
+                .toList();
+    }
+
+    /**
+     * Returns the vehicles for which the command failed. Use {@link #getResults()} to find out why.
+     *
+     * @return the VINs of the failed vehicles.
+     */
+    public List<String> getFailedVins() {
+        return results.values().stream()
+                .filter(result -> !result.isSuccess())
+                .map(FleetResult::getVin)
+                .toList();
+    }
+
+    /**
+     * Returns whether the command succeeded for every vehicle.
+     *
+     * @return {@code true} if no vehicle failed.
+     */
+    public boolean isAllSucceeded() {
+        return results.values().stream().allMatch(FleetResult::isSuccess);
+    }
+
+    /**
+     * Returns how long it took to send the command to all vehicles.
+     *
+     * @return the duration of the dispatch.
+     */
+    public Duration getDuration() {
+        return duration;
+    }
+}
@@ -0,0 +1,90 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import be.nicholasmeyers.skodaconnector.resource.Tokens;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Holds an access token and its optional refresh token together with the moment the access token expires.
+ * <p>
+ * The expiry is read from the {@code exp} claim of the access token. When the token
+ * is not a readable JWT a conservative default lifetime is assumed.
+ * </p>
+ */
+class CachedTokens {
+
+    private static final Duration DEFAULT_LIFETIME = Duration.ofMinutes(15);
+
+    private final String accessToken;
+    private final String refreshToken;
+    private final Instant expiresAt;
+
+    private CachedTokens(String accessToken, String refreshToken, Instant expiresAt) {
+        this.accessToken = accessToken;
+        this.refreshToken = refreshToken;
+        this.expiresAt = expiresAt;
+    }
+
+    static CachedTokens of(Tokens tokens) {
+        return of(tokens.getAccessToken(), tokens.getRefreshToken());
+    }
+
+    static CachedTokens of(String accessToken, String refreshToken) {
+        Instant expiresAt = readExpiry(accessToken);
+        if (expiresAt == null) {
+            expiresAt = Instant.now().plus(DEFAULT_LIFETIME);
+        }
+        return new CachedTokens(accessToken, refreshToken, expiresAt);
+    }
+
+    /**
+     * Holds only a refresh token, so the first access token is obtained by refreshing instead of logging in.
+     */
+    static CachedTokens ofRefreshToken(String refreshToken) {
+        return new CachedTokens(null, refreshToken, Instant.EPOCH);
+    }
+
+    String getAccessToken() {
+        return accessToken;
+    }
+
+    String getRefreshToken() {
+        return refreshToken;
+    }
+
+    boolean hasRefreshToken() {
+        return refreshToken != null && !refreshToken.isBlank();
+    }
+
+    Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    boolean isValidAt(Instant instant) {
+        return instant.isBefore(expiresAt);
+    }
+
+    private static Instant readExpiry(String accessToken) {
+        if (accessToken == null) {
+            return null;
+        }
+        String[] parts = accessToken.split("\\.");
+        if (parts.length < 2) {
+            return null;
+        }
+        try {
+            String payload = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8);
+            JsonObject claims = JsonParser.parseString(payload).getAsJsonObject();
+            JsonElement exp = claims.get("exp");
+            return exp == null ? null : Instant.ofEpochSecond(exp.getAsLong());
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
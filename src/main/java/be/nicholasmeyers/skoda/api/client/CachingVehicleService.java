@@ -0,0 +1,227 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * A read-through cache in front of a {@link VehicleService}.
+ * <p>
+ * Reads are served from memory while they are fresh according to the {@link VehicleCachePolicy},
+ * keyed by VIN. Commands are passed straight to the underlying service and invalidate the
+ * cached data they affect, so a read after {@link #startCharging(String)} always reaches the API.
+ * An invalidation also detaches the reads of the underlying service that are still in flight, so a read
+ * after a command sends a new request and a response to a request sent before the command is never cached.
+ * Close the service to stop its background revalidation.
+ * </p>
+ * <pre>{@code
+ * try (CachingVehicleService cachingVehicleService = new CachingVehicleService(vehicleService, VehicleCachePolicy.defaults())) {
+ *     VehicleStatus status = cachingVehicleService.getVehicleStatus("YOUR_CARS_VIN");
+ * }
+ * }</pre>
+ */
+public class CachingVehicleService implements AutoCloseable {
+
+    private static final String VEHICLES_KEY = "";
+
+    private final VehicleService vehicleService;
+    private final ExecutorService revalidationExecutor;
+    private final Map<VehicleDataType, TtlCache<String, Object>> caches = new EnumMap<>(VehicleDataType.class);
+
+    /**
+     * Constructs a new {@code CachingVehicleService}.
+     *
+     * @param vehicleService the service used to load values that are not cached.
+     * @param cachePolicy    the time to live and size limits of the cache.
+     */
+    public CachingVehicleService(VehicleService vehicleService, VehicleCachePolicy cachePolicy) {
+        this.vehicleService = vehicleService;
+        this.revalidationExecutor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("skoda-cache-revalidate-", 0).factory());
+        for (VehicleDataType dataType : VehicleDataType.values()) {
+            caches.put(dataType, new TtlCache<>(cachePolicy.getTimeToLive(dataType).toNanos(),
+                    cachePolicy.getStaleWhileRevalidate().toNanos(), cachePolicy.getMaximumSize(), revalidationExecutor));
+        }
+    }
+
+    /**
+     * Retrieves all vehicles associated with the authenticated account.
+     *
+     * @return a list of {@link Vehicle} objects representing the user's vehicles.
+     * @throws VehicleServiceException if the value is not cached and the API call fails.
+     */
+    public List<Vehicle> getVehicles() {
+        return get(VehicleDataType.VEHICLES, VEHICLES_KEY, vehicleService::getVehicles);
+    }
+
+    /**
+     * Retrieves the current location of a vehicle.
+     *
+     * @param vin the Vehicle Identification Number of the vehicle.
+     * @return a {@link VehicleLocation} containing the latitude, longitude, and address of the vehicle.
+     * @throws VehicleServiceException if the value is not cached and the API call fails.
+     */
+    public VehicleLocation getVehicleLocation(String vin) {
+        return get(VehicleDataType.LOCATION, vin, () -> vehicleService.getVehicleLocation(vin));
+    }
+
+    /**
+     * Retrieves the current status of a vehicle, including door, window, and lock states.
+     *
+     * @param vin the Vehicle Identification Number of the vehicle.
+     * @return a {@link VehicleStatus} containing detailed status information about the vehicle.
+     * @throws VehicleServiceException if the value is not cached and the API call fails.
+     */
+    public VehicleStatus getVehicleStatus(String vin) {
+        return get(VehicleDataType.STATUS, vin, () -> vehicleService.getVehicleStatus(vin));
+    }
+
+    /**
+     * Retrieves the current range and battery information of a vehicle.
+     *
+     * @param vin the Vehicle Identification Number of the vehicle.
+     * @return a {@link VehicleRange} containing the range and battery information of the vehicle.
+     * @throws VehicleServiceException if the value is not cached and the API call fails.
+     */
+    public VehicleRange getVehicleRange(String vin) {
+        return get(VehicleDataType.RANGE, vin, () -> vehicleService.getVehicleRange(vin));
+    }
+
+    /**
+     * Retrieves the current air conditioning status of a vehicle.
+     *
+     * @param vin the Vehicle Identification Number of the vehicle.
+     * @return a {@link VehicleAirConditioningStatus} containing the air conditioning status of the vehicle.
+     * @throws VehicleServiceException if the value is not cached and the API call fails.
+     */
+    public VehicleAirConditioningStatus getVehicleAirConditioning(String vin) {
+        return get(VehicleDataType.AIR_CONDITIONING, vin, () -> vehicleService.getVehicleAirConditioning(vin));
+    }
+
+    /**
+     * Retrieves the current charging state of a vehicle.
+     *
+     * @param vin the Vehicle Identification Number of the vehicle.
+     * @return a {@link VehicleChargingState} containing the charging state of the vehicle.
+     * @throws VehicleServiceException if the value is not cached and the API call fails.
+     */
+    public VehicleChargingState getVehicleChargingState(String vin) {
+        return get(VehicleDataType.CHARGING_STATE, vin, () -> vehicleService.getVehicleChargingState(vin));
+    }
+
+    /**
+     * Retrieves the charging session history of a vehicle.
+     *
+     * @param vin the Vehicle Identification Number of the vehicle.
+     * @return a list of {@link VehicleChargingSession} objects.
+     * @throws VehicleServiceException if the value is not cached and the API call fails.
+     */
+    public List<VehicleChargingSession> getVehicleChargingSessions(String vin) {
+        return get(VehicleDataType.CHARGING_SESSIONS, vin, () -> vehicleService.getVehicleChargingSessions(vin));
+    }
+
+    /**
+     * Starts the air conditioning of a vehicle and invalidates its cached air conditioning status.
+     *
+     * @param vin             the Vehicle Identification Number of the vehicle.
+     * @param heaterSource    the heat source to use (e.g., electric).
+     * @param temperature     the desired target temperature.
+     * @param temperatureUnit the unit of the target temperature (e.g., Celsius).
+     * @throws VehicleServiceException if the API call fails.
+     */
+    public void startVehicleAirConditioning(String vin, VehicleHeaterSource heaterSource, double temperature, VehicleTemperatureUnit temperatureUnit) {
+        try {
+            vehicleService.startVehicleAirConditioning(vin, heaterSource, temperature, temperatureUnit);
+        } finally {
+            invalidate(vin, VehicleDataType.AIR_CONDITIONING);
+        }
+    }
+
+    /**
+     * Stops the air conditioning of a vehicle and invalidates its cached air conditioning status.
+     *
+     * @param vin the Vehicle Identification Number of the vehicle.
+     * @throws VehicleServiceException if the API call fails.
+     */
+    public void stopVehicleAirConditioning(String vin) {
+        try {
+            vehicleService.stopVehicleAirConditioning(vin);
+        } finally {
+            invalidate(vin, VehicleDataType.AIR_CONDITIONING);
+        }
+    }
+
+    /**
+     * Starts a charging session for a vehicle and invalidates its cached charging data.
+     *
+     * @param vin the Vehicle Identification Number of the vehicle.
+     * @throws VehicleServiceException if the API call fails.
+     */
+    public void startCharging(String vin) {
+        try {
+            vehicleService.startCharging(vin);
+        } finally {
+            invalidate(vin, VehicleDataType.CHARGING_STATE, VehicleDataType.CHARGING_SESSIONS);
+        }
+    }
+
+    /**
+     * Stops the active charging session of a vehicle and invalidates its cached charging data.
+     *
+     * @param vin the Vehicle Identification Number of the vehicle.
+     * @throws VehicleServiceException if the API call fails.
+     */
+    public void stopCharging(String vin) {
+        try {
+            vehicleService.stopCharging(vin);
+        } finally {
+            invalidate(vin, VehicleDataType.CHARGING_STATE, VehicleDataType.CHARGING_SESSIONS);
+        }
+    }
+
+    /**
+     * Removes every cached value of a vehicle.
+     *
+     * @param vin the Vehicle Identification Number of the vehicle.
+     */
+    public void invalidate(String vin) {
+        invalidate(vin, VehicleDataType.values());
+    }
+
+    /**
+     * Removes every cached value.
+     */
+    public void invalidateAll() {
+        vehicleService.forgetInFlightReads();
+        for (TtlCache<String, Object> cache : caches.values()) {
+            cache.invalidateAll();
+        }
+    }
+
+    /**
+     * Stops the background revalidation. Afterwards stale values are only reloaded once they leave the stale window.
+     */
+    @Override
+    public void close() {
+        revalidationExecutor.shutdownNow();
+    }
+
+    /**
+     * Detaches the reads in flight before invalidating, so that every load that starts after the invalidation
+     * sends a new request, and every load that may have joined an older request is discarded.
+     */
+    private void invalidate(String vin, VehicleDataType... dataTypes) {
+        for (VehicleDataType dataType : dataTypes) {
+            vehicleService.forgetInFlightRead(vin, dataType);
+            caches.get(dataType).invalidate(vin);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T get(VehicleDataType dataType, String key, Supplier<T> loader) {
+        return (T) caches.get(dataType).get(key, loader::get);
+    }
+}
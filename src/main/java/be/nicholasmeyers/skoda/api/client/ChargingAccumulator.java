@@ -0,0 +1,106 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+
+/**
+ * Accumulates charging sessions into primitive totals and value arrays.
+ * <p>
+ * Accumulators are filled by a single thread and combined with {@link #merge(ChargingAccumulator)},
+ * which lets {@link ChargingAnalytics} split the work over a fork-join pool without sharing state.
+ * </p>
+ */
+class ChargingAccumulator {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long sessionCount;
+    private double chargedInKWh;
+    private double acChargedInKWh;
+    private double dcChargedInKWh;
+    private long durationInMinutes;
+    private double timedChargedInKWh;
+    private long firstStartAt = Long.MAX_VALUE;
+    private long lastStartAt = Long.MIN_VALUE;
+    private double[] powersInKw = new double[INITIAL_CAPACITY];
+    private int powerCount;
+    private double[] energiesInKWh = new double[INITIAL_CAPACITY];
+    private int energyCount;
+
+    void add(VehicleChargingSession session) {
+        double charged = session.getChargedInKWh();
+        int duration = session.getDurationInMinutes();
+
+        sessionCount++;
+        chargedInKWh += charged;
+        if ("AC".equalsIgnoreCase(session.getCurrentType())) {
+            acChargedInKWh += charged;
+        } else if ("DC".equalsIgnoreCase(session.getCurrentType())) {
+            dcChargedInKWh += charged;
+        }
+        energiesInKWh = ensureCapacity(energiesInKWh, energyCount + 1);
+        energiesInKWh[energyCount++] = charged;
+        if (duration > 0) {
+            durationInMinutes += duration;
+            timedChargedInKWh += charged;
+            powersInKw = ensureCapacity(powersInKw, powerCount + 1);
+            powersInKw[powerCount++] = charged * 60 / duration;
+        }
+
+        long startAt = parseStartAt(session.getStartAt());
+        if (startAt != Long.MIN_VALUE) {
+            firstStartAt = Math.min(firstStartAt, startAt);
+            lastStartAt = Math.max(lastStartAt, startAt);
+        }
+    }
+
+    ChargingAccumulator merge(ChargingAccumulator other) {
+        sessionCount += other.sessionCount;
+        chargedInKWh += other.chargedInKWh;
+        acChargedInKWh += other.acChargedInKWh;
+        dcChargedInKWh += other.dcChargedInKWh;
+        durationInMinutes += other.durationInMinutes;
+        timedChargedInKWh += other.timedChargedInKWh;
+        firstStartAt = Math.min(firstStartAt, other.firstStartAt);
+        lastStartAt = Math.max(lastStartAt, other.lastStartAt);
+        powersInKw = ensureCapacity(powersInKw, powerCount + other.powerCount);
+        System.arraycopy(other.powersInKw, 0, powersInKw, powerCount, other.powerCount);
+        powerCount += other.powerCount;
+        energiesInKWh = ensureCapacity(energiesInKWh, energyCount + other.energyCount);
+        System.arraycopy(other.energiesInKWh, 0, energiesInKWh, energyCount, other.energyCount);
+        energyCount += other.energyCount;
+        return this;
+    }
+
+    /**
+     * Returns the statistics of the accumulated sessions. The value arrays are copied and sorted,
+     * so the accumulator can still be merged afterwards.
+     */
+    ChargingStatistics toStatistics() {
+        double[] powers = Arrays.copyOf(powersInKw, powerCount);
+        double[] energies = Arrays.copyOf(energiesInKWh, energyCount);
+        Arrays.parallelSort(powers);
+        Arrays.parallelSort(energies);
+        return new ChargingStatistics(sessionCount, chargedInKWh, acChargedInKWh, dcChargedInKWh, durationInMinutes,
+                timedChargedInKWh, firstStartAt, lastStartAt, powers, energies);
+    }
+
+    private static double[] ensureCapacity(double[] values, int capacity) {
+        if (capacity <= values.length) {
+            return values;
+        }
+        return Arrays.copyOf(values, Math.max(capacity, values.length * 2));
+    }
+
+    private static long parseStartAt(String startAt) {
+        if (startAt == null) {
+            return Long.MIN_VALUE;
+        }
+        try {
+            return OffsetDateTime.parse(startAt).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return Long.MIN_VALUE;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Computes charging statistics for single vehicles and whole fleets in parallel.
+ * <p>
+ * The sessions are split over a {@link ForkJoinPool}: a fleet is divided by vehicle, and long session lists
+ * are divided further into chunks. Every chunk is summed into primitive totals and value arrays, which are
+ * merged on the way back up, so no value is boxed while the statistics are computed.
+ * </p>
+ * <pre>{@code
+ * ChargingAnalytics analytics = new ChargingAnalytics();
+ * FleetChargingStatistics statistics = analytics.analyzeFleet(sessionsByVin);
+ * double dcShare = statistics.getFleet().getDcChargedInKWh() / statistics.getFleet().getChargedInKWh();
+ * double p95Power = statistics.getFleet().getPowerPercentileInKw(95);
+ * }</pre>
+ */
+public class ChargingAnalytics {
+
+    private static final int SESSIONS_PER_TASK = 1024;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructs a new {@code ChargingAnalytics} that runs on the common fork-join pool.
+     */
+    public ChargingAnalytics() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a new {@code ChargingAnalytics} that runs on the given pool.
+     *
+     * @param pool the fork-join pool to compute the statistics on.
+     */
+    public ChargingAnalytics(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Computes the statistics of a list of charging sessions, for example the history of one vehicle.
+     *
+     * @param sessions the sessions to analyse.
+     * @return the statistics of the sessions.
+     */
+    public ChargingStatistics analyze(List<VehicleChargingSession> sessions) {
+        return pool.invoke(new SessionTask(randomAccess(sessions), 0, sessions.size())).toStatistics();
+    }
+
+    /**
+     * Computes the statistics of every vehicle of a fleet and of the fleet as a whole.
+     *
+     * @param sessionsByVin the charging sessions of every vehicle, by VIN.
+     * @return the statistics per vehicle and for the fleet.
+     */
+    public FleetChargingStatistics analyzeFleet(Map<String, ? extends List<VehicleChargingSession>> sessionsByVin) {
+        int size = sessionsByVin.size();
+        String[] vins = new String[size];
+        List<List<VehicleChargingSession>> sessions = new ArrayList<>(size);
+        int i = 0;
+        for (Map.Entry<String, ? extends List<VehicleChargingSession>> entry : sessionsByVin.entrySet()) {
+            vins[i++] = entry.getKey();
+            sessions.add(randomAccess(entry.getValue()));
+        }
+
+        ChargingStatistics[] vehicleStatistics = new ChargingStatistics[size];
+        ChargingAccumulator fleet = size == 0
+                ? new ChargingAccumulator()
+                : pool.invoke(new VehicleTask(sessions, vehicleStatistics, 0, size));
+
+        Map<String, ChargingStatistics> vehicles = new HashMap<>(size * 2);
+        for (int vehicle = 0; vehicle < size; vehicle++) {
+            vehicles.put(vins[vehicle], vehicleStatistics[vehicle]);
+        }
+        return new FleetChargingStatistics(fleet.toStatistics(), vehicles);
+    }
+
+    private static List<VehicleChargingSession> randomAccess(List<VehicleChargingSession> sessions) {
+        return sessions instanceof RandomAccess ? sessions : new ArrayList<>(sessions);
+    }
+
+    /**
+     * Accumulates the sessions in {@code [from, to)} of one list, splitting it in halves while it is long.
+     */
+    private static class SessionTask extends RecursiveTask<ChargingAccumulator> {
+
+        private final List<VehicleChargingSession> sessions;
+        private final int from;
+        private final int to;
+
+        private SessionTask(List<VehicleChargingSession> sessions, int from, int to) {
+            this.sessions = sessions;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected ChargingAccumulator compute() {
+            if (to - from <= SESSIONS_PER_TASK) {
+                ChargingAccumulator accumulator = new ChargingAccumulator();
+                for (int i = from; i < to; i++) {
+                    accumulator.add(sessions.get(i));
+                }
+                return accumulator;
+            }
+            int middle = (from + to) >>> 1;
+            SessionTask left = new SessionTask(sessions, from, middle);
+            left.fork();
+            ChargingAccumulator right = new SessionTask(sessions, middle, to).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    /**
+     * Accumulates the vehicles in {@code [from, to)}, storing the statistics of every vehicle and returning
+     * the sum over all of them.
+     */
+    private static class VehicleTask extends RecursiveTask<ChargingAccumulator> {
+
+        private final List<List<VehicleChargingSession>> sessions;
+        private final ChargingStatistics[] vehicleStatistics;
+        private final int from;
+        private final int to;
+
+        private VehicleTask(List<List<VehicleChargingSession>> sessions, ChargingStatistics[] vehicleStatistics,
+                            int from, int to) {
+            this.sessions = sessions;
+            this.vehicleStatistics = vehicleStatistics;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected ChargingAccumulator compute() {
+            if (to - from == 1) {
+                List<VehicleChargingSession> vehicleSessions = sessions.get(from);
+                ChargingAccumulator accumulator = new SessionTask(vehicleSessions, 0, vehicleSessions.size()).compute();
+                vehicleStatistics[from] = accumulator.toStatistics();
+                return accumulator;
+            }
+            int middle = (from + to) >>> 1;
+            VehicleTask left = new VehicleTask(sessions, vehicleStatistics, from, middle);
+            left.fork();
+            ChargingAccumulator right = new VehicleTask(sessions, vehicleStatistics, middle, to).compute();
+            return left.join().merge(right);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * One page of the charging sessions of a vehicle within a time window, ordered by start time.
+ * <p>
+ * Pass a page to {@link ChargingSessionSync#getNextPage(ChargingSessionPage)} to retrieve the sessions that follow it.
+ * </p>
+ * <p>
+ * Instances of this class are created internally and are not intended to be constructed directly.
+ * </p>
+ */
+public class ChargingSessionPage {
+
+    private final String vin;
+    private final Instant from;
+    private final Instant to;
+    private final int pageSize;
+    private final List<VehicleChargingSession> sessions;
+    private final Instant lastStartAt;
+    private final List<VehicleChargingSession> sessionsAtLastStartAt;
+    private final boolean hasNext;
+
+    ChargingSessionPage(String vin, Instant from, Instant to, int pageSize, List<VehicleChargingSession> sessions,
+                        Instant lastStartAt, List<VehicleChargingSession> sessionsAtLastStartAt, boolean hasNext) {
+        this.vin = vin;
+        this.from = from;
+        this.to = to;
+        this.pageSize = pageSize;
+        this.sessions = List.copyOf(sessions);
+        this.lastStartAt = lastStartAt;
+        this.sessionsAtLastStartAt = List.copyOf(sessionsAtLastStartAt);
+        this.hasNext = hasNext;
+    }
+
+    /**
+     * Returns the Vehicle Identification Number of the vehicle the sessions belong to.
+     *
+     * @return the VIN.
+     */
+    public String getVin() {
+        return vin;
+    }
+
+    /**
+     * Returns the start of the time window, inclusive.
+     *
+     * @return the start of the window.
+     */
+    public Instant getFrom() {
+        return from;
+    }
+
+    /**
+     * Returns the end of the time window, exclusive.
+     *
+     * @return the end of the window.
+     */
+    public Instant getTo() {
+        return to;
+    }
+
+    /**
+     * Returns the maximum number of sessions per page.
+     *
+     * @return the page size.
+     */
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Returns the sessions of this page, the oldest first.
+     *
+     * @return an unmodifiable list of {@link VehicleChargingSession} objects.
+     */
+    public List<VehicleChargingSession> getSessions() {
+        return sessions;
+    }
+
+    /**
+     * Returns whether more sessions follow this page within the time window.
+     *
+     * @return {@code true} if a next page is available.
+     */
+    public boolean hasNext() {
+        return hasNext;
+    }
+
+    Instant getLastStartAt() {
+        return lastStartAt;
+    }
+
+    /**
+     * Returns the sessions of this and the previous pages that started at exactly {@link #getLastStartAt()}.
+     */
+    List<VehicleChargingSession> getSessionsAtLastStartAt() {
+        return sessionsAtLastStartAt;
+    }
+}
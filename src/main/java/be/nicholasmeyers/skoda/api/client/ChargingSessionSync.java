@@ -0,0 +1,339 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Synchronises the charging session history of vehicles incrementally.
+ * <p>
+ * For every VIN the start time of the newest session seen is kept as a cursor, together with the sessions
+ * seen that started at exactly that time, and {@link #sync(String)} only returns sessions that started after
+ * the cursor or that started at the cursor but were not seen yet. The API always returns the full history, so
+ * sessions are filtered while the response is streamed: older sessions are skipped before they are collected,
+ * and the history is never held in memory as a whole.
+ * </p>
+ * <p>
+ * Cursors live in memory. Store them with {@link #getCursor(String)} and {@link #getSessionsAtCursor(String)}
+ * and restore them with {@link #setCursor(String, Instant, Collection)} to continue a sync after a restart.
+ * Sessions without a readable start time cannot be ordered and are skipped. Sessions with the same start time,
+ * energy, duration and current type cannot be told apart and are counted instead.
+ * </p>
+ * <pre>{@code
+ * ChargingSessionSync sync = new ChargingSessionSync(vehicleService);
+ * List<VehicleChargingSession> newSessions = sync.sync("YOUR_CARS_VIN");
+ * }</pre>
+ */
+public class ChargingSessionSync {
+
+    private static final Comparator<TimedSession> BY_START = Comparator.comparing(TimedSession::startAt)
+            .thenComparing(TimedSession::key);
+
+    private final VehicleService vehicleService;
+    private final Map<String, Cursor> cursors = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new {@code ChargingSessionSync}.
+     *
+     * @param vehicleService the service used to retrieve the charging sessions.
+     */
+    public ChargingSessionSync(VehicleService vehicleService) {
+        this.vehicleService = vehicleService;
+    }
+
+    /**
+     * Returns the charging sessions of a vehicle that were not returned by the previous syncs, and advances the cursor
+     * of the vehicle to the newest of them. The first sync of a vehicle returns its full history.
+     *
+     * @param vin the Vehicle Identification Number of the vehicle.
+     * @return the new sessions, the oldest first.
+     * @throws VehicleServiceException if the API call fails; the cursor is left unchanged.
+     */
+    public List<VehicleChargingSession> sync(String vin) {
+        Cursor cursor = cursors.get(vin);
+        SeenFilter seen = cursor == null ? null : new SeenFilter(cursor);
+        List<TimedSession> newSessions = new ArrayList<>();
+        vehicleService.forEachChargingSession(vin, session -> {
+            Instant startAt = parseStartAt(session);
+            if (startAt != null && (seen == null || !seen.test(startAt, session))) {
+                newSessions.add(new TimedSession(startAt, session));
+            }
+        });
+        if (newSessions.isEmpty()) {
+            return List.of();
+        }
+        newSessions.sort(BY_START);
+        cursors.merge(vin, advance(cursor, newSessions), Cursor::newest);
+        return newSessions.stream().map(TimedSession::session).toList();
+    }
+
+    /**
+     * Returns the first page of the charging sessions of a vehicle that started within a time window.
+     * <p>
+     * Only the sessions of the requested page are kept while the response is read, so the memory used
+     * does not depend on the length of the history. The cursor of the vehicle is not changed.
+     * </p>
+     *
+     * @param vin      the Vehicle Identification Number of the vehicle.
+     * @param from     the start of the window, inclusive, or {@code null} for no lower bound.
+     * @param to       the end of the window, exclusive, or {@code null} for no upper bound.
+     * @param pageSize the maximum number of sessions per page.
+     * @return the first {@link ChargingSessionPage}.
+     * @throws VehicleServiceException if the API call fails.
+     */
+    public ChargingSessionPage getChargingSessions(String vin, Instant from, Instant to, int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("pageSize must be at least 1");
+        }
+        return fetchPage(vin, from, to, pageSize, null);
+    }
+
+    /**
+     * Returns the page that follows {@code page} within the same time window.
+     *
+     * @param page the previous page.
+     * @return the next {@link ChargingSessionPage}, empty when {@code page} was the last one.
+     * @throws VehicleServiceException if the API call fails.
+     */
+    public ChargingSessionPage getNextPage(ChargingSessionPage page) {
+        if (!page.hasNext()) {
+            return new ChargingSessionPage(page.getVin(), page.getFrom(), page.getTo(), page.getPageSize(), List.of(),
+                    page.getLastStartAt(), page.getSessionsAtLastStartAt(), false);
+        }
+        Cursor after = new Cursor(page.getLastStartAt(), page.getSessionsAtLastStartAt());
+        return fetchPage(page.getVin(), page.getFrom(), page.getTo(), page.getPageSize(), after);
+    }
+
+    /**
+     * Returns the start time of the newest session returned by {@link #sync(String)} for a vehicle.
+     *
+     * @param vin the Vehicle Identification Number of the vehicle.
+     * @return the cursor of the vehicle, or empty if it was never synchronised.
+     */
+    public Optional<Instant> getCursor(String vin) {
+        return Optional.ofNullable(cursors.get(vin)).map(Cursor::startAt);
+    }
+
+    /**
+     * Returns the sessions returned by {@link #sync(String)} for a vehicle that started at exactly the time of
+     * its cursor.
+     *
+     * @param vin the Vehicle Identification Number of the vehicle.
+     * @return the sessions at the cursor, empty if the vehicle was never synchronised or its cursor was set
+     * without them.
+     */
+    public List<VehicleChargingSession> getSessionsAtCursor(String vin) {
+        Cursor cursor = cursors.get(vin);
+        return cursor == null || cursor.sessionsAtStartAt() == null ? List.of() : cursor.sessionsAtStartAt();
+    }
+
+    /**
+     * Sets the cursor of a vehicle, treating every session that started at or before {@code cursor} as
+     * synchronised. Use {@link #setCursor(String, Instant, Collection)} to also receive the sessions that
+     * start at {@code cursor} but were not synchronised yet.
+     *
+     * @param vin    the Vehicle Identification Number of the vehicle.
+     * @param cursor the start time of the newest session already synchronised.
+     */
+    public void setCursor(String vin, Instant cursor) {
+        cursors.put(vin, new Cursor(cursor, null));
+    }
+
+    /**
+     * Sets the cursor of a vehicle, for example to the values stored by a previous run.
+     *
+     * @param vin              the Vehicle Identification Number of the vehicle.
+     * @param cursor           the start time of the newest session already synchronised.
+     * @param sessionsAtCursor the sessions already synchronised that started at {@code cursor}.
+     */
+    public void setCursor(String vin, Instant cursor, Collection<VehicleChargingSession> sessionsAtCursor) {
+        cursors.put(vin, new Cursor(cursor, List.copyOf(sessionsAtCursor)));
+    }
+
+    /**
+     * Forgets the cursor of a vehicle, so the next sync returns its full history again.
+     *
+     * @param vin the Vehicle Identification Number of the vehicle.
+     */
+    public void reset(String vin) {
+        cursors.remove(vin);
+    }
+
+    /**
+     * Selects the {@code pageSize} oldest sessions in the window that follow {@code after}, plus one to find
+     * out whether another page follows, with a bounded max-heap.
+     */
+    private ChargingSessionPage fetchPage(String vin, Instant from, Instant to, int pageSize, Cursor after) {
+        SeenFilter seen = after == null ? null : new SeenFilter(after);
+        PriorityQueue<TimedSession> oldest = new PriorityQueue<>(pageSize + 1, BY_START.reversed());
+        vehicleService.forEachChargingSession(vin, session -> {
+            Instant startAt = parseStartAt(session);
+            if (startAt == null
+                    || (from != null && startAt.isBefore(from))
+                    || (to != null && !startAt.isBefore(to))
+                    || (seen != null && seen.test(startAt, session))) {
+                return;
+            }
+            TimedSession timedSession = new TimedSession(startAt, session);
+            if (oldest.size() <= pageSize) {
+                oldest.add(timedSession);
+            } else if (BY_START.compare(timedSession, oldest.peek()) < 0) {
+                oldest.poll();
+                oldest.add(timedSession);
+            }
+        });
+
+        boolean hasNext = oldest.size() > pageSize;
+        if (hasNext) {
+            oldest.poll();
+        }
+        List<TimedSession> page = new ArrayList<>(oldest);
+        page.sort(BY_START);
+        Cursor last = page.isEmpty() ? after : advance(after, page);
+        return new ChargingSessionPage(vin, from, to, pageSize, page.stream().map(TimedSession::session).toList(),
+                last == null ? null : last.startAt(), last == null ? List.of() : last.sessionsAtStartAt(), hasNext);
+    }
+
+    /**
+     * Returns the cursor that follows {@code sessions}, sorted by start time: the start time of the newest
+     * session and every session that started at that time, including those of {@code previous}.
+     */
+    private static Cursor advance(Cursor previous, List<TimedSession> sessions) {
+        Instant newest = sessions.getLast().startAt();
+        List<VehicleChargingSession> sessionsAtNewest = new ArrayList<>();
+        if (previous != null && previous.startAt().equals(newest) && previous.sessionsAtStartAt() != null) {
+            sessionsAtNewest.addAll(previous.sessionsAtStartAt());
+        }
+        for (int i = sessions.size() - 1; i >= 0 && sessions.get(i).startAt().equals(newest); i--) {
+            sessionsAtNewest.add(sessions.get(i).session());
+        }
+        return new Cursor(newest, List.copyOf(sessionsAtNewest));
+    }
+
+    /**
+     * Returns the content of a session that tells it apart from other sessions with the same start time.
+     */
+    static String key(VehicleChargingSession session) {
+        return session.getChargedInKWh() + "|" + session.getDurationInMinutes() + "|" + session.getCurrentType();
+    }
+
+    private static Instant parseStartAt(VehicleChargingSession session) {
+        if (session.getStartAt() == null) {
+            return null;
+        }
+        try {
+            return OffsetDateTime.parse(session.getStartAt()).toInstant();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The position after which sessions are new: every session that started before {@code startAt} has been seen,
+     * and of those that started at {@code startAt} the ones in {@code sessionsAtStartAt}, or all of them when it
+     * is {@code null}.
+     */
+    private static class Cursor {
+
+        private final Instant startAt;
+        private final List<VehicleChargingSession> sessionsAtStartAt;
+
+        private Cursor(Instant startAt, List<VehicleChargingSession> sessionsAtStartAt) {
+            this.startAt = startAt;
+            this.sessionsAtStartAt = sessionsAtStartAt;
+        }
+
+        private Instant startAt() {
+            return startAt;
+        }
+
+        private List<VehicleChargingSession> sessionsAtStartAt() {
+            return sessionsAtStartAt;
+        }
+
+        private static Cursor newest(Cursor current, Cursor candidate) {
+            int order = candidate.startAt.compareTo(current.startAt);
+            if (order == 0 && current.sessionsAtStartAt != null) {
+                return candidate.sessionsAtStartAt.size() > current.sessionsAtStartAt.size() ? candidate : current;
+            }
+            return order > 0 ? candidate : current;
+        }
+    }
+
+    /**
+     * Recognises the sessions of one response that were already seen according to a {@link Cursor}. Sessions at
+     * the cursor time are matched by content, each seen session matching at most one session of the response.
+     */
+    private static class SeenFilter {
+
+        private final Instant startAt;
+        private final Map<String, Integer> remainingAtStartAt;
+
+        private SeenFilter(Cursor cursor) {
+            this.startAt = cursor.startAt();
+            if (cursor.sessionsAtStartAt() == null) {
+                this.remainingAtStartAt = null;
+            } else {
+                this.remainingAtStartAt = new HashMap<>();
+                cursor.sessionsAtStartAt().forEach(session -> remainingAtStartAt.merge(key(session), 1, Integer::sum));
+            }
+        }
+
+        private boolean test(Instant sessionStartAt, VehicleChargingSession session) {
+            if (sessionStartAt.isBefore(startAt)) {
+                return true;
+            }
+            if (!sessionStartAt.equals(startAt)) {
+                return false;
+            }
+            if (remainingAtStartAt == null) {
+                return true;
+            }
+            String key = key(session);
+            Integer remaining = remainingAtStartAt.get(key);
+            if (remaining == null) {
+                return false;
+            }
+            if (remaining == 1) {
+                remainingAtStartAt.remove(key);
+            } else {
+                remainingAtStartAt.put(key, remaining - 1);
+            }
+            return true;
+        }
+    }
+
+    private static class TimedSession {
+
+        private final Instant startAt;
+        private final VehicleChargingSession session;
+        private final String key;
+
+        private TimedSession(Instant startAt, VehicleChargingSession session) {
+            this.startAt = startAt;
+            this.session = session;
+            this.key = ChargingSessionSync.key(session);
+        }
+
+        private Instant startAt() {
+            return startAt;
+        }
+
+        private String key() {
+            return key;
+        }
+
+        private VehicleChargingSession session() {
+            return session;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Aggregated figures over a set of charging sessions, of one vehicle or of a whole fleet.
+ * <p>
+ * The average power is weighted by energy: the energy of all sessions with a known duration divided by their
+ * total duration. Sessions with a duration of zero minutes count towards the energy totals but not towards
+ * the power figures. Percentiles use the nearest-rank method.
+ * </p>
+ * <p>
+ * Instances of this class are created internally by {@link ChargingAnalytics} and are not intended
+ * to be constructed directly.
+ * </p>
+ */
+public class ChargingStatistics {
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private final long sessionCount;
+    private final double chargedInKWh;
+    private final double acChargedInKWh;
+    private final double dcChargedInKWh;
+    private final long durationInMinutes;
+    private final double timedChargedInKWh;
+    private final long firstStartAt;
+    private final long lastStartAt;
+    private final double[] sortedPowersInKw;
+    private final double[] sortedEnergiesInKWh;
+
+    ChargingStatistics(long sessionCount, double chargedInKWh, double acChargedInKWh, double dcChargedInKWh,
+                       long durationInMinutes, double timedChargedInKWh, long firstStartAt, long lastStartAt,
+                       double[] sortedPowersInKw, double[] sortedEnergiesInKWh) {
+        this.sessionCount = sessionCount;
+        this.chargedInKWh = chargedInKWh;
+        this.acChargedInKWh = acChargedInKWh;
+        this.dcChargedInKWh = dcChargedInKWh;
+        this.durationInMinutes = durationInMinutes;
+        this.timedChargedInKWh = timedChargedInKWh;
+        this.firstStartAt = firstStartAt;
+        this.lastStartAt = lastStartAt;
+        this.sortedPowersInKw = sortedPowersInKw;
+        this.sortedEnergiesInKWh = sortedEnergiesInKWh;
+    }
+
+    /**
+     * Returns the number of charging sessions.
+     *
+     * @return the number of sessions.
+     */
+    public long getSessionCount() {
+        return sessionCount;
+    }
+
+    /**
+     * Returns the energy charged in all sessions.
+     *
+     * @return the charged energy in kWh.
+     */
+    public double getChargedInKWh() {
+        return chargedInKWh;
+    }
+
+    /**
+     * Returns the energy charged in sessions with alternating current.
+     *
+     * @return the charged AC energy in kWh.
+     */
+    public double getAcChargedInKWh() {
+        return acChargedInKWh;
+    }
+
+    /**
+     * Returns the energy charged in sessions with direct current.
+     *
+     * @return the charged DC energy in kWh.
+     */
+    public double getDcChargedInKWh() {
+        return dcChargedInKWh;
+    }
+
+    /**
+     * Returns the total duration of all sessions.
+     *
+     * @return the total duration in minutes.
+     */
+    public long getDurationInMinutes() {
+        return durationInMinutes;
+    }
+
+    /**
+     * Returns the average charging power, weighted by energy.
+     *
+     * @return the average power in kW, or {@code 0} if no session has a duration.
+     */
+    public double getAveragePowerInKw() {
+        return durationInMinutes == 0 ? 0 : timedChargedInKWh * 60 / durationInMinutes;
+    }
+
+    /**
+     * Returns the average number of sessions per day, between the UTC days of the first and the last session
+     * with a readable start time, both included.
+     *
+     * @return the number of sessions per day, or {@code 0} if no session has a readable start time.
+     */
+    public double getSessionsPerDay() {
+        if (firstStartAt > lastStartAt) {
+            return 0;
+        }
+        long days = Math.floorDiv(lastStartAt, MILLIS_PER_DAY) - Math.floorDiv(firstStartAt, MILLIS_PER_DAY) + 1;
+        return (double) sessionCount / days;
+    }
+
+    /**
+     * Returns the start time of the earliest session.
+     *
+     * @return the earliest start time, or an empty {@code Optional} if no session has a readable start time.
+     */
+    public Optional<Instant> getFirstStartAt() {
+        return firstStartAt > lastStartAt ? Optional.empty() : Optional.of(Instant.ofEpochMilli(firstStartAt));
+    }
+
+    /**
+     * Returns the start time of the latest session.
+     *
+     * @return the latest start time, or an empty {@code Optional} if no session has a readable start time.
+     */
+    public Optional<Instant> getLastStartAt() {
+        return firstStartAt > lastStartAt ? Optional.empty() : Optional.of(Instant.ofEpochMilli(lastStartAt));
+    }
+
+    /**
+     * Returns a percentile of the average power of the individual sessions.
+     *
+     * @param percentile the percentile, between {@code 0} and {@code 100}.
+     * @return the power in kW, or {@code 0} if no session has a duration.
+     */
+    public double getPowerPercentileInKw(double percentile) {
+        return percentile(sortedPowersInKw, percentile);
+    }
+
+    /**
+     * Returns a percentile of the energy charged in the individual sessions.
+     *
+     * @param percentile the percentile, between {@code 0} and {@code 100}.
+     * @return the charged energy in kWh, or {@code 0} if there are no sessions.
+     */
+    public double getChargedPercentileInKWh(double percentile) {
+        return percentile(sortedEnergiesInKWh, percentile);
+    }
+
+    private static double percentile(double[] sortedValues, double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile must be between 0 and 100: " + percentile);
+        }
+        if (sortedValues.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100 * sortedValues.length);
+        return sortedValues[Math.max(rank, 1) - 1];
+    }
+}
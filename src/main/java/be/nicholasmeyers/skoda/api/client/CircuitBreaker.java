@@ -0,0 +1,89 @@
+package be.nicholasmeyers.skoda.api.client;
+
+/**
+ * Fails calls to an endpoint fast once it has failed a number of times in a row.
+ * <p>
+ * After the open duration a single trial call is let through: when it succeeds the circuit closes,
+ * when it fails the circuit opens again.
+ * </p>
+ */
+class CircuitBreaker {
+
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String endpoint;
+    private final int failureThreshold;
+    private final long openDurationNanos;
+    private final VehicleMetricsRegistry metricsRegistry;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    CircuitBreaker(String endpoint, int failureThreshold, long openDurationNanos, VehicleMetricsRegistry metricsRegistry) {
+        this.endpoint = endpoint;
+        this.failureThreshold = failureThreshold;
+        this.openDurationNanos = openDurationNanos;
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    /**
+     * Returns whether a call may be made now. Every permitted call must be followed by
+     * {@link #onSuccess()}, {@link #onFailure()} or {@link #onIgnored()}.
+     */
+    synchronized boolean tryAcquirePermission() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.nanoTime() - openedAt < openDurationNanos) {
+                    return false;
+                }
+                transitionTo(State.HALF_OPEN);
+                trialInFlight = true;
+                return true;
+            default:
+                if (trialInFlight) {
+                    return false;
+                }
+                trialInFlight = true;
+                return true;
+        }
+    }
+
+    synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        trialInFlight = false;
+        if (state != State.CLOSED) {
+            transitionTo(State.CLOSED);
+        }
+    }
+
+    synchronized void onFailure() {
+        trialInFlight = false;
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            openedAt = System.nanoTime();
+            transitionTo(State.OPEN);
+        }
+    }
+
+    /**
+     * Releases the permission of a call whose outcome says nothing about the endpoint, such as a cancelled call.
+     */
+    synchronized void onIgnored() {
+        trialInFlight = false;
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+
+    private void transitionTo(State newState) {
+        state = newState;
+        metricsRegistry.recordCircuitBreakerState(endpoint, newState.name());
+    }
+}
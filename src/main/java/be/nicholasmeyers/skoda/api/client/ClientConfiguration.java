@@ -1,6 +1,7 @@
 package be.nicholasmeyers.skoda.api.client;
 
 import be.nicholasmeyers.skoda.ApiClient;
+import be.nicholasmeyers.skoda.ApiException;
 import be.nicholasmeyers.skoda.ServerConfiguration;
 import okhttp3.Interceptor;
 import okhttp3.OkHttpClient;
@@ -12,28 +13,130 @@ import java.util.List;
 public class ClientConfiguration {
 
     private final ApiClient apiClient;
+    private final ApiClient asyncApiClient;
+    private final RateLimitInterceptor rateLimitInterceptor;
+    private final TokenService tokenService;
+    private final VehicleMetricsRegistry metricsRegistry;
+    private final ResilientExecutor resilientExecutor;
 
     ClientConfiguration(String email, String password) {
-        TokenService tokenService = new TokenService(email, password);
+        this(new TokenService(email, password), new OkHttpClient(), null);
+    }
 
-        Interceptor authorizationInterceptor = chain -> {
-            Request originalRequest = chain.request();
-            Request requestWithAuthorization = originalRequest.newBuilder()
-                    .header("Authorization", "Bearer " + tokenService.getToken())
-                    .build();
-            return chain.proceed(requestWithAuthorization);
-        };
+    ClientConfiguration(String email, String password, String server) {
+        this(new TokenService(email, password), new OkHttpClient(), server);
+    }
 
-        OkHttpClient httpClient = new OkHttpClient.Builder()
-                .addInterceptor(authorizationInterceptor)
-                .build();
+    /**
+     * Creates a pass-through configuration: every call is sent once, without retries, circuit breakers,
+     * bulkheads or rate limits. Those are only enabled through a {@link VehicleServiceFactory}.
+     */
+    ClientConfiguration(TokenService tokenService, OkHttpClient baseClient, String server) {
+        this(tokenService, baseClient, server, VehicleMetricsRegistry.NOOP,
+                new ResilientExecutor(ResiliencePolicy.disabled(), VehicleMetricsRegistry.NOOP), null);
+    }
 
-        this.apiClient = new ApiClient(httpClient);
+    /**
+     * Creates a configuration for one account on top of a possibly shared {@link OkHttpClient}.
+     * <p>
+     * The account specific client is derived with {@link OkHttpClient#newBuilder()}, so it reuses the
+     * connection pool and dispatcher of {@code baseClient} and only adds its own token binding.
+     * Every request passes the rate limiter of the account before it is sent, unless {@code rateLimiter} is
+     * {@code null}, and is reported to {@code metricsRegistry}. Asynchronous requests use a second client on the
+     * same pool and dispatcher, whose rate limit permits are reserved before the request is enqueued,
+     * see {@link #reserveRateLimitPermit()}.
+     * </p>
+     */
+    ClientConfiguration(TokenService tokenService, OkHttpClient baseClient, String server,
+                        VehicleMetricsRegistry metricsRegistry, ResilientExecutor resilientExecutor,
+                        RateLimiter rateLimiter) {
+        this.tokenService = tokenService;
+        this.metricsRegistry = metricsRegistry;
+        this.resilientExecutor = resilientExecutor;
+        this.rateLimitInterceptor = rateLimiter != null ? rateLimiter.newAccountInterceptor() : null;
+        this.apiClient = createApiClient(createHttpClient(baseClient, tokenService, metricsRegistry,
+                rateLimitInterceptor), server);
+        this.asyncApiClient = createApiClient(createHttpClient(baseClient, tokenService, metricsRegistry,
+                rateLimitInterceptor != null ? rateLimitInterceptor.throttleOnly() : null), server);
     }
 
-    ClientConfiguration(String email, String password, String server) {
-        TokenService tokenService = new TokenService(email, password);
+    ApiClient getApiClient() {
+        return this.apiClient;
+    }
+
+    /**
+     * Returns the API client for asynchronous calls, which must reserve their rate limit permit with
+     * {@link #reserveRateLimitPermit()} before they are enqueued.
+     */
+    ApiClient getAsyncApiClient() {
+        return this.asyncApiClient;
+    }
+
+    /**
+     * Reserves a rate limit permit for an asynchronous request.
+     *
+     * @return the nanoseconds to wait before enqueueing the request, or {@code -1} when it must be rejected.
+     */
+    long reserveRateLimitPermit() {
+        return rateLimitInterceptor != null ? rateLimitInterceptor.reserveForLater() : 0;
+    }
+
+    /**
+     * Reserves a rate limit permit for an asynchronous request that is sent again after the API throttled it.
+     *
+     * @return the nanoseconds to wait before enqueueing the request, or {@code -1} when it must be rejected.
+     */
+    long reserveRateLimitPermitAfterThrottle() {
+        return rateLimitInterceptor != null ? rateLimitInterceptor.reserveAfterThrottle() : 0;
+    }
+
+    /**
+     * Returns the pause the API asked for when it throttled an asynchronous request, which the account was already
+     * paused for, or {@code -1} when the failure is not a {@code 429} response or requests are not rate limited.
+     */
+    long getThrottledRetryAfterNanos(Throwable failure) {
+        if (rateLimitInterceptor == null || !(failure instanceof ApiException e) || e.getCode() != 429) {
+            return -1;
+        }
+        return rateLimitInterceptor.retryAfterNanos(e.getResponseHeaders());
+    }
+
+    /**
+     * Returns how long a request may be throttled by the API in total before it fails.
+     */
+    long getMaxRetryAfterNanos() {
+        return rateLimitInterceptor != null ? rateLimitInterceptor.getMaxRetryAfterNanos() : 0;
+    }
+
+    TokenService getTokenService() {
+        return this.tokenService;
+    }
+
+    VehicleMetricsRegistry getMetricsRegistry() {
+        return this.metricsRegistry;
+    }
+
+    ResilientExecutor getResilientExecutor() {
+        return this.resilientExecutor;
+    }
+
+    private static ApiClient createApiClient(OkHttpClient httpClient, String server) {
+        ApiClient apiClient = new ApiClient(httpClient);
+        if (server != null) {
+            ServerConfiguration serverConfiguration = new ServerConfiguration(
+                    server,
+                    "No description provided",
+                    new HashMap<>()
+            );
+            apiClient.setBasePath(server);
+            apiClient.setServers(List.of(serverConfiguration));
+        }
+        return apiClient;
+    }
 
+    private static OkHttpClient createHttpClient(OkHttpClient baseClient, TokenService tokenService,
+                                                 VehicleMetricsRegistry metricsRegistry,
+                                                 Interceptor rateLimitInterceptor) {
         Interceptor authorizationInterceptor = chain -> {
             Request originalRequest = chain.request();
             Request requestWithAuthorization = originalRequest.newBuilder()
@@ -42,21 +145,14 @@ public class ClientConfiguration {
             return chain.proceed(requestWithAuthorization);
         };
 
-        OkHttpClient httpClient = new OkHttpClient.Builder()
+        OkHttpClient.Builder builder = baseClient.newBuilder();
+        if (rateLimitInterceptor != null) {
+            builder.addInterceptor(rateLimitInterceptor);
+        }
+        return builder
                 .addInterceptor(authorizationInterceptor)
+                .addInterceptor(new MetricsInterceptor(metricsRegistry))
+                .authenticator(new TokenAuthenticator(tokenService))
                 .build();
-
-        ServerConfiguration serverConfiguration = new ServerConfiguration(
-                server,
-                "No description provided",
-                new HashMap<>()
-        );
-        this.apiClient = new ApiClient(httpClient);
-        this.apiClient.setBasePath(server);
-        this.apiClient.setServers(List.of(serverConfiguration));
-    }
-
-    ApiClient getApiClient() {
-        return this.apiClient;
     }
 }
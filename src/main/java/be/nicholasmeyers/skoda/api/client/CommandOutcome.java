@@ -0,0 +1,99 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import java.time.Duration;
+
+/**
+ * Whether a command sent through a {@link CommandTracker} took effect on the vehicle.
+ * <p>
+ * A command is confirmed once the vehicle reports the expected state in data it captured after the command
+ * was sent. If that does not happen before the timeout of the tracker, the outcome is not confirmed and holds
+ * the last state that was observed, if any.
+ * </p>
+ * <p>
+ * Instances of this class are created internally by the {@link CommandTracker}
+ * and are not intended to be constructed directly.
+ * </p>
+ */
+public class CommandOutcome {
+
+    private final String vin;
+    private final VehicleCommand command;
+    private final boolean confirmed;
+    private final String observedState;
+    private final String carCapturedTimestamp;
+    private final Duration elapsed;
+
+    /**
+     * Constructs a new {@code CommandOutcome}.
+     *
+     * @param vin                  the Vehicle Identification Number of the vehicle.
+     * @param command              the command that was sent.
+     * @param confirmed            whether the vehicle reported the expected state.
+     * @param observedState        the last observed state, or {@code null} if none was observed.
+     * @param carCapturedTimestamp the captured timestamp of the last observed state, or {@code null}.
+     * @param elapsed              the time between sending the command and this outcome.
+     */
+    CommandOutcome(String vin, VehicleCommand command, boolean confirmed, String observedState,
+                   String carCapturedTimestamp, Duration elapsed) {
+        this.vin = vin;
+        this.command = command;
+        this.confirmed = confirmed;
+        this.observedState = observedState;
+        this.carCapturedTimestamp = carCapturedTimestamp;
+        this.elapsed = elapsed;
+    }
+
+    /**
+     * Returns the Vehicle Identification Number of the vehicle the command was sent to.
+     *
+     * @return the VIN.
+     */
+    public String getVin() {
+        return vin;
+    }
+
+    /**
+     * Returns the command that was sent.
+     *
+     * @return the command.
+     */
+    public VehicleCommand getCommand() {
+        return command;
+    }
+
+    /**
+     * Returns whether the vehicle reported the expected state before the timeout.
+     *
+     * @return {@code true} if the command took effect, {@code false} if the tracker timed out.
+     */
+    public boolean isConfirmed() {
+        return confirmed;
+    }
+
+    /**
+     * Returns the last charging or air conditioning state observed for the vehicle.
+     *
+     * @return the observed state (e.g. {@code "CHARGING"}), or {@code null} if no state was observed.
+     */
+    public String getObservedState() {
+        return observedState;
+    }
+
+    /**
+     * Returns the timestamp at which the vehicle captured the last observed state.
+     *
+     * @return the captured timestamp, or {@code null} if unknown.
+     */
+    public String getCarCapturedTimestamp() {
+        return carCapturedTimestamp;
+    }
+
+    /**
+     * Returns the time between sending the command and the outcome.
+     *
+     * @return the elapsed time.
+     */
+    public Duration getElapsed() {
+        return elapsed;
+    }
+}
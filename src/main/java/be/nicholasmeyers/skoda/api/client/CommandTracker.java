@@ -0,0 +1,345 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends commands to vehicles and confirms that they took effect.
+ * <p>
+ * {@link #send(String, VehicleCommand)} returns as soon as the API accepted the command, with a future that
+ * completes when the vehicle reports the expected charging or air conditioning state, captured after the command
+ * was sent, or when the timeout expires. Pending commands share their polling: a vehicle is polled once per
+ * interval for all of its commands that wait for the same data, and the interval backs off while nothing changes.
+ * Polls run on virtual threads.
+ * </p>
+ * <p>
+ * The tracker also listens to the reads of the {@link VehicleService}, so a charging state or air conditioning
+ * status read elsewhere in the application confirms pending commands without an extra request. Confirmation
+ * compares the captured timestamps of the vehicle with the local clock at the time the command was sent; a state
+ * without a readable captured timestamp never confirms a command.
+ * </p>
+ * <pre>{@code
+ * try (CommandTracker commandTracker = CommandTracker.builder(vehicleService).build()) {
+ *     CommandOutcome outcome = commandTracker.send("YOUR_CARS_VIN", VehicleCommand.startCharging()).join();
+ *     System.out.println(outcome.isConfirmed() + " " + outcome.getElapsed());
+ * }
+ * }</pre>
+ */
+public class CommandTracker implements AutoCloseable {
+
+    private final VehicleService vehicleService;
+    private final long initialIntervalMillis;
+    private final long maxIntervalMillis;
+    private final double backoffMultiplier;
+    private final long timeoutMillis;
+
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService pollExecutor;
+    private final Map<String, PollTarget> targets = new ConcurrentHashMap<>();
+    private final VehicleChangeListener readListener = this::observe;
+
+    private CommandTracker(Builder builder) {
+        this.vehicleService = builder.vehicleService;
+        this.initialIntervalMillis = builder.initialInterval.toMillis();
+        this.maxIntervalMillis = builder.maxInterval.toMillis();
+        this.backoffMultiplier = builder.backoffMultiplier;
+        this.timeoutMillis = builder.timeout.toMillis();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "skoda-command-tracker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.pollExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("skoda-command-poll-", 0).factory());
+        vehicleService.addReadListener(readListener);
+    }
+
+    /**
+     * Returns a new {@link Builder}.
+     *
+     * @param vehicleService the service used to send the commands and poll the vehicles.
+     * @return a new tracker builder.
+     */
+    public static Builder builder(VehicleService vehicleService) {
+        return new Builder(vehicleService);
+    }
+
+    /**
+     * Sends a command to a vehicle and tracks whether it takes effect.
+     * <p>
+     * Cancelling the returned future stops tracking the command.
+     * </p>
+     *
+     * @param vin     the Vehicle Identification Number of the vehicle.
+     * @param command the command to send.
+     * @return a future that completes with the outcome once the command is confirmed or the timeout expires.
+     * @throws VehicleServiceException if the command cannot be sent.
+     * @throws IllegalStateException   if the tracker is closed.
+     */
+    public CompletableFuture<CommandOutcome> send(String vin, VehicleCommand command) {
+        if (scheduler.isShutdown()) {
+            throw new IllegalStateException("The command tracker is closed");
+        }
+        long sentAtMillis = System.currentTimeMillis();
+        long sentAtNanos = System.nanoTime();
+        command.execute(vehicleService, vin);
+
+        PendingCommand pending = new PendingCommand(vin, command, sentAtMillis, sentAtNanos);
+        String key = key(vin, command.getConfirmedBy());
+        PollTarget target = targets.compute(key, (ignored, existing) -> {
+            PollTarget pollTarget = existing != null ? existing : new PollTarget(key, vin, command.getConfirmedBy());
+            pollTarget.pending.add(pending);
+            return pollTarget;
+        });
+        pending.timeout = scheduler.schedule(() -> pending.complete(false, target.lastState, target.lastTimestamp),
+                timeoutMillis, TimeUnit.MILLISECONDS);
+        pending.future.whenComplete((outcome, error) -> forget(target, pending));
+        restartPolling(target);
+        return pending.future;
+    }
+
+    /**
+     * Returns the number of commands that are sent but not yet confirmed or timed out.
+     *
+     * @return the number of pending commands.
+     */
+    public int getPendingCount() {
+        return targets.values().stream().mapToInt(target -> target.pending.size()).sum();
+    }
+
+    /**
+     * Stops tracking. The futures of pending commands are cancelled.
+     */
+    @Override
+    public void close() {
+        vehicleService.removeReadListener(readListener);
+        scheduler.shutdownNow();
+        pollExecutor.shutdownNow();
+        for (PollTarget target : List.copyOf(targets.values())) {
+            for (PendingCommand pending : target.pending) {
+                pending.future.cancel(false);
+            }
+        }
+        targets.clear();
+    }
+
+    /**
+     * Confirms the pending commands waiting for the data of an event, whether it was read by a poll of this
+     * tracker or elsewhere.
+     */
+    private void observe(VehicleChangeEvent<?> event) {
+        String state;
+        if (event.getValue() instanceof VehicleChargingState chargingState) {
+            state = chargingState.getState();
+        } else if (event.getValue() instanceof VehicleAirConditioningStatus airConditioning) {
+            state = airConditioning.getState();
+        } else {
+            return;
+        }
+        PollTarget target = targets.get(key(event.getVin(), event.getDataType()));
+        if (target == null) {
+            return;
+        }
+
+        String timestamp = event.getCarCapturedTimestamp();
+        long capturedAt = VehicleMapper.toEpochMillis(timestamp);
+        target.lastState = state;
+        target.lastTimestamp = timestamp;
+        for (PendingCommand pending : target.pending) {
+            boolean capturedAfterSending = capturedAt != Long.MIN_VALUE && capturedAt >= pending.sentAtMillis;
+            if (capturedAfterSending && pending.command.isConfirmedBy(state)) {
+                pending.complete(true, state, timestamp);
+            }
+        }
+    }
+
+    private void forget(PollTarget target, PendingCommand pending) {
+        ScheduledFuture<?> timeout = pending.timeout;
+        if (timeout != null) {
+            timeout.cancel(false);
+        }
+        targets.computeIfPresent(target.key, (ignored, pollTarget) -> {
+            pollTarget.pending.remove(pending);
+            return pollTarget.pending.isEmpty() ? null : pollTarget;
+        });
+        if (targets.get(target.key) != target) {
+            target.cancel();
+        }
+    }
+
+    /**
+     * Polls a target soon again at the initial interval, as a new command joined it.
+     */
+    private void restartPolling(PollTarget target) {
+        synchronized (target) {
+            target.generation++;
+            target.intervalMillis = initialIntervalMillis;
+            target.cancel();
+            schedule(target, initialIntervalMillis);
+        }
+    }
+
+    private void schedule(PollTarget target, long delayMillis) {
+        if (scheduler.isShutdown()) {
+            return;
+        }
+        int generation = target.generation;
+        target.future = scheduler.schedule(() -> pollExecutor.execute(() -> poll(target, generation)),
+                delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void poll(PollTarget target, int generation) {
+        if (targets.get(target.key) != target) {
+            return;
+        }
+        try {
+            // the read is handed to observe() through the read listener
+            if (target.dataType == VehicleDataType.CHARGING_STATE) {
+                vehicleService.getVehicleChargingState(target.vin);
+            } else {
+                vehicleService.getVehicleAirConditioning(target.vin);
+            }
+        } catch (RuntimeException e) {
+            // a failed poll is retried at the next interval, until the commands time out
+        }
+
+        synchronized (target) {
+            if (target.generation == generation && targets.get(target.key) == target) {
+                target.intervalMillis = Math.min(maxIntervalMillis, (long) (target.intervalMillis * backoffMultiplier));
+                schedule(target, target.intervalMillis);
+            }
+        }
+    }
+
+    private static String key(String vin, VehicleDataType dataType) {
+        return dataType.name() + ':' + vin;
+    }
+
+    /**
+     * The data of one vehicle that pending commands wait for, polled on a shared, backing-off interval.
+     */
+    private static class PollTarget {
+
+        private final String key;
+        private final String vin;
+        private final VehicleDataType dataType;
+        private final List<PendingCommand> pending = new CopyOnWriteArrayList<>();
+        private volatile String lastState;
+        private volatile String lastTimestamp;
+        private int generation;
+        private long intervalMillis;
+        private volatile ScheduledFuture<?> future;
+
+        private PollTarget(String key, String vin, VehicleDataType dataType) {
+            this.key = key;
+            this.vin = vin;
+            this.dataType = dataType;
+        }
+
+        private void cancel() {
+            ScheduledFuture<?> current = future;
+            if (current != null) {
+                current.cancel(false);
+            }
+        }
+    }
+
+    private static class PendingCommand {
+
+        private final String vin;
+        private final VehicleCommand command;
+        private final long sentAtMillis;
+        private final long sentAtNanos;
+        private final CompletableFuture<CommandOutcome> future = new CompletableFuture<>();
+        private volatile ScheduledFuture<?> timeout;
+
+        private PendingCommand(String vin, VehicleCommand command, long sentAtMillis, long sentAtNanos) {
+            this.vin = vin;
+            this.command = command;
+            this.sentAtMillis = sentAtMillis;
+            this.sentAtNanos = sentAtNanos;
+        }
+
+        private void complete(boolean confirmed, String state, String timestamp) {
+            future.complete(new CommandOutcome(vin, command, confirmed, state, timestamp,
+                    Duration.ofNanos(System.nanoTime() - sentAtNanos)));
+        }
+    }
+
+    /**
+     * Builder for {@link CommandTracker}.
+     */
+    public static class Builder {
+
+        private final VehicleService vehicleService;
+        private Duration initialInterval = Duration.ofSeconds(5);
+        private Duration maxInterval = Duration.ofMinutes(1);
+        private double backoffMultiplier = 1.5;
+        private Duration timeout = Duration.ofMinutes(3);
+
+        private Builder(VehicleService vehicleService) {
+            this.vehicleService = vehicleService;
+        }
+
+        /**
+         * Sets the delay before the first poll after a command was sent. Defaults to five seconds.
+         *
+         * @param initialInterval the initial polling interval.
+         * @return this builder.
+         */
+        public Builder initialInterval(Duration initialInterval) {
+            this.initialInterval = initialInterval;
+            return this;
+        }
+
+        /**
+         * Sets the longest interval the polling of a vehicle backs off to. Defaults to one minute.
+         *
+         * @param maxInterval the maximum polling interval.
+         * @return this builder.
+         */
+        public Builder maxInterval(Duration maxInterval) {
+            this.maxInterval = maxInterval;
+            return this;
+        }
+
+        /**
+         * Sets the factor by which the polling interval grows after every poll. Defaults to {@code 1.5}.
+         *
+         * @param backoffMultiplier the backoff multiplier.
+         * @return this builder.
+         */
+        public Builder backoffMultiplier(double backoffMultiplier) {
+            this.backoffMultiplier = backoffMultiplier;
+            return this;
+        }
+
+        /**
+         * Sets how long a command is tracked before its outcome completes unconfirmed. Defaults to three minutes.
+         *
+         * @param timeout the tracking timeout.
+         * @return this builder.
+         */
+        public Builder timeout(Duration timeout) {
+            this.timeout = timeout;
+            return this;
+        }
+
+        /**
+         * Builds the tracker.
+         *
+         * @return a new {@link CommandTracker}.
+         */
+        public CommandTracker build() {
+            return new CommandTracker(this);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package be.nicholasmeyers.skoda.api.client;
+
+/**
+ * A compact form of {@link VehicleLocation}, for keeping the location of many vehicles in memory.
+ * <p>
+ * The coordinates are kept as primitives instead of boxed values.
+ * </p>
+ * <p>
+ * Instances of this class are created internally by the {@link VehicleService}
+ * and are not intended to be constructed directly.
+ * </p>
+ */
+public class CompactVehicleLocation {
+
+    private final double latitude;
+    private final double longitude;
+    private final String address;
+
+    /**
+     * Constructs a new {@code CompactVehicleLocation}.
+     *
+     * @param latitude  the latitude, or {@link Double#NaN} if unknown.
+     * @param longitude the longitude, or {@link Double#NaN} if unknown.
+     * @param address   the human-readable address of the location.
+     */
+    CompactVehicleLocation(double latitude, double longitude, String address) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.address = address;
+    }
+
+    /**
+     * Returns the latitude of the vehicle's location.
+     *
+     * @return the latitude coordinate, or {@link Double#NaN} if unknown.
+     */
+    public double getLatitude() {
+        return latitude;
+    }
+
+    /**
+     * Returns the longitude of the vehicle's location.
+     *
+     * @return the longitude coordinate, or {@link Double#NaN} if unknown.
+     */
+    public double getLongitude() {
+        return longitude;
+    }
+
+    /**
+     * Returns the human-readable address of the vehicle's location.
+     *
+     * @return the address.
+     */
+    public String getAddress() {
+        return address;
+    }
+}
@@ -0,0 +1,96 @@
+package be.nicholasmeyers.skoda.api.client;
+
+/**
+ * A compact form of {@link VehicleRange}, for keeping the range of many vehicles in memory.
+ * <p>
+ * The numbers are kept as primitives and the capture time as epoch milliseconds. The car and engine types
+ * take only a handful of values, so they are shared between all instances instead of being copied.
+ * </p>
+ * <p>
+ * Instances of this class are created internally by the {@link VehicleService}
+ * and are not intended to be constructed directly.
+ * </p>
+ */
+public class CompactVehicleRange {
+
+    private final String carType;
+    private final String engineType;
+    private final int totalRangeInKm;
+    private final int currentSoCInPercent;
+    private final int remainingRangeInKm;
+    private final long carCapturedAt;
+
+    /**
+     * Constructs a new {@code CompactVehicleRange}.
+     *
+     * @param carType             the canonical car type.
+     * @param engineType          the canonical engine type.
+     * @param totalRangeInKm      the total range in kilometres, or {@code -1} if unknown.
+     * @param currentSoCInPercent the state of charge in percent, or {@code -1} if unknown.
+     * @param remainingRangeInKm  the remaining range in kilometres, or {@code -1} if unknown.
+     * @param carCapturedAt       the capture time in epoch milliseconds, or {@link Long#MIN_VALUE} if unknown.
+     */
+    CompactVehicleRange(String carType, String engineType, int totalRangeInKm, int currentSoCInPercent,
+                        int remainingRangeInKm, long carCapturedAt) {
+        this.carType = carType;
+        this.engineType = engineType;
+        this.totalRangeInKm = totalRangeInKm;
+        this.currentSoCInPercent = currentSoCInPercent;
+        this.remainingRangeInKm = remainingRangeInKm;
+        this.carCapturedAt = carCapturedAt;
+    }
+
+    /**
+     * Returns the type of the car.
+     *
+     * @return the car type (e.g. {@code "ELECTRIC"}), or {@code null} if unknown.
+     */
+    public String getCarType() {
+        return carType;
+    }
+
+    /**
+     * Returns the type of the engine.
+     *
+     * @return the engine type (e.g. {@code "ELECTRIC"}), or {@code null} if unknown.
+     */
+    public String getEngineType() {
+        return engineType;
+    }
+
+    /**
+     * Returns the total range of the vehicle.
+     *
+     * @return the total range in kilometres, or {@code -1} if unknown.
+     */
+    public int getTotalRangeInKm() {
+        return totalRangeInKm;
+    }
+
+    /**
+     * Returns the current state of charge of the battery.
+     *
+     * @return the state of charge in percent, or {@code -1} if unknown.
+     */
+    public int getCurrentSoCInPercent() {
+        return currentSoCInPercent;
+    }
+
+    /**
+     * Returns the remaining range of the vehicle.
+     *
+     * @return the remaining range in kilometres, or {@code -1} if unknown.
+     */
+    public int getRemainingRangeInKm() {
+        return remainingRangeInKm;
+    }
+
+    /**
+     * Returns the time at which this range was last captured by the vehicle.
+     *
+     * @return the capture time in epoch milliseconds, or {@link Long#MIN_VALUE} if it was missing or unreadable.
+     */
+    public long getCarCapturedAt() {
+        return carCapturedAt;
+    }
+}
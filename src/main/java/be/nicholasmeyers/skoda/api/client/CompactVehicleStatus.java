@@ -0,0 +1,69 @@
+package be.nicholasmeyers.skoda.api.client;
+
+/**
+ * A compact form of {@link VehicleStatus}, for keeping the status of many vehicles in memory.
+ * <p>
+ * The door, window, light and lock states are kept as bit flags and the capture time as epoch milliseconds,
+ * so an instance holds no strings at all. The values are parsed once when the status is retrieved.
+ * </p>
+ * <p>
+ * Instances of this class are created internally by the {@link VehicleService}
+ * and are not intended to be constructed directly.
+ * </p>
+ */
+public class CompactVehicleStatus {
+
+    private final int flags;
+    private final int knownFlags;
+    private final long carCapturedAt;
+
+    /**
+     * Constructs a new {@code CompactVehicleStatus}.
+     *
+     * @param flags         the bit mask of the flags that are set.
+     * @param knownFlags    the bit mask of the flags whose value was reported.
+     * @param carCapturedAt the capture time in epoch milliseconds, or {@link Long#MIN_VALUE} if unknown.
+     */
+    CompactVehicleStatus(int flags, int knownFlags, long carCapturedAt) {
+        this.flags = flags;
+        this.knownFlags = knownFlags;
+        this.carCapturedAt = carCapturedAt;
+    }
+
+    /**
+     * Returns whether a flag is set. A flag whose value was not reported is not set.
+     *
+     * @param flag the flag to check.
+     * @return {@code true} if the vehicle reported the positive value for the flag.
+     */
+    public boolean is(VehicleStatusFlag flag) {
+        return (flags & flag.mask()) != 0;
+    }
+
+    /**
+     * Returns whether the vehicle reported a value for a flag.
+     *
+     * @param flag the flag to check.
+     * @return {@code true} if the flag is known to be set or cleared.
+     */
+    public boolean isKnown(VehicleStatusFlag flag) {
+        return (knownFlags & flag.mask()) != 0;
+    }
+
+    /**
+     * Returns the time at which this status was last captured by the vehicle.
+     *
+     * @return the capture time in epoch milliseconds, or {@link Long#MIN_VALUE} if it was missing or unreadable.
+     */
+    public long getCarCapturedAt() {
+        return carCapturedAt;
+    }
+
+    int getFlags() {
+        return flags;
+    }
+
+    int getKnownFlags() {
+        return knownFlags;
+    }
+}
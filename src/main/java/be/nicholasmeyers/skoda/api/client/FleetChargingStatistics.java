@@ -0,0 +1,50 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The charging statistics of a fleet, for every vehicle and for all vehicles together.
+ * <p>
+ * Instances of this class are created internally by {@link ChargingAnalytics} and are not intended
+ * to be constructed directly.
+ * </p>
+ */
+public class FleetChargingStatistics {
+
+    private final ChargingStatistics fleet;
+    private final Map<String, ChargingStatistics> vehicles;
+
+    FleetChargingStatistics(ChargingStatistics fleet, Map<String, ChargingStatistics> vehicles) {
+        this.fleet = fleet;
+        this.vehicles = Map.copyOf(vehicles);
+    }
+
+    /**
+     * Returns the statistics over the sessions of all vehicles together.
+     *
+     * @return the fleet-wide statistics.
+     */
+    public ChargingStatistics getFleet() {
+        return fleet;
+    }
+
+    /**
+     * Returns the statistics of every vehicle.
+     *
+     * @return an unmodifiable map from VIN to the statistics of the vehicle.
+     */
+    public Map<String, ChargingStatistics> getVehicles() {
+        return vehicles;
+    }
+
+    /**
+     * Returns the statistics of one vehicle.
+     *
+     * @param vin the Vehicle Identification Number of the vehicle.
+     * @return the statistics of the vehicle, or an empty {@code Optional} if it was not part of the analysis.
+     */
+    public Optional<ChargingStatistics> getVehicle(String vin) {
+        return Optional.ofNullable(vehicles.get(vin));
+    }
+}
@@ -0,0 +1,188 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+
+/**
+ * Runs a {@link VehicleService} operation for many vehicles at once, each on its own virtual thread.
+ * <p>
+ * Virtual threads make a blocking call per vehicle cheap, so a fleet of tens of thousands of vehicles
+ * can be queried concurrently. The number of calls that actually reach the upstream API at the same
+ * time is capped by the configured concurrency limit.
+ * </p>
+ * <pre>{@code
+ * try (FleetExecutor fleetExecutor = new FleetExecutor(vehicleService, 100)) {
+ *     Map<String, FleetResult<VehicleStatus>> statuses = fleetExecutor.getVehicleStatuses();
+ * }
+ * }</pre>
+ */
+public class FleetExecutor implements AutoCloseable {
+
+    private final VehicleService vehicleService;
+    private final Semaphore permits;
+    private final ExecutorService executorService;
+
+    /**
+     * Constructs a new {@code FleetExecutor}.
+     *
+     * @param vehicleService the service used to call the API.
+     * @param maxConcurrency the maximum number of calls in flight at the same time.
+     */
+    public FleetExecutor(VehicleService vehicleService, int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be at least 1");
+        }
+        this.vehicleService = vehicleService;
+        this.permits = new Semaphore(maxConcurrency);
+        this.executorService = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("skoda-fleet-", 0).factory());
+    }
+
+    /**
+     * Runs the given operation for every VIN and waits until all of them have finished.
+     *
+     * @param vins      the Vehicle Identification Numbers to run the operation for.
+     * @param operation the operation to run for a single VIN.
+     * @param <T>       the type of the value returned by the operation.
+     * @return the result per VIN, in the iteration order of {@code vins}.
+     */
+    public <T> Map<String, FleetResult<T>> execute(Collection<String> vins, Function<String, T> operation) {
+        List<Future<FleetResult<T>>> futures = new ArrayList<>(vins.size());
+        for (String vin : vins) {
+            futures.add(executorService.submit(() -> run(vin, operation)));
+        }
+
+        Map<String, FleetResult<T>> results = new LinkedHashMap<>();
+        for (Future<FleetResult<T>> future : futures) {
+            FleetResult<T> result = await(future);
+            results.put(result.getVin(), result);
+        }
+        return results;
+    }
+
+    /**
+     * Sends a command to every VIN and waits until all of them have answered.
+     * <p>
+     * The command is sent to each VIN once, even if it is passed more than once. Commands are not retried,
+     * as a command that timed out may still have reached the vehicle; vehicles that failed can be found in the
+     * report and sent the command again. The requests pass the rate limiter of the account and the bulkhead of
+     * the endpoint, so keep the concurrency limit of this executor within the
+     * {@link ResiliencePolicy.Builder#maxConcurrentCalls(int) maximum concurrent calls} of the resilience policy.
+     * </p>
+     *
+     * @param vins    the Vehicle Identification Numbers to send the command to.
+     * @param command the command to send.
+     * @return the report with the result per VIN.
+     */
+    public BulkCommandReport dispatch(Collection<String> vins, VehicleCommand command) {
+        long start = System.nanoTime();
+        Map<String, FleetResult<Void>> results = execute(new LinkedHashSet<>(vins), vin -> {
+            command.execute(vehicleService, vin);
+            return null;
+        });
+        return new BulkCommandReport(command, results, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    /**
+     * Retrieves the status of every vehicle associated with the authenticated account.
+     *
+     * @return the {@link VehicleStatus} result per VIN.
+     * @throws VehicleServiceException if the vehicle list cannot be retrieved.
+     */
+    public Map<String, FleetResult<VehicleStatus>> getVehicleStatuses() {
+        return execute(getVins(), vehicleService::getVehicleStatus);
+    }
+
+    /**
+     * Retrieves the range of every vehicle associated with the authenticated account.
+     *
+     * @return the {@link VehicleRange} result per VIN.
+     * @throws VehicleServiceException if the vehicle list cannot be retrieved.
+     */
+    public Map<String, FleetResult<VehicleRange>> getVehicleRanges() {
+        return execute(getVins(), vehicleService::getVehicleRange);
+    }
+
+    /**
+     * Retrieves the location of every vehicle associated with the authenticated account.
+     *
+     * @return the {@link VehicleLocation} result per VIN.
+     * @throws VehicleServiceException if the vehicle list cannot be retrieved.
+     */
+    public Map<String, FleetResult<VehicleLocation>> getVehicleLocations() {
+        return execute(getVins(), vehicleService::getVehicleLocation);
+    }
+
+    /**
+     * Retrieves the charging state of every vehicle associated with the authenticated account.
+     *
+     * @return the {@link VehicleChargingState} result per VIN.
+     * @throws VehicleServiceException if the vehicle list cannot be retrieved.
+     */
+    public Map<String, FleetResult<VehicleChargingState>> getVehicleChargingStates() {
+        return execute(getVins(), vehicleService::getVehicleChargingState);
+    }
+
+    /**
+     * Retrieves the air conditioning status of every vehicle associated with the authenticated account.
+     *
+     * @return the {@link VehicleAirConditioningStatus} result per VIN.
+     * @throws VehicleServiceException if the vehicle list cannot be retrieved.
+     */
+    public Map<String, FleetResult<VehicleAirConditioningStatus>> getVehicleAirConditionings() {
+        return execute(getVins(), vehicleService::getVehicleAirConditioning);
+    }
+
+    /**
+     * Stops accepting new work and waits for running operations to finish.
+     */
+    @Override
+    public void close() {
+        executorService.close();
+    }
+
+    private List<String> getVins() {
+        return vehicleService.getVehicles().stream()
+                .map(Vehicle::getVin)
+                .toList();
+    }
+
+    private <T> FleetResult<T> run(String vin, Function<String, T> operation) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return FleetResult.failure(vin, new VehicleServiceException("Fleet operation interrupted", e.getMessage()));
+        }
+        try {
+            return FleetResult.success(vin, operation.apply(vin));
+        } catch (VehicleServiceException e) {
+            return FleetResult.failure(vin, e);
+        } catch (RuntimeException e) {
+            return FleetResult.failure(vin, new VehicleServiceException("Fleet operation failed", e.getMessage()));
+        } finally {
+            permits.release();
+        }
+    }
+
+    private static <T> FleetResult<T> await(Future<FleetResult<T>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new VehicleServiceException("Fleet operation interrupted", e.getMessage());
+        } catch (ExecutionException e) {
+            throw new VehicleServiceException("Fleet operation failed", e.getCause().getMessage());
+        }
+    }
+}
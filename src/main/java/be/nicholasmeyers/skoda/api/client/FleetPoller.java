@@ -0,0 +1,315 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls every vehicle of a fleet on its own adaptive interval and pushes the changes to a listener.
+ * <p>
+ * Vehicles that are charging or running their air conditioning are polled at the active interval.
+ * Idle vehicles start at the idle interval, which grows with every poll that finds nothing new, up to
+ * the maximum interval. Every delay is spread with random jitter, so vehicles do not all poll at once.
+ * </p>
+ * <p>
+ * Changes are detected with a {@link VehicleChangeDetector}, so the listener only receives data the
+ * vehicle captured after the previous poll. Polls run on virtual threads.
+ * </p>
+ * <pre>{@code
+ * FleetPoller fleetPoller = FleetPoller.builder(vehicleService, event -> System.out.println(event.getVin()))
+ *         .activeInterval(Duration.ofMinutes(1))
+ *         .idleInterval(Duration.ofMinutes(10))
+ *         .build();
+ * fleetPoller.start();
+ * }</pre>
+ */
+public class FleetPoller implements AutoCloseable {
+
+    private final VehicleService vehicleService;
+    private final VehicleChangeDetector changeDetector;
+    private final FleetPollerListener listener;
+    private final long activeIntervalMillis;
+    private final long idleIntervalMillis;
+    private final long maxIntervalMillis;
+    private final double backoffMultiplier;
+    private final double jitter;
+
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService pollExecutor;
+    private final Map<String, PolledVehicle> vehicles = new ConcurrentHashMap<>();
+
+    private FleetPoller(Builder builder) {
+        this.vehicleService = builder.vehicleService;
+        this.changeDetector = new VehicleChangeDetector(builder.vehicleService);
+        this.listener = builder.listener;
+        this.activeIntervalMillis = builder.activeInterval.toMillis();
+        this.idleIntervalMillis = builder.idleInterval.toMillis();
+        this.maxIntervalMillis = builder.maxInterval.toMillis();
+        this.backoffMultiplier = builder.backoffMultiplier;
+        this.jitter = builder.jitter;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "skoda-fleet-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.pollExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("skoda-fleet-poll-", 0).factory());
+    }
+
+    /**
+     * Returns a new {@link Builder}.
+     *
+     * @param vehicleService the service used to poll the vehicles.
+     * @param listener       the listener receiving the changes.
+     * @return a new poller builder.
+     */
+    public static Builder builder(VehicleService vehicleService, FleetPollerListener listener) {
+        return new Builder(vehicleService, listener);
+    }
+
+    /**
+     * Starts polling every vehicle associated with the authenticated account.
+     *
+     * @throws VehicleServiceException if the vehicle list cannot be retrieved.
+     */
+    public void start() {
+        start(vehicleService.getVehicles().stream()
+                .map(Vehicle::getVin)
+                .toList());
+    }
+
+    /**
+     * Starts polling the given vehicles.
+     *
+     * @param vins the Vehicle Identification Numbers of the vehicles to poll.
+     */
+    public void start(Collection<String> vins) {
+        for (String vin : vins) {
+            addVehicle(vin);
+        }
+    }
+
+    /**
+     * Adds a vehicle to the poller. The first poll happens after a random delay within the active interval.
+     *
+     * @param vin the Vehicle Identification Number of the vehicle.
+     */
+    public void addVehicle(String vin) {
+        PolledVehicle vehicle = new PolledVehicle(vin, idleIntervalMillis);
+        if (vehicles.putIfAbsent(vin, vehicle) == null) {
+            schedule(vehicle, ThreadLocalRandom.current().nextLong(Math.max(1, activeIntervalMillis)));
+        }
+    }
+
+    /**
+     * Stops polling a vehicle.
+     *
+     * @param vin the Vehicle Identification Number of the vehicle.
+     */
+    public void removeVehicle(String vin) {
+        PolledVehicle vehicle = vehicles.remove(vin);
+        if (vehicle != null) {
+            vehicle.cancel();
+            changeDetector.reset(vin);
+        }
+    }
+
+    /**
+     * Returns the interval after which a vehicle will be polled next, without jitter.
+     *
+     * @param vin the Vehicle Identification Number of the vehicle.
+     * @return the current polling interval, or {@code null} if the vehicle is not polled.
+     */
+    public Duration getInterval(String vin) {
+        PolledVehicle vehicle = vehicles.get(vin);
+        return vehicle == null ? null : Duration.ofMillis(vehicle.intervalMillis);
+    }
+
+    /**
+     * Stops polling all vehicles.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        pollExecutor.shutdownNow();
+        vehicles.clear();
+    }
+
+    private void schedule(PolledVehicle vehicle, long delayMillis) {
+        if (scheduler.isShutdown()) {
+            return;
+        }
+        vehicle.future = scheduler.schedule(() -> pollExecutor.execute(() -> poll(vehicle)), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void poll(PolledVehicle vehicle) {
+        if (vehicles.get(vehicle.vin) != vehicle) {
+            return;
+        }
+
+        // each data type is delivered as soon as it is detected, so a later failure cannot drop a change
+        // whose timestamp the detector already recorded
+        boolean changed = false;
+        for (VehicleDataType dataType : VehicleChangeDetector.TRACKED_DATA_TYPES) {
+            try {
+                Optional<? extends VehicleChangeEvent<?>> event = changeDetector.poll(vehicle.vin, dataType);
+                if (event.isPresent()) {
+                    vehicle.update(event.get());
+                    listener.onChange(event.get());
+                    changed = true;
+                }
+            } catch (VehicleServiceException e) {
+                listener.onError(vehicle.vin, e);
+            } catch (RuntimeException e) {
+                listener.onError(vehicle.vin, new VehicleServiceException("Failed to poll vehicle", e.getMessage()));
+            }
+        }
+
+        vehicle.intervalMillis = nextInterval(vehicle, changed);
+        if (vehicles.get(vehicle.vin) == vehicle) {
+            schedule(vehicle, withJitter(vehicle.intervalMillis));
+        }
+    }
+
+    private long nextInterval(PolledVehicle vehicle, boolean changed) {
+        if (vehicle.isActive()) {
+            return activeIntervalMillis;
+        }
+        if (changed) {
+            return idleIntervalMillis;
+        }
+        return Math.min(maxIntervalMillis, Math.max(idleIntervalMillis, (long) (vehicle.intervalMillis * backoffMultiplier)));
+    }
+
+    private long withJitter(long intervalMillis) {
+        long spread = (long) (intervalMillis * jitter);
+        if (spread <= 0) {
+            return intervalMillis;
+        }
+        return Math.max(1, intervalMillis + ThreadLocalRandom.current().nextLong(-spread, spread + 1));
+    }
+
+    private static class PolledVehicle {
+
+        private final String vin;
+        private volatile long intervalMillis;
+        private volatile boolean charging;
+        private volatile boolean airConditioningActive;
+        private volatile ScheduledFuture<?> future;
+
+        private PolledVehicle(String vin, long intervalMillis) {
+            this.vin = vin;
+            this.intervalMillis = intervalMillis;
+        }
+
+        private void update(VehicleChangeEvent<?> event) {
+            if (event.getValue() instanceof VehicleChargingState chargingState) {
+                charging = "CHARGING".equalsIgnoreCase(chargingState.getState());
+            } else if (event.getValue() instanceof VehicleAirConditioningStatus airConditioning) {
+                airConditioningActive = airConditioning.getState() != null
+                        && !"OFF".equalsIgnoreCase(airConditioning.getState());
+            }
+        }
+
+        private boolean isActive() {
+            return charging || airConditioningActive;
+        }
+
+        private void cancel() {
+            ScheduledFuture<?> current = future;
+            if (current != null) {
+                current.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Builder for {@link FleetPoller}.
+     */
+    public static class Builder {
+
+        private final VehicleService vehicleService;
+        private final FleetPollerListener listener;
+        private Duration activeInterval = Duration.ofMinutes(1);
+        private Duration idleInterval = Duration.ofMinutes(5);
+        private Duration maxInterval = Duration.ofMinutes(30);
+        private double backoffMultiplier = 2.0;
+        private double jitter = 0.1;
+
+        private Builder(VehicleService vehicleService, FleetPollerListener listener) {
+            this.vehicleService = vehicleService;
+            this.listener = listener;
+        }
+
+        /**
+         * Sets the interval used while a vehicle is charging or running its air conditioning. Defaults to one minute.
+         *
+         * @param activeInterval the active polling interval.
+         * @return this builder.
+         */
+        public Builder activeInterval(Duration activeInterval) {
+            this.activeInterval = activeInterval;
+            return this;
+        }
+
+        /**
+         * Sets the interval used for an idle vehicle right after it reported a change. Defaults to five minutes.
+         *
+         * @param idleInterval the idle polling interval.
+         * @return this builder.
+         */
+        public Builder idleInterval(Duration idleInterval) {
+            this.idleInterval = idleInterval;
+            return this;
+        }
+
+        /**
+         * Sets the longest interval an idle vehicle backs off to. Defaults to thirty minutes.
+         *
+         * @param maxInterval the maximum polling interval.
+         * @return this builder.
+         */
+        public Builder maxInterval(Duration maxInterval) {
+            this.maxInterval = maxInterval;
+            return this;
+        }
+
+        /**
+         * Sets the factor by which the interval of an idle vehicle grows after a poll without changes. Defaults to {@code 2.0}.
+         *
+         * @param backoffMultiplier the backoff multiplier.
+         * @return this builder.
+         */
+        public Builder backoffMultiplier(double backoffMultiplier) {
+            this.backoffMultiplier = backoffMultiplier;
+            return this;
+        }
+
+        /**
+         * Sets the random spread applied to every delay, as a fraction of the interval. Defaults to {@code 0.1}.
+         *
+         * @param jitter the jitter fraction, between {@code 0} and {@code 1}.
+         * @return this builder.
+         */
+        public Builder jitter(double jitter) {
+            this.jitter = jitter;
+            return this;
+        }
+
+        /**
+         * Builds the poller. Call {@link FleetPoller#start()} to begin polling.
+         *
+         * @return a new {@link FleetPoller}.
+         */
+        public FleetPoller build() {
+            return new FleetPoller(this);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package be.nicholasmeyers.skoda.api.client;
+
+/**
+ * Receives the results of a {@link FleetPoller}.
+ */
+public interface FleetPollerListener {
+
+    /**
+     * Called for every value a polled vehicle captured after the last value seen.
+     *
+     * @param event the change.
+     */
+    void onChange(VehicleChangeEvent<?> event);
+
+    /**
+     * Called when polling a vehicle failed. The vehicle stays scheduled and is polled again later.
+     *
+     * @param vin       the Vehicle Identification Number of the vehicle.
+     * @param exception the failure.
+     */
+    default void onError(String vin, VehicleServiceException exception) {
+    }
+}
@@ -0,0 +1,70 @@
+package be.nicholasmeyers.skoda.api.client;
+
+/**
+ * The outcome of a single vehicle operation that was executed as part of a fleet-wide call.
+ * <p>
+ * A result either holds the value returned for the vehicle, or the {@link VehicleServiceException}
+ * that made the operation fail. One failing vehicle never fails the whole fleet call.
+ * </p>
+ * <p>
+ * Instances of this class are created internally and are not intended to be constructed directly.
+ * </p>
+ *
+ * @param <T> the type of the value returned for each vehicle.
+ */
+public class FleetResult<T> {
+
+    private final String vin;
+    private final T value;
+    private final VehicleServiceException error;
+
+    private FleetResult(String vin, T value, VehicleServiceException error) {
+        this.vin = vin;
+        this.value = value;
+        this.error = error;
+    }
+
+    static <T> FleetResult<T> success(String vin, T value) {
+        return new FleetResult<>(vin, value, null);
+    }
+
+    static <T> FleetResult<T> failure(String vin, VehicleServiceException error) {
+        return new FleetResult<>(vin, null, error);
+    }
+
+    /**
+     * Returns the Vehicle Identification Number of the vehicle this result belongs to.
+     *
+     * @return the VIN.
+     */
+    public String getVin() {
+        return vin;
+    }
+
+    /**
+     * Returns whether the operation succeeded for this vehicle.
+     *
+     * @return {@code true} if a value is available, {@code false} if the operation failed.
+     */
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    /**
+     * Returns the value returned for this vehicle.
+     *
+     * @return the value, or {@code null} if the operation failed or returned nothing.
+     */
+    public T getValue() {
+        return value;
+    }
+
+    /**
+     * Returns the exception that made the operation fail for this vehicle.
+     *
+     * @return the error, or {@code null} if the operation succeeded.
+     */
+    public VehicleServiceException getError() {
+        return error;
+    }
+}
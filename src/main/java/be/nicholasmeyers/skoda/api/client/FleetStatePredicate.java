@@ -0,0 +1,96 @@
+package be.nicholasmeyers.skoda.api.client;
+
+/**
+ * A condition on the state of one vehicle in a {@link FleetStateTable}.
+ * <p>
+ * Predicates are evaluated for every row during a scan. The row passed to {@link #test(FleetStateRow)} is a cursor
+ * that is moved to the next vehicle after the call, so it must not be kept. A scan that raced with an update is
+ * repeated, so a predicate may see a row more than once and should not have side effects.
+ * </p>
+ * <pre>{@code
+ * FleetStatePredicate unlockedAndLow = FleetStatePredicate.flag(VehicleStatusFlag.LOCKED, false)
+ *         .and(FleetStatePredicate.stateOfChargeBelow(20));
+ * }</pre>
+ */
+@FunctionalInterface
+public interface FleetStatePredicate {
+
+    /**
+     * Evaluates the predicate for a vehicle.
+     *
+     * @param row the state of the vehicle, valid only during this call.
+     * @return {@code true} if the vehicle matches.
+     */
+    boolean test(FleetStateRow row);
+
+    /**
+     * Returns a predicate that matches vehicles matching both this predicate and {@code other}.
+     *
+     * @param other the other predicate.
+     * @return the combined predicate.
+     */
+    default FleetStatePredicate and(FleetStatePredicate other) {
+        return row -> test(row) && other.test(row);
+    }
+
+    /**
+     * Returns a predicate that matches vehicles matching this predicate, {@code other}, or both.
+     *
+     * @param other the other predicate.
+     * @return the combined predicate.
+     */
+    default FleetStatePredicate or(FleetStatePredicate other) {
+        return row -> test(row) || other.test(row);
+    }
+
+    /**
+     * Returns a predicate that matches the vehicles this predicate does not match.
+     *
+     * @return the negated predicate.
+     */
+    default FleetStatePredicate negate() {
+        return row -> !test(row);
+    }
+
+    /**
+     * Returns a predicate that matches vehicles that reported a status flag with the given value.
+     * Vehicles that did not report the flag match neither {@code true} nor {@code false}.
+     *
+     * @param flag  the status flag.
+     * @param value the value the flag must have.
+     * @return the predicate.
+     */
+    static FleetStatePredicate flag(VehicleStatusFlag flag, boolean value) {
+        return row -> row.isKnown(flag) && row.is(flag) == value;
+    }
+
+    /**
+     * Returns a predicate that matches vehicles with a known state of charge below a threshold.
+     *
+     * @param percent the threshold in percent, exclusive.
+     * @return the predicate.
+     */
+    static FleetStatePredicate stateOfChargeBelow(int percent) {
+        return row -> row.getStateOfChargeInPercent() >= 0 && row.getStateOfChargeInPercent() < percent;
+    }
+
+    /**
+     * Returns a predicate that matches vehicles with the given charging state.
+     *
+     * @param state the charging state, for example {@code "CHARGING"}; compared ignoring case.
+     * @return the predicate.
+     */
+    static FleetStatePredicate chargingState(String state) {
+        return row -> state.equalsIgnoreCase(row.getChargingState());
+    }
+
+    /**
+     * Returns a predicate that matches vehicles with the given charge type.
+     *
+     * @param chargeType the charge type, for example {@code "DC"}; compared ignoring case.
+     * @return the predicate.
+     */
+    static FleetStatePredicate chargeType(String chargeType) {
+        return row -> chargeType.equalsIgnoreCase(row.getChargeType());
+    }
+}
@@ -0,0 +1,148 @@
+package be.nicholasmeyers.skoda.api.client;
+
+/**
+ * A cursor over the rows of a {@link FleetStateTable}, passed to a {@link FleetStatePredicate} during a scan.
+ * <p>
+ * The cursor reads the columns of the table directly and is moved from vehicle to vehicle, so it is only valid
+ * during the call it is passed to. Values that were never reported are returned as {@code -1}, {@link Double#NaN},
+ * {@link Long#MIN_VALUE} or {@code null}.
+ * </p>
+ * <p>
+ * Instances of this class are created internally by the {@link FleetStateTable}
+ * and are not intended to be constructed directly.
+ * </p>
+ */
+public class FleetStateRow {
+
+    private final FleetStateTable.Columns columns;
+    private final String[] dictionary;
+    private int row;
+
+    FleetStateRow(FleetStateTable.Columns columns, String[] dictionary) {
+        this.columns = columns;
+        this.dictionary = dictionary;
+    }
+
+    void moveTo(int row) {
+        this.row = row;
+    }
+
+    /**
+     * Returns the Vehicle Identification Number of the vehicle.
+     *
+     * @return the VIN.
+     */
+    public String getVin() {
+        return columns.vins[row];
+    }
+
+    /**
+     * Returns whether a status flag is set. A flag whose value was not reported is not set.
+     *
+     * @param flag the flag to check.
+     * @return {@code true} if the vehicle reported the positive value for the flag.
+     */
+    public boolean is(VehicleStatusFlag flag) {
+        return (columns.statusFlags[row] & flag.mask()) != 0;
+    }
+
+    /**
+     * Returns whether the vehicle reported a value for a status flag.
+     *
+     * @param flag the flag to check.
+     * @return {@code true} if the flag is known to be set or cleared.
+     */
+    public boolean isKnown(VehicleStatusFlag flag) {
+        return (columns.statusKnownFlags[row] & flag.mask()) != 0;
+    }
+
+    /**
+     * Returns the most recently captured state of charge, from either the range or the charging state.
+     *
+     * @return the state of charge in percent, or {@code -1} if unknown.
+     */
+    public int getStateOfChargeInPercent() {
+        return columns.stateOfChargeInPercent[row];
+    }
+
+    /**
+     * Returns the remaining range of the vehicle.
+     *
+     * @return the remaining range in kilometres, or {@code -1} if unknown.
+     */
+    public int getRemainingRangeInKm() {
+        return columns.remainingRangeInKm[row];
+    }
+
+    /**
+     * Returns the total range of the vehicle.
+     *
+     * @return the total range in kilometres, or {@code -1} if unknown.
+     */
+    public int getTotalRangeInKm() {
+        return columns.totalRangeInKm[row];
+    }
+
+    /**
+     * Returns the charging state of the vehicle.
+     *
+     * @return the charging state (e.g. {@code "CHARGING"}), or {@code null} if unknown.
+     */
+    public String getChargingState() {
+        return dictionary[columns.chargingState[row]];
+    }
+
+    /**
+     * Returns the type of charge the vehicle is using.
+     *
+     * @return the charge type (e.g. {@code "AC"} or {@code "DC"}), or {@code null} if unknown.
+     */
+    public String getChargeType() {
+        return dictionary[columns.chargeType[row]];
+    }
+
+    /**
+     * Returns the current charging power.
+     *
+     * @return the charging power in kilowatts, or {@link Double#NaN} if unknown.
+     */
+    public double getChargePowerInKw() {
+        return columns.chargePowerInKw[row];
+    }
+
+    /**
+     * Returns the remaining time until the battery is fully charged.
+     *
+     * @return the remaining time in minutes, or {@code -1} if unknown.
+     */
+    public int getRemainingTimeToFullyChargedInMinutes() {
+        return columns.remainingTimeToFullyChargedInMinutes[row];
+    }
+
+    /**
+     * Returns the time at which the status was captured by the vehicle.
+     *
+     * @return the capture time in epoch milliseconds, or {@link Long#MIN_VALUE} if unknown.
+     */
+    public long getStatusCapturedAt() {
+        return columns.statusCapturedAt[row];
+    }
+
+    /**
+     * Returns the time at which the range was captured by the vehicle.
+     *
+     * @return the capture time in epoch milliseconds, or {@link Long#MIN_VALUE} if unknown.
+     */
+    public long getRangeCapturedAt() {
+        return columns.rangeCapturedAt[row];
+    }
+
+    /**
+     * Returns the time at which the charging state was captured by the vehicle.
+     *
+     * @return the capture time in epoch milliseconds, or {@link Long#MIN_VALUE} if unknown.
+     */
+    public long getChargingCapturedAt() {
+        return columns.chargingCapturedAt[row];
+    }
+}
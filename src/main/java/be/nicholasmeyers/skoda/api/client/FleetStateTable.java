@@ -0,0 +1,394 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+/**
+ * An in-memory table of the latest status, range and charging state of every vehicle of a fleet.
+ * <p>
+ * Every field is kept in its own primitive array, indexed by the row of the vehicle: status flags as bit masks,
+ * numbers as primitives, timestamps as epoch milliseconds and charging states and types as codes into a shared
+ * dictionary. A query such as "which vehicles are unlocked" scans a few arrays instead of walking an object per
+ * vehicle. Scans do not lock: they read optimistically and are repeated under a read lock only if an update
+ * raced with them, so every scan sees a consistent snapshot of the table.
+ * </p>
+ * <p>
+ * The table is fed by registering it as a read listener of a {@link VehicleService}, or as a listener of a
+ * {@link VehicleChangeDetector} or {@link FleetPoller}. A value captured before the value already in the table
+ * is ignored, so updates may arrive out of order.
+ * </p>
+ * <pre>{@code
+ * FleetStateTable table = new FleetStateTable();
+ * vehicleService.addReadListener(table);
+ * List<String> unlocked = table.findVins(FleetStatePredicate.flag(VehicleStatusFlag.LOCKED, false));
+ * int lowBattery = table.count(FleetStatePredicate.stateOfChargeBelow(20));
+ * }</pre>
+ */
+public class FleetStateTable implements VehicleChangeListener {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final StampedLock lock = new StampedLock();
+    private final Map<String, Integer> rows = new HashMap<>();
+    private final Map<String, Short> codes = new HashMap<>();
+    private Columns columns = new Columns(INITIAL_CAPACITY);
+    private String[] dictionary = {null};
+    private int size;
+
+    /**
+     * Stores the values of a status, range or charging state event. Events of other data types are ignored.
+     *
+     * @param event the event to store.
+     */
+    @Override
+    public void onChange(VehicleChangeEvent<?> event) {
+        switch (event.getDataType()) {
+            case STATUS -> update(event.getVin(), (VehicleStatus) event.getValue());
+            case RANGE -> update(event.getVin(), (VehicleRange) event.getValue());
+            case CHARGING_STATE -> update(event.getVin(), (VehicleChargingState) event.getValue());
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * Stores the status of a vehicle, unless the table holds a status that was captured later.
+     *
+     * @param vin    the Vehicle Identification Number of the vehicle.
+     * @param status the status to store.
+     */
+    public void update(String vin, VehicleStatus status) {
+        CompactVehicleStatus compact = VehicleMapper.toCompactStatus(status);
+        long stamp = lock.writeLock();
+        try {
+            int row = rowOf(vin);
+            if (isOlder(compact.getCarCapturedAt(), columns.statusCapturedAt[row])) {
+                return;
+            }
+            columns.statusFlags[row] = compact.getFlags();
+            columns.statusKnownFlags[row] = compact.getKnownFlags();
+            columns.statusCapturedAt[row] = compact.getCarCapturedAt();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Stores the range of a vehicle, unless the table holds a range that was captured later.
+     *
+     * @param vin   the Vehicle Identification Number of the vehicle.
+     * @param range the range to store.
+     */
+    public void update(String vin, VehicleRange range) {
+        long capturedAt = VehicleMapper.toEpochMillis(range.getCarCapturedTimestamp());
+        long stamp = lock.writeLock();
+        try {
+            int row = rowOf(vin);
+            if (isOlder(capturedAt, columns.rangeCapturedAt[row])) {
+                return;
+            }
+            columns.remainingRangeInKm[row] = toInt(range.getRemainingRangeInKm());
+            columns.totalRangeInKm[row] = toInt(range.getTotalRangeInKm());
+            columns.rangeCapturedAt[row] = capturedAt;
+            updateStateOfCharge(row, toInt(range.getCurrentSoCInPercent()), capturedAt);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Stores the charging state of a vehicle, unless the table holds a charging state that was captured later.
+     *
+     * @param vin           the Vehicle Identification Number of the vehicle.
+     * @param chargingState the charging state to store.
+     */
+    public void update(String vin, VehicleChargingState chargingState) {
+        long capturedAt = VehicleMapper.toEpochMillis(chargingState.getCarCapturedTimestamp());
+        long stamp = lock.writeLock();
+        try {
+            int row = rowOf(vin);
+            if (isOlder(capturedAt, columns.chargingCapturedAt[row])) {
+                return;
+            }
+            columns.chargingState[row] = codeOf(chargingState.getState());
+            columns.chargeType[row] = codeOf(chargingState.getChargeType());
+            columns.chargePowerInKw[row] = chargingState.getChargePowerInKw();
+            columns.remainingTimeToFullyChargedInMinutes[row] = chargingState.getRemainingTimeToFullyChargedInMinutes();
+            columns.chargingCapturedAt[row] = capturedAt;
+            updateStateOfCharge(row, chargingState.getStateOfChargeInPercent(), capturedAt);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes a vehicle from the table.
+     *
+     * @param vin the Vehicle Identification Number of the vehicle.
+     * @return {@code true} if the vehicle was in the table.
+     */
+    public boolean remove(String vin) {
+        long stamp = lock.writeLock();
+        try {
+            Integer row = rows.remove(vin);
+            if (row == null) {
+                return false;
+            }
+            int last = --size;
+            if (row != last) {
+                columns.move(last, row);
+                rows.put(columns.vins[row], row);
+            }
+            columns.clear(last);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Returns the VINs of the vehicles that match a predicate.
+     *
+     * @param predicate the condition the vehicles must match.
+     * @return the matching VINs, in no particular order.
+     */
+    public List<String> findVins(FleetStatePredicate predicate) {
+        return read(() -> {
+            Columns snapshot = columns;
+            FleetStateRow row = new FleetStateRow(snapshot, dictionary);
+            List<String> vins = new ArrayList<>();
+            for (int i = 0, rowCount = size; i < rowCount; i++) {
+                row.moveTo(i);
+                if (predicate.test(row)) {
+                    vins.add(snapshot.vins[i]);
+                }
+            }
+            return vins;
+        });
+    }
+
+    /**
+     * Returns the number of vehicles that match a predicate.
+     *
+     * @param predicate the condition the vehicles must match.
+     * @return the number of matching vehicles.
+     */
+    public int count(FleetStatePredicate predicate) {
+        return read(() -> {
+            FleetStateRow row = new FleetStateRow(columns, dictionary);
+            int count = 0;
+            for (int i = 0, rowCount = size; i < rowCount; i++) {
+                row.moveTo(i);
+                if (predicate.test(row)) {
+                    count++;
+                }
+            }
+            return count;
+        });
+    }
+
+    /**
+     * Returns whether the table holds a row for a vehicle.
+     *
+     * @param vin the Vehicle Identification Number of the vehicle.
+     * @return {@code true} if the vehicle is in the table.
+     */
+    public boolean contains(String vin) {
+        long stamp = lock.readLock();
+        try {
+            return rows.containsKey(vin);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns the number of vehicles in the table.
+     *
+     * @return the number of rows.
+     */
+    public int size() {
+        return read(() -> size);
+    }
+
+    /**
+     * Runs a reader without locking and returns its result if no update happened meanwhile, otherwise runs it
+     * again under the read lock. Exceptions of a reader that raced with an update are discarded as well.
+     */
+    private <T> T read(Supplier<T> reader) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                T result = reader.get();
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                if (lock.validate(stamp)) {
+                    throw e;
+                }
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return reader.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private int rowOf(String vin) {
+        Integer row = rows.get(vin);
+        if (row != null) {
+            return row;
+        }
+        if (size == columns.vins.length) {
+            columns = columns.copyOf(size * 2);
+        }
+        int newRow = size++;
+        columns.vins[newRow] = vin;
+        rows.put(vin, newRow);
+        return newRow;
+    }
+
+    private short codeOf(String value) {
+        if (value == null) {
+            return 0;
+        }
+        Short code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        if (dictionary.length > Short.MAX_VALUE) {
+            throw new IllegalStateException("Too many distinct charging states and charge types");
+        }
+        short newCode = (short) dictionary.length;
+        String[] newDictionary = Arrays.copyOf(dictionary, dictionary.length + 1);
+        newDictionary[newCode] = value;
+        dictionary = newDictionary;
+        codes.put(value, newCode);
+        return newCode;
+    }
+
+    private void updateStateOfCharge(int row, int stateOfChargeInPercent, long capturedAt) {
+        if (stateOfChargeInPercent >= 0 && !isOlder(capturedAt, columns.stateOfChargeCapturedAt[row])) {
+            columns.stateOfChargeInPercent[row] = stateOfChargeInPercent;
+            columns.stateOfChargeCapturedAt[row] = capturedAt;
+        }
+    }
+
+    /**
+     * Returns whether a value was captured before the stored value. Values without a readable capture time
+     * cannot be compared and always replace the stored value.
+     */
+    private static boolean isOlder(long capturedAt, long storedCapturedAt) {
+        return capturedAt != Long.MIN_VALUE && capturedAt < storedCapturedAt;
+    }
+
+    private static int toInt(Integer value) {
+        return value != null ? value : -1;
+    }
+
+    /**
+     * The column arrays of the table. Arrays are replaced, never resized in place, when the table grows.
+     */
+    static class Columns {
+
+        final String[] vins;
+        final int[] statusFlags;
+        final int[] statusKnownFlags;
+        final long[] statusCapturedAt;
+        final int[] stateOfChargeInPercent;
+        final long[] stateOfChargeCapturedAt;
+        final int[] remainingRangeInKm;
+        final int[] totalRangeInKm;
+        final long[] rangeCapturedAt;
+        final short[] chargingState;
+        final short[] chargeType;
+        final double[] chargePowerInKw;
+        final int[] remainingTimeToFullyChargedInMinutes;
+        final long[] chargingCapturedAt;
+
+        private Columns(int capacity) {
+            this(new String[capacity], new int[capacity], new int[capacity], new long[capacity], new int[capacity],
+                    new long[capacity], new int[capacity], new int[capacity], new long[capacity], new short[capacity],
+                    new short[capacity], new double[capacity], new int[capacity], new long[capacity]);
+            for (int row = 0; row < capacity; row++) {
+                clear(row);
+            }
+        }
+
+        private Columns(String[] vins, int[] statusFlags, int[] statusKnownFlags, long[] statusCapturedAt,
+                        int[] stateOfChargeInPercent, long[] stateOfChargeCapturedAt, int[] remainingRangeInKm,
+                        int[] totalRangeInKm, long[] rangeCapturedAt, short[] chargingState, short[] chargeType,
+                        double[] chargePowerInKw, int[] remainingTimeToFullyChargedInMinutes, long[] chargingCapturedAt) {
+            this.vins = vins;
+            this.statusFlags = statusFlags;
+            this.statusKnownFlags = statusKnownFlags;
+            this.statusCapturedAt = statusCapturedAt;
+            this.stateOfChargeInPercent = stateOfChargeInPercent;
+            this.stateOfChargeCapturedAt = stateOfChargeCapturedAt;
+            this.remainingRangeInKm = remainingRangeInKm;
+            this.totalRangeInKm = totalRangeInKm;
+            this.rangeCapturedAt = rangeCapturedAt;
+            this.chargingState = chargingState;
+            this.chargeType = chargeType;
+            this.chargePowerInKw = chargePowerInKw;
+            this.remainingTimeToFullyChargedInMinutes = remainingTimeToFullyChargedInMinutes;
+            this.chargingCapturedAt = chargingCapturedAt;
+        }
+
+        private Columns copyOf(int capacity) {
+            Columns copy = new Columns(Arrays.copyOf(vins, capacity), Arrays.copyOf(statusFlags, capacity),
+                    Arrays.copyOf(statusKnownFlags, capacity), Arrays.copyOf(statusCapturedAt, capacity),
+                    Arrays.copyOf(stateOfChargeInPercent, capacity), Arrays.copyOf(stateOfChargeCapturedAt, capacity),
+                    Arrays.copyOf(remainingRangeInKm, capacity), Arrays.copyOf(totalRangeInKm, capacity),
+                    Arrays.copyOf(rangeCapturedAt, capacity), Arrays.copyOf(chargingState, capacity),
+                    Arrays.copyOf(chargeType, capacity), Arrays.copyOf(chargePowerInKw, capacity),
+                    Arrays.copyOf(remainingTimeToFullyChargedInMinutes, capacity), Arrays.copyOf(chargingCapturedAt, capacity));
+            for (int row = vins.length; row < capacity; row++) {
+                copy.clear(row);
+            }
+            return copy;
+        }
+
+        private void move(int from, int to) {
+            vins[to] = vins[from];
+            statusFlags[to] = statusFlags[from];
+            statusKnownFlags[to] = statusKnownFlags[from];
+            statusCapturedAt[to] = statusCapturedAt[from];
+            stateOfChargeInPercent[to] = stateOfChargeInPercent[from];
+            stateOfChargeCapturedAt[to] = stateOfChargeCapturedAt[from];
+            remainingRangeInKm[to] = remainingRangeInKm[from];
+            totalRangeInKm[to] = totalRangeInKm[from];
+            rangeCapturedAt[to] = rangeCapturedAt[from];
+            chargingState[to] = chargingState[from];
+            chargeType[to] = chargeType[from];
+            chargePowerInKw[to] = chargePowerInKw[from];
+            remainingTimeToFullyChargedInMinutes[to] = remainingTimeToFullyChargedInMinutes[from];
+            chargingCapturedAt[to] = chargingCapturedAt[from];
+        }
+
+        private void clear(int row) {
+            vins[row] = null;
+            statusFlags[row] = 0;
+            statusKnownFlags[row] = 0;
+            statusCapturedAt[row] = Long.MIN_VALUE;
+            stateOfChargeInPercent[row] = -1;
+            stateOfChargeCapturedAt[row] = Long.MIN_VALUE;
+            remainingRangeInKm[row] = -1;
+            totalRangeInKm[row] = -1;
+            rangeCapturedAt[row] = Long.MIN_VALUE;
+            chargingState[row] = 0;
+            chargeType[row] = 0;
+            chargePowerInKw[row] = Double.NaN;
+            remainingTimeToFullyChargedInMinutes[row] = -1;
+            chargingCapturedAt[row] = Long.MIN_VALUE;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import okhttp3.Response;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * Reads the elements of a JSON array response one at a time, while the bytes arrive.
+ * <p>
+ * Only the element being read is held in memory, so arbitrarily long lists can be processed
+ * without materialising them. Closing the reader closes the response.
+ * </p>
+ */
+class JsonArrayReader<T> implements Closeable {
+
+    private final Response response;
+    private final JsonReader reader;
+    private final ElementReader<T> elementReader;
+    private final String errorMessage;
+    private boolean started;
+
+    JsonArrayReader(Response response, ElementReader<T> elementReader, String errorMessage) {
+        this.response = response;
+        this.reader = new JsonReader(response.body().charStream());
+        this.elementReader = elementReader;
+        this.errorMessage = errorMessage;
+    }
+
+    /**
+     * Reads the next element.
+     *
+     * @return {@code true} when an element was passed to the action, {@code false} at the end of the array.
+     * @throws VehicleServiceException if the response cannot be read or is not a JSON array.
+     */
+    boolean tryAdvance(Consumer<? super T> action) {
+        try {
+            if (!started) {
+                reader.beginArray();
+                started = true;
+            }
+            if (!reader.hasNext()) {
+                return false;
+            }
+            action.accept(elementReader.read(reader));
+            return true;
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            throw new VehicleServiceException(errorMessage, e.getMessage());
+        }
+    }
+
+    void forEachRemaining(Consumer<? super T> action) {
+        while (tryAdvance(action)) {
+            // every element is handed to the action by tryAdvance
+        }
+    }
+
+    Spliterator<T> spliterator() {
+        return new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                return JsonArrayReader.this.tryAdvance(action);
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+        response.close();
+    }
+
+    static Vehicle readVehicle(JsonReader reader) throws IOException {
+        String vin = null;
+        String name = null;
+        String title = null;
+        String licensePlate = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "vin" -> vin = nextString(reader);
+                case "name" -> name = nextString(reader);
+                case "title" -> title = nextString(reader);
+                case "licensePlate" -> licensePlate = nextString(reader);
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new Vehicle(vin, name, title, licensePlate);
+    }
+
+    static VehicleChargingSession readChargingSession(JsonReader reader) throws IOException {
+        String startAt = null;
+        double chargedInKWh = 0;
+        int durationInMinutes = 0;
+        String currentType = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "startAt" -> startAt = nextString(reader);
+                case "chargedInKWh" -> chargedInKWh = nextDouble(reader);
+                case "durationInMinutes" -> durationInMinutes = (int) nextDouble(reader);
+                case "currentType" -> currentType = nextString(reader);
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new VehicleChargingSession(startAt, chargedInKWh, durationInMinutes, currentType);
+    }
+
+    private static String nextString(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        return reader.nextString();
+    }
+
+    private static double nextDouble(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return 0;
+        }
+        return reader.nextDouble();
+    }
+
+    @FunctionalInterface
+    interface ElementReader<T> {
+        T read(JsonReader reader) throws IOException;
+    }
+}
@@ -0,0 +1,111 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reports the latency, status code and transferred bytes of every API request to a {@link VehicleMetricsRegistry}.
+ */
+class MetricsInterceptor implements Interceptor {
+
+    private static final Set<String> RESOURCES = Set.of("vehicle", "location", "status", "range", "air-conditioning", "charging");
+
+    private final VehicleMetricsRegistry metricsRegistry;
+
+    MetricsInterceptor(VehicleMetricsRegistry metricsRegistry) {
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        String endpoint = endpoint(request.url().pathSegments());
+        String method = request.method();
+
+        RequestBody requestBody = request.body();
+        if (requestBody != null && requestBody.contentLength() >= 0) {
+            metricsRegistry.recordRequestBytes(endpoint, requestBody.contentLength());
+        }
+
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException | RuntimeException e) {
+            metricsRegistry.recordRequestFailure(endpoint, method, e.getClass().getSimpleName(), System.nanoTime() - start);
+            throw e;
+        }
+        metricsRegistry.recordRequest(endpoint, method, response.code(), System.nanoTime() - start);
+
+        ResponseBody body = response.body();
+        return response.newBuilder()
+                .body(ResponseBody.create(Okio.buffer(new CountingSource(body.source(), endpoint)),
+                        body.contentType(), body.contentLength()))
+                .build();
+    }
+
+    /**
+     * Turns a request path into the path template of its endpoint, replacing the VIN with {@code {vin}}.
+     */
+    static String endpoint(List<String> pathSegments) {
+        for (int i = 0; i < pathSegments.size(); i++) {
+            String segment = pathSegments.get(i);
+            if (!RESOURCES.contains(segment)) {
+                continue;
+            }
+            StringBuilder endpoint = new StringBuilder("/").append(segment);
+            for (int j = i + 1; j < pathSegments.size(); j++) {
+                endpoint.append('/').append(j == i + 1 ? "{vin}" : pathSegments.get(j));
+            }
+            return endpoint.toString();
+        }
+        return "unknown";
+    }
+
+    private class CountingSource extends ForwardingSource {
+
+        private final String endpoint;
+        private long bytes;
+        private boolean reported;
+
+        private CountingSource(BufferedSource delegate, String endpoint) {
+            super(delegate);
+            this.endpoint = endpoint;
+        }
+
+        @Override
+        public long read(Buffer sink, long byteCount) throws IOException {
+            long read = super.read(sink, byteCount);
+            if (read == -1) {
+                report();
+            } else {
+                bytes += read;
+            }
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            report();
+            super.close();
+        }
+
+        private void report() {
+            if (!reported) {
+                reported = true;
+                metricsRegistry.recordResponseBytes(endpoint, bytes);
+            }
+        }
+    }
+}
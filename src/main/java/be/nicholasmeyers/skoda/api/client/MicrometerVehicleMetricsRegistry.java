@@ -0,0 +1,150 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the measurements of the client to a Micrometer {@link MeterRegistry}.
+ * <p>
+ * Micrometer is an optional dependency of this library: add {@code io.micrometer:micrometer-core}
+ * to your project to use this class. The following meters are registered:
+ * </p>
+ * <ul>
+ *     <li>{@code skoda.api.requests}: timer with percentile histogram, tagged by endpoint, method, status and outcome.</li>
+ *     <li>{@code skoda.api.request.bytes} and {@code skoda.api.response.bytes}: distribution summaries tagged by endpoint.</li>
+ *     <li>{@code skoda.api.operations}: timer of {@link VehicleService} operations, tagged by operation and outcome.</li>
+ *     <li>{@code skoda.api.token.fetches}: timer of token logins and refreshes, tagged by method and outcome.</li>
+ *     <li>{@code skoda.api.retries}: counter of retried reads, tagged by operation.</li>
+ *     <li>{@code skoda.api.circuit.transitions}: counter of circuit breaker state changes, tagged by endpoint and state.</li>
+ *     <li>{@code skoda.api.rejected.calls}: counter of calls rejected by a circuit breaker or bulkhead, tagged by endpoint and reason.</li>
+ *     <li>{@code skoda.api.ratelimit.waits}: timer of the time requests wait for a rate limit permit.</li>
+ *     <li>{@code skoda.api.ratelimit.rejections}: counter of requests failed by the rate limiter.</li>
+ *     <li>{@code skoda.api.throttled}: timer of the pauses requested by {@code 429} responses, tagged by endpoint.</li>
+ * </ul>
+ */
+public class MicrometerVehicleMetricsRegistry implements VehicleMetricsRegistry {
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Constructs a new {@code MicrometerVehicleMetricsRegistry}.
+     *
+     * @param meterRegistry the Micrometer registry to publish to.
+     */
+    public MicrometerVehicleMetricsRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void recordRequest(String endpoint, String method, int statusCode, long durationNanos) {
+        Timer.builder("skoda.api.requests")
+                .tag("endpoint", endpoint)
+                .tag("method", method)
+                .tag("status", Integer.toString(statusCode))
+                .tag("outcome", statusCode < 400 ? "SUCCESS" : statusCode < 500 ? "CLIENT_ERROR" : "SERVER_ERROR")
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordRequestFailure(String endpoint, String method, String exception, long durationNanos) {
+        Timer.builder("skoda.api.requests")
+                .tag("endpoint", endpoint)
+                .tag("method", method)
+                .tag("status", exception)
+                .tag("outcome", "FAILURE")
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordRequestBytes(String endpoint, long bytes) {
+        DistributionSummary.builder("skoda.api.request.bytes")
+                .baseUnit("bytes")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry)
+                .record(bytes);
+    }
+
+    @Override
+    public void recordResponseBytes(String endpoint, long bytes) {
+        DistributionSummary.builder("skoda.api.response.bytes")
+                .baseUnit("bytes")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry)
+                .record(bytes);
+    }
+
+    @Override
+    public void recordOperation(String operation, long durationNanos, boolean success) {
+        Timer.builder("skoda.api.operations")
+                .tag("operation", operation)
+                .tag("outcome", success ? "SUCCESS" : "FAILURE")
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordTokenFetch(String method, long durationNanos, boolean success) {
+        Timer.builder("skoda.api.token.fetches")
+                .tag("method", method)
+                .tag("outcome", success ? "SUCCESS" : "FAILURE")
+                .register(meterRegistry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordRetry(String operation, int attempt) {
+        Counter.builder("skoda.api.retries")
+                .tag("operation", operation)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    @Override
+    public void recordCircuitBreakerState(String endpoint, String state) {
+        Counter.builder("skoda.api.circuit.transitions")
+                .tag("endpoint", endpoint)
+                .tag("state", state)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    @Override
+    public void recordRejectedCall(String endpoint, String reason) {
+        Counter.builder("skoda.api.rejected.calls")
+                .tag("endpoint", endpoint)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    @Override
+    public void recordRateLimitWait(long waitNanos) {
+        Timer.builder("skoda.api.ratelimit.waits")
+                .register(meterRegistry)
+                .record(waitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordRateLimitRejection() {
+        Counter.builder("skoda.api.ratelimit.rejections")
+                .register(meterRegistry)
+                .increment();
+    }
+
+    @Override
+    public void recordThrottled(String endpoint, long pauseNanos) {
+        Timer.builder("skoda.api.throttled")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry)
+                .record(pauseNanos, TimeUnit.NANOSECONDS);
+    }
+}
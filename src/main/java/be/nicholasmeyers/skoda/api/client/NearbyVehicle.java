@@ -0,0 +1,67 @@
+package be.nicholasmeyers.skoda.api.client;
+
+/**
+ * A vehicle found by a {@link VehicleLocationIndex} query, with its distance to the query point.
+ * <p>
+ * Instances of this class are created internally by the {@link VehicleLocationIndex}
+ * and are not intended to be constructed directly.
+ * </p>
+ */
+public class NearbyVehicle {
+
+    private final String vin;
+    private final double latitude;
+    private final double longitude;
+    private final double distanceInKm;
+
+    /**
+     * Constructs a new {@code NearbyVehicle}.
+     *
+     * @param vin          the Vehicle Identification Number of the vehicle.
+     * @param latitude     the latitude of the vehicle.
+     * @param longitude    the longitude of the vehicle.
+     * @param distanceInKm the great-circle distance to the query point in kilometres.
+     */
+    NearbyVehicle(String vin, double latitude, double longitude, double distanceInKm) {
+        this.vin = vin;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.distanceInKm = distanceInKm;
+    }
+
+    /**
+     * Returns the Vehicle Identification Number of the vehicle.
+     *
+     * @return the VIN.
+     */
+    public String getVin() {
+        return vin;
+    }
+
+    /**
+     * Returns the latitude of the vehicle's location.
+     *
+     * @return the latitude coordinate.
+     */
+    public double getLatitude() {
+        return latitude;
+    }
+
+    /**
+     * Returns the longitude of the vehicle's location.
+     *
+     * @return the longitude coordinate.
+     */
+    public double getLongitude() {
+        return longitude;
+    }
+
+    /**
+     * Returns the great-circle distance between the vehicle and the query point.
+     *
+     * @return the distance in kilometres.
+     */
+    public double getDistanceInKm() {
+        return distanceInKm;
+    }
+}
@@ -0,0 +1,152 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * A {@link Flow.Subscription} that polls the API only while its subscriber has outstanding demand.
+ * <p>
+ * Polls are spaced at least one interval apart and only start when every previously polled item has been
+ * delivered. A slow subscriber therefore slows down polling, instead of letting items pile up in memory:
+ * at most the items of a single poll are buffered.
+ * </p>
+ * <p>
+ * A failed poll is retried after twice the previous delay. The subscriber only receives {@code onError}
+ * once {@value #MAX_CONSECUTIVE_FAILURES} polls in a row have failed, so a transient failure does not end the stream.
+ * Items a poll emitted before it failed are still delivered.
+ * </p>
+ *
+ * @param <T> the type of the emitted items.
+ */
+class PollingSubscription<T> implements Flow.Subscription {
+
+    static final int MAX_CONSECUTIVE_FAILURES = 5;
+
+    private final Flow.Subscriber<? super T> subscriber;
+    private final Poll<T> poll;
+    private final LongSupplier intervalNanos;
+    private final ScheduledExecutorService scheduler;
+    private final Executor pollExecutor;
+
+    private final Queue<T> buffer = new ConcurrentLinkedQueue<>();
+    private final AtomicLong demand = new AtomicLong();
+    private final AtomicInteger wip = new AtomicInteger();
+    private final AtomicBoolean polling = new AtomicBoolean();
+    private volatile boolean cancelled;
+    private volatile Throwable error;
+    private volatile long lastPollNanos;
+    private volatile boolean polledBefore;
+    private volatile int consecutiveFailures;
+
+    PollingSubscription(Flow.Subscriber<? super T> subscriber, Poll<T> poll, LongSupplier intervalNanos,
+                        ScheduledExecutorService scheduler, Executor pollExecutor) {
+        this.subscriber = subscriber;
+        this.poll = poll;
+        this.intervalNanos = intervalNanos;
+        this.scheduler = scheduler;
+        this.pollExecutor = pollExecutor;
+    }
+
+    void start() {
+        subscriber.onSubscribe(this);
+    }
+
+    @Override
+    public void request(long n) {
+        if (n <= 0) {
+            error = new IllegalArgumentException("Requested " + n + " items, expected a positive number");
+        } else {
+            demand.accumulateAndGet(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+        }
+        drain();
+    }
+
+    @Override
+    public void cancel() {
+        cancelled = true;
+        buffer.clear();
+    }
+
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            while (!cancelled && demand.get() > 0 && !buffer.isEmpty()) {
+                subscriber.onNext(buffer.poll());
+                if (demand.get() != Long.MAX_VALUE) {
+                    demand.decrementAndGet();
+                }
+            }
+            if (cancelled) {
+                buffer.clear();
+                return;
+            }
+            if (error != null) {
+                cancelled = true;
+                subscriber.onError(error);
+                return;
+            }
+            if (demand.get() > 0 && buffer.isEmpty()) {
+                schedulePoll();
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void schedulePoll() {
+        if (!polling.compareAndSet(false, true)) {
+            return;
+        }
+        long interval = intervalNanos.getAsLong() << consecutiveFailures;
+        long delay = polledBefore ? Math.max(0, lastPollNanos + interval - System.nanoTime()) : 0;
+        scheduler.schedule(() -> pollExecutor.execute(this::poll), delay, TimeUnit.NANOSECONDS);
+    }
+
+    private void poll() {
+        if (cancelled) {
+            return;
+        }
+        try {
+            poll.poll(buffer::add);
+            consecutiveFailures = 0;
+        } catch (RuntimeException e) {
+            // polls never overlap, so the counter is only updated by one thread at a time
+            if (consecutiveFailures + 1 >= MAX_CONSECUTIVE_FAILURES) {
+                error = e;
+            } else {
+                consecutiveFailures++;
+            }
+        } finally {
+            lastPollNanos = System.nanoTime();
+            polledBefore = true;
+            polling.set(false);
+        }
+        drain();
+    }
+
+    /**
+     * Performs one poll and passes the items to emit, which may be none, to {@code emitter}. A poll that throws
+     * counts as failed, but the items it passed before are still emitted.
+     *
+     * @param <T> the type of the emitted items.
+     */
+    @FunctionalInterface
+    interface Poll<T> {
+        void poll(Consumer<T> emitter);
+    }
+}
@@ -0,0 +1,13 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import java.io.IOException;
+
+/**
+ * Signals that a request was not sent because no rate limit permit became available in time.
+ */
+class RateLimitExceededException extends IOException {
+
+    RateLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,231 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends a request only once both the account and the global token bucket handed out a permit, and pauses
+ * the account when the API throttles it.
+ * <p>
+ * A {@code 429} response pauses the account bucket for the duration of its {@code Retry-After} header, and the
+ * request is sent again once the pause has ended, so throttling delays callers instead of failing them. Only when
+ * a request has been throttled for longer than the maximum of the {@link RateLimitPolicy} in total does it fail,
+ * without being retried by the {@link ResiliencePolicy}.
+ * </p>
+ * <p>
+ * Blocking requests wait for their permit and for the pause in the interceptor, on the calling thread.
+ * Asynchronous requests reserve their permit with {@link #reserveForLater()} before they are enqueued and are
+ * sent through the {@link #throttleOnly()} interceptor, so the OkHttp dispatcher threads never wait: a throttled
+ * asynchronous request is returned by the interceptor after pausing the account, and sent again by the
+ * {@link AsyncVehicleService} with a permit reserved by {@link #reserveAfterThrottle()}.
+ * </p>
+ */
+class RateLimitInterceptor implements Interceptor {
+
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    private final RateLimitPolicy policy;
+    private final TokenBucket accountBucket;
+    private final TokenBucket globalBucket;
+    private final VehicleMetricsRegistry metricsRegistry;
+
+    RateLimitInterceptor(RateLimitPolicy policy, TokenBucket accountBucket, TokenBucket globalBucket,
+                         VehicleMetricsRegistry metricsRegistry) {
+        this.policy = policy;
+        this.accountBucket = accountBucket;
+        this.globalBucket = globalBucket;
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        long throttledNanos = 0;
+        for (long maxWaitNanos = maxWaitNanos(); ; maxWaitNanos = maxWaitAfterThrottleNanos()) {
+            long waitNanos = reserve(maxWaitNanos);
+            if (waitNanos < 0) {
+                metricsRegistry.recordRateLimitRejection();
+                throw new RateLimitExceededException("Rate limit exceeded for " + request.url().encodedPath());
+            }
+            await(waitNanos);
+            Response response = chain.proceed(request);
+            if (response.code() != TOO_MANY_REQUESTS) {
+                return response;
+            }
+            response.close();
+            throttledNanos = throttle(request, response.header("Retry-After"), throttledNanos);
+        }
+    }
+
+    /**
+     * Reserves a permit for a request that is sent once the returned wait has passed, without waiting here.
+     *
+     * @return the nanoseconds to wait before sending the request, or {@code -1} when it must be rejected.
+     */
+    long reserveForLater() {
+        long waitNanos = reserve(maxWaitNanos());
+        if (waitNanos < 0) {
+            metricsRegistry.recordRateLimitRejection();
+        } else if (waitNanos > 0) {
+            metricsRegistry.recordRateLimitWait(waitNanos);
+        }
+        return waitNanos;
+    }
+
+    /**
+     * Reserves a permit for an asynchronous request that is sent again after the API throttled it. The permit
+     * may be waited for up to the maximum {@code Retry-After}, as it only becomes usable once the pause ends.
+     *
+     * @return the nanoseconds to wait before sending the request, or {@code -1} when it must be rejected.
+     */
+    long reserveAfterThrottle() {
+        long waitNanos = reserve(maxWaitAfterThrottleNanos());
+        if (waitNanos < 0) {
+            metricsRegistry.recordRateLimitRejection();
+        } else if (waitNanos > 0) {
+            metricsRegistry.recordRateLimitWait(waitNanos);
+        }
+        return waitNanos;
+    }
+
+    /**
+     * Returns an interceptor for requests whose permit was reserved with {@link #reserveForLater()}: it only
+     * pauses the account when the API throttles it, and returns the {@code 429} response so the request can be
+     * sent again without waiting on the dispatcher thread.
+     */
+    Interceptor throttleOnly() {
+        return chain -> {
+            Request request = chain.request();
+            Response response = chain.proceed(request);
+            if (response.code() == TOO_MANY_REQUESTS) {
+                try {
+                    throttle(request, response.header("Retry-After"), 0);
+                } catch (RateLimitExceededException e) {
+                    response.close();
+                    throw e;
+                }
+            }
+            return response;
+        };
+    }
+
+    /**
+     * Returns the pause the API asked for in the headers of a {@code 429} response, which the account was
+     * already paused for by {@link #throttleOnly()}.
+     */
+    long retryAfterNanos(Map<String, List<String>> responseHeaders) {
+        if (responseHeaders != null) {
+            for (Map.Entry<String, List<String>> header : responseHeaders.entrySet()) {
+                if ("Retry-After".equalsIgnoreCase(header.getKey()) && !header.getValue().isEmpty()) {
+                    return retryAfterNanos(header.getValue().getFirst());
+                }
+            }
+        }
+        return retryAfterNanos((String) null);
+    }
+
+    long getMaxRetryAfterNanos() {
+        return policy.getMaxRetryAfter().toNanos();
+    }
+
+    /**
+     * Pauses the account for the {@code Retry-After} of a throttled request.
+     *
+     * @return how long the request has been throttled in total.
+     * @throws RateLimitExceededException if that exceeds the maximum {@code Retry-After} of the policy.
+     */
+    private long throttle(Request request, String retryAfter, long throttledNanos) throws RateLimitExceededException {
+        long retryAfterNanos = retryAfterNanos(retryAfter);
+        accountBucket.pause(retryAfterNanos);
+        metricsRegistry.recordThrottled(MetricsInterceptor.endpoint(request.url().pathSegments()), retryAfterNanos);
+        long totalNanos = throttledNanos + retryAfterNanos;
+        if (totalNanos > getMaxRetryAfterNanos()) {
+            throw new RateLimitExceededException("Throttled by the API for " + request.url().encodedPath()
+                    + " longer than the maximum Retry-After");
+        }
+        return totalNanos;
+    }
+
+    /**
+     * Returns how long a request that is sent again after being throttled may wait for its permit: at least the
+     * maximum {@code Retry-After}, whatever the mode, as the permit only becomes usable once the pause ends.
+     */
+    private long maxWaitAfterThrottleNanos() {
+        return Math.max(maxWaitNanos(), getMaxRetryAfterNanos());
+    }
+
+    private long maxWaitNanos() {
+        return switch (policy.getMode()) {
+            case BLOCK -> Long.MAX_VALUE / 2;
+            case QUEUE_WITH_TIMEOUT -> policy.getQueueTimeout().toNanos();
+            case REJECT -> 0;
+        };
+    }
+
+    /**
+     * Reserves a permit in both buckets, giving the account permit back when the global bucket has none in time.
+     */
+    private long reserve(long maxWaitNanos) {
+        long accountWait = accountBucket.reserve(maxWaitNanos);
+        if (accountWait < 0) {
+            return -1;
+        }
+        long globalWait = globalBucket.reserve(maxWaitNanos);
+        if (globalWait < 0) {
+            accountBucket.cancel();
+            return -1;
+        }
+        return Math.max(accountWait, globalWait);
+    }
+
+    private void await(long waitNanos) throws InterruptedIOException {
+        if (waitNanos <= 0) {
+            return;
+        }
+        metricsRegistry.recordRateLimitWait(waitNanos);
+        try {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a rate limit permit");
+        }
+    }
+
+    private long retryAfterNanos(String header) {
+        Duration retryAfter = parseRetryAfter(header);
+        return (retryAfter != null ? retryAfter : policy.getDefaultRetryAfter()).toNanos();
+    }
+
+    /**
+     * Parses a {@code Retry-After} header, given either in seconds or as an HTTP date.
+     *
+     * @return the duration to wait, or {@code null} when the header is missing or malformed.
+     */
+    static Duration parseRetryAfter(String retryAfter) {
+        if (retryAfter == null || retryAfter.isBlank()) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(retryAfter.trim())));
+        } catch (NumberFormatException e) {
+            try {
+                Duration untilDate = Duration.between(ZonedDateTime.now(),
+                        ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME));
+                return untilDate.isNegative() ? Duration.ZERO : untilDate;
+            } catch (DateTimeParseException ignored) {
+                return null;
+            }
+        }
+    }
+}
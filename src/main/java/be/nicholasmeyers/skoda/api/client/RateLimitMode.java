@@ -0,0 +1,22 @@
+package be.nicholasmeyers.skoda.api.client;
+
+/**
+ * Determines what happens to a request when the rate limit of its account or the global rate limit is exhausted.
+ */
+public enum RateLimitMode {
+
+    /**
+     * Waits until the request may be sent, however long that takes.
+     */
+    BLOCK,
+
+    /**
+     * Waits until the request may be sent, but fails it when that would take longer than the queue timeout.
+     */
+    QUEUE_WITH_TIMEOUT,
+
+    /**
+     * Fails the request right away when it cannot be sent immediately.
+     */
+    REJECT
+}
@@ -0,0 +1,250 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import java.time.Duration;
+
+/**
+ * Describes how many requests a {@link VehicleServiceFactory} may send to the API.
+ * <p>
+ * Requests are limited by two token buckets: one per account and one shared by all accounts of the factory.
+ * A request is sent once both buckets have a permit for it; what happens while it waits is decided by the
+ * {@link RateLimitMode}. When the API answers with {@code 429 Too Many Requests}, the account stops sending
+ * requests for the duration of the {@code Retry-After} header, and the throttled request is sent again once the
+ * pause has ended. Callers only see the throttling as a delay, unless a request is throttled for longer than the
+ * {@linkplain Builder#maxRetryAfter(Duration) maximum} in total.
+ * </p>
+ * <p>
+ * Blocking calls wait for their permit on the calling thread. Calls of an {@link AsyncVehicleService} reserve
+ * their permit up front and are enqueued once it may be used, without holding a thread while they wait.
+ * </p>
+ * <pre>{@code
+ * RateLimitPolicy rateLimitPolicy = RateLimitPolicy.builder()
+ *         .accountLimit(2, 5)
+ *         .globalLimit(50, 100)
+ *         .mode(RateLimitMode.QUEUE_WITH_TIMEOUT)
+ *         .queueTimeout(Duration.ofSeconds(10))
+ *         .build();
+ * }</pre>
+ */
+public class RateLimitPolicy {
+
+    private final double accountPermitsPerSecond;
+    private final int accountBurst;
+    private final double globalPermitsPerSecond;
+    private final int globalBurst;
+    private final RateLimitMode mode;
+    private final Duration queueTimeout;
+    private final Duration defaultRetryAfter;
+    private final Duration maxRetryAfter;
+
+    private RateLimitPolicy(Builder builder) {
+        this.accountPermitsPerSecond = builder.accountPermitsPerSecond;
+        this.accountBurst = builder.accountBurst;
+        this.globalPermitsPerSecond = builder.globalPermitsPerSecond;
+        this.globalBurst = builder.globalBurst;
+        this.mode = builder.mode;
+        this.queueTimeout = builder.queueTimeout;
+        this.defaultRetryAfter = builder.defaultRetryAfter;
+        this.maxRetryAfter = builder.maxRetryAfter;
+    }
+
+    /**
+     * Returns a new {@link Builder} initialised with the default settings.
+     *
+     * @return a new policy builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the policy without client-side limits, which only pauses accounts throttled by the API.
+     *
+     * @return the default rate limit policy.
+     */
+    public static RateLimitPolicy defaults() {
+        return builder().build();
+    }
+
+    /**
+     * Returns the sustained number of requests per second of one account.
+     *
+     * @return the permits per second per account, {@link Double#POSITIVE_INFINITY} when unlimited.
+     */
+    public double getAccountPermitsPerSecond() {
+        return accountPermitsPerSecond;
+    }
+
+    /**
+     * Returns the number of requests one account may send at once after being idle.
+     *
+     * @return the burst size per account.
+     */
+    public int getAccountBurst() {
+        return accountBurst;
+    }
+
+    /**
+     * Returns the sustained number of requests per second of all accounts together.
+     *
+     * @return the global permits per second, {@link Double#POSITIVE_INFINITY} when unlimited.
+     */
+    public double getGlobalPermitsPerSecond() {
+        return globalPermitsPerSecond;
+    }
+
+    /**
+     * Returns the number of requests all accounts together may send at once after being idle.
+     *
+     * @return the global burst size.
+     */
+    public int getGlobalBurst() {
+        return globalBurst;
+    }
+
+    /**
+     * Returns what happens to a request that cannot be sent immediately.
+     *
+     * @return the rate limit mode.
+     */
+    public RateLimitMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Returns how long a request waits for a permit in {@link RateLimitMode#QUEUE_WITH_TIMEOUT} mode.
+     *
+     * @return the queue timeout.
+     */
+    public Duration getQueueTimeout() {
+        return queueTimeout;
+    }
+
+    /**
+     * Returns how long an account pauses after a {@code 429} response without a {@code Retry-After} header.
+     *
+     * @return the default pause.
+     */
+    public Duration getDefaultRetryAfter() {
+        return defaultRetryAfter;
+    }
+
+    /**
+     * Returns how long a request may be held back by {@code Retry-After} pauses in total before it fails.
+     *
+     * @return the maximum total pause of a throttled request.
+     */
+    public Duration getMaxRetryAfter() {
+        return maxRetryAfter;
+    }
+
+    /**
+     * Builder for {@link RateLimitPolicy}.
+     */
+    public static class Builder {
+
+        private double accountPermitsPerSecond = Double.POSITIVE_INFINITY;
+        private int accountBurst = 1;
+        private double globalPermitsPerSecond = Double.POSITIVE_INFINITY;
+        private int globalBurst = 1;
+        private RateLimitMode mode = RateLimitMode.BLOCK;
+        private Duration queueTimeout = Duration.ofSeconds(10);
+        private Duration defaultRetryAfter = Duration.ofSeconds(1);
+        private Duration maxRetryAfter = Duration.ofMinutes(1);
+
+        private Builder() {
+        }
+
+        /**
+         * Limits the requests of every account. Unlimited by default.
+         *
+         * @param permitsPerSecond the sustained number of requests per second.
+         * @param burst            the number of requests that may be sent at once after being idle.
+         * @return this builder.
+         */
+        public Builder accountLimit(double permitsPerSecond, int burst) {
+            validate(permitsPerSecond, burst);
+            this.accountPermitsPerSecond = permitsPerSecond;
+            this.accountBurst = burst;
+            return this;
+        }
+
+        /**
+         * Limits the requests of all accounts of the factory together. Unlimited by default.
+         *
+         * @param permitsPerSecond the sustained number of requests per second.
+         * @param burst            the number of requests that may be sent at once after being idle.
+         * @return this builder.
+         */
+        public Builder globalLimit(double permitsPerSecond, int burst) {
+            validate(permitsPerSecond, burst);
+            this.globalPermitsPerSecond = permitsPerSecond;
+            this.globalBurst = burst;
+            return this;
+        }
+
+        /**
+         * Sets what happens to a request that cannot be sent immediately. Defaults to {@link RateLimitMode#BLOCK}.
+         *
+         * @param mode the rate limit mode.
+         * @return this builder.
+         */
+        public Builder mode(RateLimitMode mode) {
+            this.mode = mode;
+            return this;
+        }
+
+        /**
+         * Sets how long a request waits for a permit in {@link RateLimitMode#QUEUE_WITH_TIMEOUT} mode.
+         * Defaults to ten seconds.
+         *
+         * @param queueTimeout the queue timeout.
+         * @return this builder.
+         */
+        public Builder queueTimeout(Duration queueTimeout) {
+            this.queueTimeout = queueTimeout;
+            return this;
+        }
+
+        /**
+         * Sets how long an account pauses after a {@code 429} response without a {@code Retry-After} header.
+         * Defaults to one second.
+         *
+         * @param defaultRetryAfter the default pause.
+         * @return this builder.
+         */
+        public Builder defaultRetryAfter(Duration defaultRetryAfter) {
+            this.defaultRetryAfter = defaultRetryAfter;
+            return this;
+        }
+
+        /**
+         * Sets how long a request may be held back by {@code Retry-After} pauses in total before it fails.
+         * A request throttled for longer fails without a retry. Defaults to one minute.
+         *
+         * @param maxRetryAfter the maximum total pause of a throttled request.
+         * @return this builder.
+         */
+        public Builder maxRetryAfter(Duration maxRetryAfter) {
+            this.maxRetryAfter = maxRetryAfter;
+            return this;
+        }
+
+        /**
+         * Builds the rate limit policy.
+         *
+         * @return a new {@link RateLimitPolicy}.
+         */
+        public RateLimitPolicy build() {
+            return new RateLimitPolicy(this);
+        }
+
+        private static void validate(double permitsPerSecond, int burst) {
+            if (!(permitsPerSecond > 0)) {
+                throw new IllegalArgumentException("permitsPerSecond must be positive");
+            }
+            if (burst < 1) {
+                throw new IllegalArgumentException("burst must be at least 1");
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package be.nicholasmeyers.skoda.api.client;
+
+/**
+ * Holds the global token bucket of a {@link RateLimitPolicy} and creates the interceptor of every account.
+ */
+class RateLimiter {
+
+    private final RateLimitPolicy policy;
+    private final TokenBucket globalBucket;
+    private final VehicleMetricsRegistry metricsRegistry;
+
+    RateLimiter(RateLimitPolicy policy, VehicleMetricsRegistry metricsRegistry) {
+        this.policy = policy;
+        this.globalBucket = new TokenBucket(policy.getGlobalPermitsPerSecond(), policy.getGlobalBurst());
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    /**
+     * Creates the interceptor of one account, with its own token bucket and the shared global bucket.
+     */
+    RateLimitInterceptor newAccountInterceptor() {
+        return new RateLimitInterceptor(policy,
+                new TokenBucket(policy.getAccountPermitsPerSecond(), policy.getAccountBurst()), globalBucket, metricsRegistry);
+    }
+}
@@ -0,0 +1,249 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import java.time.Duration;
+
+/**
+ * Describes how a {@link VehicleService} copes with a failing or slow API.
+ * <p>
+ * Reads are retried with exponential backoff and full jitter when the request fails without a response,
+ * or the API answers with {@code 429} or a {@code 5xx} status. Commands are never retried.
+ * Every endpoint, such as {@code /status} or {@code /charging}, has its own circuit breaker and bulkhead:
+ * the circuit breaker fails calls fast after a number of consecutive failures, and the bulkhead limits how
+ * many calls may wait on the endpoint at the same time, so a slow endpoint cannot hold up the others.
+ * </p>
+ * <pre>{@code
+ * ResiliencePolicy resiliencePolicy = ResiliencePolicy.builder()
+ *         .maxAttempts(4)
+ *         .failureThreshold(10)
+ *         .openDuration(Duration.ofMinutes(1))
+ *         .maxConcurrentCalls(20)
+ *         .build();
+ * }</pre>
+ */
+public class ResiliencePolicy {
+
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final int maxConcurrentCalls;
+    private final Duration maxWaitDuration;
+
+    private ResiliencePolicy(Builder builder) {
+        this.maxAttempts = builder.maxAttempts;
+        this.initialBackoff = builder.initialBackoff;
+        this.maxBackoff = builder.maxBackoff;
+        this.failureThreshold = builder.failureThreshold;
+        this.openDuration = builder.openDuration;
+        this.maxConcurrentCalls = builder.maxConcurrentCalls;
+        this.maxWaitDuration = builder.maxWaitDuration;
+    }
+
+    /**
+     * Returns a new {@link Builder} initialised with the default settings.
+     *
+     * @return a new policy builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the policy with the default settings.
+     *
+     * @return the default resilience policy.
+     */
+    public static ResiliencePolicy defaults() {
+        return builder().build();
+    }
+
+    /**
+     * Returns a policy that never retries, never opens a circuit and does not limit concurrency.
+     *
+     * @return a policy without any resilience behaviour.
+     */
+    public static ResiliencePolicy disabled() {
+        return builder()
+                .maxAttempts(1)
+                .failureThreshold(Integer.MAX_VALUE)
+                .maxConcurrentCalls(Integer.MAX_VALUE)
+                .build();
+    }
+
+    /**
+     * Returns how many times a read is attempted in total before its failure is reported.
+     *
+     * @return the maximum number of attempts.
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Returns the upper bound of the delay before the first retry.
+     *
+     * @return the initial backoff.
+     */
+    public Duration getInitialBackoff() {
+        return initialBackoff;
+    }
+
+    /**
+     * Returns the upper bound of the delay before any retry.
+     *
+     * @return the maximum backoff.
+     */
+    public Duration getMaxBackoff() {
+        return maxBackoff;
+    }
+
+    /**
+     * Returns the number of consecutive failures after which the circuit of an endpoint opens.
+     *
+     * @return the failure threshold.
+     */
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    /**
+     * Returns how long an open circuit fails calls fast before it lets a trial call through.
+     *
+     * @return the open duration.
+     */
+    public Duration getOpenDuration() {
+        return openDuration;
+    }
+
+    /**
+     * Returns the maximum number of concurrent calls per endpoint.
+     *
+     * @return the bulkhead size.
+     */
+    public int getMaxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+
+    /**
+     * Returns how long a call waits for a free slot in the bulkhead before it is rejected.
+     *
+     * @return the maximum wait duration.
+     */
+    public Duration getMaxWaitDuration() {
+        return maxWaitDuration;
+    }
+
+    /**
+     * Builder for {@link ResiliencePolicy}.
+     */
+    public static class Builder {
+
+        private int maxAttempts = 3;
+        private Duration initialBackoff = Duration.ofMillis(200);
+        private Duration maxBackoff = Duration.ofSeconds(5);
+        private int failureThreshold = 5;
+        private Duration openDuration = Duration.ofSeconds(30);
+        private int maxConcurrentCalls = 32;
+        private Duration maxWaitDuration = Duration.ofSeconds(5);
+
+        private Builder() {
+        }
+
+        /**
+         * Sets how many times a read is attempted in total. Defaults to {@code 3}; {@code 1} disables retries.
+         *
+         * @param maxAttempts the maximum number of attempts.
+         * @return this builder.
+         */
+        public Builder maxAttempts(int maxAttempts) {
+            if (maxAttempts < 1) {
+                throw new IllegalArgumentException("maxAttempts must be at least 1");
+            }
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        /**
+         * Sets the upper bound of the delay before the first retry. The bound doubles with every further
+         * retry and the actual delay is drawn at random below it. Defaults to 200 milliseconds.
+         *
+         * @param initialBackoff the initial backoff.
+         * @return this builder.
+         */
+        public Builder initialBackoff(Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+            return this;
+        }
+
+        /**
+         * Sets the upper bound of the delay before any retry. Defaults to five seconds.
+         *
+         * @param maxBackoff the maximum backoff.
+         * @return this builder.
+         */
+        public Builder maxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+            return this;
+        }
+
+        /**
+         * Sets the number of consecutive failures after which the circuit of an endpoint opens. Defaults to {@code 5}.
+         *
+         * @param failureThreshold the failure threshold.
+         * @return this builder.
+         */
+        public Builder failureThreshold(int failureThreshold) {
+            if (failureThreshold < 1) {
+                throw new IllegalArgumentException("failureThreshold must be at least 1");
+            }
+            this.failureThreshold = failureThreshold;
+            return this;
+        }
+
+        /**
+         * Sets how long an open circuit fails calls fast before it lets a trial call through. Defaults to 30 seconds.
+         *
+         * @param openDuration the open duration.
+         * @return this builder.
+         */
+        public Builder openDuration(Duration openDuration) {
+            this.openDuration = openDuration;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of concurrent calls per endpoint. Defaults to {@code 32}.
+         *
+         * @param maxConcurrentCalls the bulkhead size.
+         * @return this builder.
+         */
+        public Builder maxConcurrentCalls(int maxConcurrentCalls) {
+            if (maxConcurrentCalls < 1) {
+                throw new IllegalArgumentException("maxConcurrentCalls must be at least 1");
+            }
+            this.maxConcurrentCalls = maxConcurrentCalls;
+            return this;
+        }
+
+        /**
+         * Sets how long a call waits for a free slot in the bulkhead before it is rejected. Defaults to five seconds.
+         *
+         * @param maxWaitDuration the maximum wait duration, or {@link Duration#ZERO} to reject immediately.
+         * @return this builder.
+         */
+        public Builder maxWaitDuration(Duration maxWaitDuration) {
+            this.maxWaitDuration = maxWaitDuration;
+            return this;
+        }
+
+        /**
+         * Builds the resilience policy.
+         *
+         * @return a new {@link ResiliencePolicy}.
+         */
+        public ResiliencePolicy build() {
+            return new ResiliencePolicy(this);
+        }
+    }
+}
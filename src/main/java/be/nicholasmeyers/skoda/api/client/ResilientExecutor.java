@@ -0,0 +1,328 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import be.nicholasmeyers.skoda.ApiException;
+
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Executes API calls under a {@link ResiliencePolicy}: a bulkhead and circuit breaker per endpoint,
+ * and retries with exponential backoff and full jitter for idempotent operations.
+ * <p>
+ * One executor is shared by every service created by a {@link VehicleServiceFactory}, so the endpoints
+ * are protected across accounts, for blocking and asynchronous calls alike.
+ * </p>
+ */
+class ResilientExecutor {
+
+    private final ResiliencePolicy policy;
+    private final VehicleMetricsRegistry metricsRegistry;
+    private final ConcurrentHashMap<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    ResilientExecutor(ResiliencePolicy policy, VehicleMetricsRegistry metricsRegistry) {
+        this.policy = policy;
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    /**
+     * Executes the call, retrying it when the operation is idempotent and the failure is transient.
+     *
+     * @throws ApiException the failure of the last attempt, or a failure without status code when the call
+     *                      was rejected by the circuit breaker or the bulkhead.
+     */
+    <T> T execute(ApiOperation operation, ApiCall<T> apiCall) throws ApiException {
+        Endpoint endpoint = endpoints.computeIfAbsent(operation.getEndpoint(), this::createEndpoint);
+        int maxAttempts = operation.isIdempotent() ? policy.getMaxAttempts() : 1;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return endpoint.execute(apiCall);
+            } catch (ApiException e) {
+                if (attempt >= maxAttempts || !isRetryable(e)) {
+                    throw e;
+                }
+                metricsRegistry.recordRetry(operation.getOperationId(), attempt);
+                backoff(attempt);
+            }
+        }
+    }
+
+    /**
+     * Asynchronous counterpart of {@link #execute(ApiOperation, ApiCall)}. Retries are delayed and calls wait for
+     * a slot in the bulkhead of their endpoint without blocking a thread.
+     * Cancelling the returned future cancels the attempt in flight.
+     *
+     * @return a future failing with the {@link ApiException} of the last attempt, or of the rejection.
+     */
+    <T> CompletableFuture<T> executeAsync(ApiOperation operation, AsyncApiCall<T> apiCall) {
+        Endpoint endpoint = endpoints.computeIfAbsent(operation.getEndpoint(), this::createEndpoint);
+        int maxAttempts = operation.isIdempotent() ? policy.getMaxAttempts() : 1;
+        CompletableFuture<T> result = new CompletableFuture<>();
+        attemptAsync(operation, endpoint, apiCall, 1, maxAttempts, result);
+        return result;
+    }
+
+    CircuitBreaker.State getCircuitBreakerState(String endpoint) {
+        Endpoint existing = endpoints.get(endpoint);
+        return existing == null ? CircuitBreaker.State.CLOSED : existing.circuitBreaker.getState();
+    }
+
+    /**
+     * Returns whether a failure is worth retrying: the request failed without a response, was throttled,
+     * or the API reported a server error. Calls rejected locally are not retried.
+     */
+    static boolean isRetryable(ApiException e) {
+        int code = e.getCode();
+        return (code == 0 && !isRejectedLocally(e)) || code == 429 || code >= 500;
+    }
+
+    private static boolean isFailure(ApiException e) {
+        return (e.getCode() == 0 && !isRejectedLocally(e)) || e.getCode() >= 500;
+    }
+
+    private static boolean isRejectedLocally(ApiException e) {
+        return e instanceof RejectedCallException || e.getCause() instanceof RateLimitExceededException;
+    }
+
+    private static Throwable unwrap(Throwable throwable) {
+        return throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+    }
+
+    private <T> void attemptAsync(ApiOperation operation, Endpoint endpoint, AsyncApiCall<T> apiCall, int attempt,
+                                  int maxAttempts, CompletableFuture<T> result) {
+        if (result.isDone()) {
+            return;
+        }
+        CompletableFuture<T> current = endpoint.executeAsync(apiCall);
+        result.whenComplete((value, throwable) -> {
+            if (result.isCancelled()) {
+                current.cancel(true);
+            }
+        });
+        current.whenComplete((value, throwable) -> {
+            if (throwable == null) {
+                result.complete(value);
+                return;
+            }
+            Throwable cause = unwrap(throwable);
+            if (cause instanceof ApiException e && attempt < maxAttempts && isRetryable(e)) {
+                metricsRegistry.recordRetry(operation.getOperationId(), attempt);
+                CompletableFuture.delayedExecutor(backoffNanos(attempt), TimeUnit.NANOSECONDS)
+                        .execute(() -> attemptAsync(operation, endpoint, apiCall, attempt + 1, maxAttempts, result));
+            } else {
+                result.completeExceptionally(cause);
+            }
+        });
+    }
+
+    private void backoff(int attempt) throws ApiException {
+        long backoffNanos = backoffNanos(attempt);
+        if (backoffNanos <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(backoffNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiException("Interrupted while waiting to retry");
+        }
+    }
+
+    private long backoffNanos(int attempt) {
+        long ceiling = policy.getInitialBackoff().toNanos() << Math.min(attempt - 1, 30);
+        long bound = Math.min(Math.max(ceiling, 0), policy.getMaxBackoff().toNanos());
+        return bound <= 0 ? 0 : ThreadLocalRandom.current().nextLong(bound);
+    }
+
+    private Endpoint createEndpoint(String endpoint) {
+        return new Endpoint(endpoint,
+                new CircuitBreaker(endpoint, policy.getFailureThreshold(), policy.getOpenDuration().toNanos(), metricsRegistry),
+                new Semaphore(policy.getMaxConcurrentCalls()));
+    }
+
+    private class Endpoint {
+
+        private final String name;
+        private final CircuitBreaker circuitBreaker;
+        private final Semaphore bulkhead;
+        private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+
+        private Endpoint(String name, CircuitBreaker circuitBreaker, Semaphore bulkhead) {
+            this.name = name;
+            this.circuitBreaker = circuitBreaker;
+            this.bulkhead = bulkhead;
+        }
+
+        private <T> T execute(ApiCall<T> apiCall) throws ApiException {
+            acquireBulkhead();
+            try {
+                if (!circuitBreaker.tryAcquirePermission()) {
+                    metricsRegistry.recordRejectedCall(name, "circuit_open");
+                    throw new RejectedCallException("Circuit breaker of " + name + " is open");
+                }
+                try {
+                    T result = apiCall.execute();
+                    circuitBreaker.onSuccess();
+                    return result;
+                } catch (ApiException e) {
+                    if (isFailure(e)) {
+                        circuitBreaker.onFailure();
+                    } else {
+                        circuitBreaker.onSuccess();
+                    }
+                    throw e;
+                } catch (RuntimeException e) {
+                    circuitBreaker.onFailure();
+                    throw e;
+                }
+            } finally {
+                release();
+            }
+        }
+
+        /**
+         * Starts an asynchronous call under the bulkhead and circuit breaker. When the bulkhead is full, the call
+         * waits for a slot without holding a thread, for at most the maximum wait duration of the policy.
+         * Cancelling the returned future cancels the call, or removes it from the queue.
+         */
+        private <T> CompletableFuture<T> executeAsync(AsyncApiCall<T> apiCall) {
+            CompletableFuture<T> result = new CompletableFuture<>();
+            Waiter waiter = new Waiter(() -> start(apiCall, result));
+            if (bulkhead.tryAcquire()) {
+                waiter.claim();
+                waiter.task.run();
+                return result;
+            }
+
+            long maxWaitNanos = policy.getMaxWaitDuration().toNanos();
+            if (maxWaitNanos <= 0) {
+                rejectBulkheadFull(result);
+                return result;
+            }
+            waiters.add(waiter);
+            // a slot released while the waiter was being queued would otherwise not be handed to it
+            if (bulkhead.tryAcquire()) {
+                if (waiter.claim()) {
+                    waiter.task.run();
+                } else {
+                    release();
+                }
+            }
+            result.whenComplete((value, throwable) -> waiter.claim());
+            CompletableFuture.delayedExecutor(maxWaitNanos, TimeUnit.NANOSECONDS).execute(() -> {
+                if (waiter.claim()) {
+                    rejectBulkheadFull(result);
+                }
+            });
+            return result;
+        }
+
+        private <T> void start(AsyncApiCall<T> apiCall, CompletableFuture<T> result) {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                release();
+                metricsRegistry.recordRejectedCall(name, "circuit_open");
+                result.completeExceptionally(new RejectedCallException("Circuit breaker of " + name + " is open"));
+                return;
+            }
+
+            CompletableFuture<T> call;
+            try {
+                call = apiCall.start();
+            } catch (RuntimeException e) {
+                release();
+                circuitBreaker.onFailure();
+                result.completeExceptionally(e);
+                return;
+            }
+            result.whenComplete((value, throwable) -> {
+                if (result.isCancelled()) {
+                    call.cancel(true);
+                }
+            });
+            call.whenComplete((value, throwable) -> {
+                release();
+                Throwable cause = throwable == null ? null : unwrap(throwable);
+                if (cause == null || (cause instanceof ApiException e && !isFailure(e))) {
+                    circuitBreaker.onSuccess();
+                } else if (cause instanceof CancellationException) {
+                    circuitBreaker.onIgnored();
+                } else {
+                    circuitBreaker.onFailure();
+                }
+                if (cause == null) {
+                    result.complete(value);
+                } else {
+                    result.completeExceptionally(cause);
+                }
+            });
+        }
+
+        private void rejectBulkheadFull(CompletableFuture<?> result) {
+            metricsRegistry.recordRejectedCall(name, "bulkhead_full");
+            result.completeExceptionally(new RejectedCallException("Bulkhead of " + name + " is full"));
+        }
+
+        /**
+         * Frees a slot of the bulkhead, handing it straight to the longest waiting asynchronous call if there is one.
+         */
+        private void release() {
+            Waiter waiter;
+            while ((waiter = waiters.poll()) != null) {
+                if (waiter.claim()) {
+                    waiter.task.run();
+                    return;
+                }
+            }
+            bulkhead.release();
+        }
+
+        private void acquireBulkhead() throws ApiException {
+            boolean acquired;
+            try {
+                acquired = bulkhead.tryAcquire(policy.getMaxWaitDuration().toNanos(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RejectedCallException("Interrupted while waiting for the bulkhead of " + name);
+            }
+            if (!acquired) {
+                metricsRegistry.recordRejectedCall(name, "bulkhead_full");
+                throw new RejectedCallException("Bulkhead of " + name + " is full");
+            }
+        }
+    }
+
+    /**
+     * An asynchronous call waiting for a slot in a bulkhead. It is started by whoever claims it first with a slot,
+     * or rejected by its timeout.
+     */
+    private static class Waiter {
+
+        private final Runnable task;
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        private Waiter(Runnable task) {
+            this.task = task;
+        }
+
+        private boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+    }
+
+    /**
+     * A call that was not sent because the circuit breaker or bulkhead of its endpoint rejected it.
+     */
+    static class RejectedCallException extends ApiException {
+
+        RejectedCallException(String message) {
+            super(message);
+        }
+    }
+}
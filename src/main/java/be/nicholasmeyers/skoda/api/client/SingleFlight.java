@@ -0,0 +1,81 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Lets concurrent identical reads share one in-flight call and its result.
+ * <p>
+ * The first caller for a key performs the call; callers arriving while it is in flight wait for
+ * and receive the same result or exception. Nothing is cached: once the call completes, the next
+ * caller for the key starts a new one.
+ * </p>
+ */
+class SingleFlight {
+
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    <T> T execute(VehicleDataType dataType, String vin, Supplier<T> call) {
+        String key = key(dataType, vin);
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            coalesced.increment();
+            return (T) await(existing);
+        }
+
+        try {
+            T result = call.get();
+            future.complete(result);
+            return result;
+        } catch (Throwable e) {
+            // errors are shared too, so joined callers never wait for a future that is not completed
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * Detaches the call in flight for a key, if any, so the next caller starts a new call instead of joining it.
+     * Callers that already joined it still receive its result.
+     */
+    void forget(VehicleDataType dataType, String vin) {
+        inFlight.remove(key(dataType, vin));
+    }
+
+    /**
+     * Detaches every call in flight.
+     */
+    void forgetAll() {
+        inFlight.clear();
+    }
+
+    long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    private static String key(VehicleDataType dataType, String vin) {
+        return dataType.name() + ':' + vin;
+    }
+
+    private static Object await(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An append-only file of fixed-size records, each belonging to a VIN and a point in time.
+ * <p>
+ * The file starts with a 16 byte header: the magic number {@code SKTS}, the format version, the record type
+ * and the record size. Every record starts with the VIN as 17 ASCII bytes followed by the time in epoch
+ * milliseconds; the rest of the record is written by the caller. Records are read through memory mappings of
+ * segments of at most 64 MB, each holding whole records, so the file is not limited by the 2 GB size of a
+ * single mapping. An in-memory index sorted by time per VIN is rebuilt when the file is opened.
+ * A record cut short by a crash is dropped when the file is opened.
+ * </p>
+ * <p>
+ * Instances are not thread-safe; {@link VehicleTimeSeriesStore} guards them with a read-write lock.
+ * </p>
+ */
+class TimeSeriesFile implements AutoCloseable {
+
+    static final int VIN_LENGTH = 17;
+    static final int TIME_OFFSET = VIN_LENGTH;
+    static final int PAYLOAD_OFFSET = TIME_OFFSET + Long.BYTES;
+
+    private static final int MAGIC = 0x534B5453;
+    private static final short VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final int recordSize;
+    private final int recordsPerSegment;
+    private final Map<String, VinIndex> index = new HashMap<>();
+    private int recordCount;
+    private List<MappedByteBuffer> segments = List.of();
+
+    TimeSeriesFile(Path path, short recordType, int recordSize) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.recordSize = recordSize;
+        this.recordsPerSegment = Math.max(1, SEGMENT_SIZE / recordSize);
+        try {
+            if (channel.size() == 0) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                        .putInt(MAGIC).putShort(VERSION).putShort(recordType).putInt(recordSize).putInt(0)
+                        .flip();
+                channel.write(header, 0);
+            } else {
+                validateHeader(path, recordType);
+            }
+            long records = (channel.size() - HEADER_SIZE) / recordSize;
+            channel.truncate(HEADER_SIZE + records * recordSize);
+            this.segments = map(Math.toIntExact(records));
+            this.recordCount = Math.toIntExact(records);
+            for (int record = 0; record < recordCount; record++) {
+                addToIndex(readVin(record), getTime(record), record);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns whether a record with exactly this VIN and time exists.
+     */
+    boolean contains(String vin, long time) {
+        VinIndex vinIndex = index.get(vin);
+        return vinIndex != null && vinIndex.indexOf(time) >= 0;
+    }
+
+    /**
+     * Appends records. Every buffer must hold one record of the record size, starting with the VIN and time.
+     * The mapping is refreshed once after all records are written, and the records are only indexed once they
+     * are written and mapped; if that fails the file is truncated to its previous size.
+     */
+    void append(ByteBuffer[] records) throws IOException {
+        int newRecordCount = Math.addExact(recordCount, records.length);
+        long start = HEADER_SIZE + (long) recordCount * recordSize;
+        try {
+            long position = start;
+            for (ByteBuffer record : records) {
+                while (record.hasRemaining()) {
+                    position += channel.write(record, position);
+                }
+            }
+            segments = map(newRecordCount);
+        } catch (IOException | RuntimeException e) {
+            try {
+                channel.truncate(start);
+            } catch (IOException truncateFailure) {
+                e.addSuppressed(truncateFailure);
+            }
+            throw e;
+        }
+        for (ByteBuffer record : records) {
+            String vin = new String(record.array(), 0, VIN_LENGTH, StandardCharsets.US_ASCII).trim();
+            addToIndex(vin, record.getLong(TIME_OFFSET), recordCount++);
+        }
+    }
+
+    /**
+     * Returns the records of a VIN with a time in {@code [from, to)}, ordered by time.
+     */
+    int[] find(String vin, long from, long to) {
+        VinIndex vinIndex = index.get(vin);
+        if (vinIndex == null) {
+            return new int[0];
+        }
+        return vinIndex.range(from, to);
+    }
+
+    long getTime(int record) {
+        return segment(record).getLong(offset(record) + TIME_OFFSET);
+    }
+
+    int getInt(int record, int payloadOffset) {
+        return segment(record).getInt(offset(record) + PAYLOAD_OFFSET + payloadOffset);
+    }
+
+    double getDouble(int record, int payloadOffset) {
+        return segment(record).getDouble(offset(record) + PAYLOAD_OFFSET + payloadOffset);
+    }
+
+    String getString(int record, int payloadOffset) {
+        return readString(segment(record), offset(record) + PAYLOAD_OFFSET + payloadOffset);
+    }
+
+    int getRecordCount() {
+        return recordCount;
+    }
+
+    void force() throws IOException {
+        channel.force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Starts a record buffer with the VIN and time filled in.
+     */
+    ByteBuffer newRecord(String vin, long time) {
+        byte[] vinBytes = vin.getBytes(StandardCharsets.US_ASCII);
+        if (vinBytes.length > VIN_LENGTH) {
+            throw new IllegalArgumentException("VIN must not be longer than " + VIN_LENGTH + " characters: " + vin);
+        }
+        ByteBuffer record = ByteBuffer.allocate(recordSize);
+        record.put(0, vinBytes);
+        Arrays.fill(record.array(), vinBytes.length, VIN_LENGTH, (byte) ' ');
+        record.putLong(TIME_OFFSET, time);
+        return record;
+    }
+
+    /**
+     * Writes a string into a field of {@code fieldSize} bytes: a length byte, {@code -1} for {@code null},
+     * followed by the UTF-8 bytes, truncated to fit.
+     */
+    static void putString(ByteBuffer record, int payloadOffset, int fieldSize, String value) {
+        int position = PAYLOAD_OFFSET + payloadOffset;
+        if (value == null) {
+            record.put(position, (byte) -1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(bytes.length, fieldSize - 1);
+        record.put(position, (byte) length);
+        record.put(position + 1, bytes, 0, length);
+    }
+
+    /**
+     * Returns a string of a record that has not been appended yet, as it will be read once it is stored.
+     */
+    static String getString(ByteBuffer record, int payloadOffset) {
+        return readString(record, PAYLOAD_OFFSET + payloadOffset);
+    }
+
+    private static String readString(ByteBuffer buffer, int position) {
+        int length = buffer.get(position);
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(position + 1, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private String readVin(int record) {
+        byte[] vin = new byte[VIN_LENGTH];
+        segment(record).get(offset(record), vin);
+        return new String(vin, StandardCharsets.US_ASCII).trim();
+    }
+
+    private MappedByteBuffer segment(int record) {
+        return segments.get(record / recordsPerSegment);
+    }
+
+    /**
+     * Returns the position of a record within its segment.
+     */
+    private int offset(int record) {
+        return (record % recordsPerSegment) * recordSize;
+    }
+
+    private void addToIndex(String vin, long time, int record) {
+        index.computeIfAbsent(vin, ignored -> new VinIndex()).add(time, record);
+    }
+
+    /**
+     * Returns the segments mapping the first {@code records} records. Complete segments are kept; only the last
+     * mapped segment, which may have grown, and the new segments are mapped again.
+     */
+    private List<MappedByteBuffer> map(int records) throws IOException {
+        int segmentCount = (int) ((records + (long) recordsPerSegment - 1) / recordsPerSegment);
+        List<MappedByteBuffer> mapped = new ArrayList<>(segments.subList(0, Math.max(0, segments.size() - 1)));
+        for (int segment = mapped.size(); segment < segmentCount; segment++) {
+            long firstRecord = (long) segment * recordsPerSegment;
+            long segmentRecords = Math.min(recordsPerSegment, records - firstRecord);
+            mapped.add(channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + firstRecord * recordSize,
+                    segmentRecords * recordSize));
+        }
+        return mapped;
+    }
+
+    private void validateHeader(Path path, short recordType) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        channel.read(header, 0);
+        header.flip();
+        if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+            throw new IOException(path + " is not a vehicle time series file");
+        }
+        short version = header.getShort();
+        short type = header.getShort();
+        int size = header.getInt();
+        if (version != VERSION || type != recordType || size != recordSize) {
+            throw new IOException(path + " has version " + version + ", record type " + type + " and record size " + size
+                    + ", expected " + VERSION + ", " + recordType + " and " + recordSize);
+        }
+    }
+
+    /**
+     * The records of one VIN as parallel arrays sorted by time.
+     */
+    private static class VinIndex {
+
+        private long[] times = new long[8];
+        private int[] records = new int[8];
+        private int size;
+
+        private void add(long time, int record) {
+            if (size == times.length) {
+                times = Arrays.copyOf(times, size * 2);
+                records = Arrays.copyOf(records, size * 2);
+            }
+            int position = size;
+            if (size > 0 && times[size - 1] > time) {
+                position = lowerBound(time);
+                System.arraycopy(times, position, times, position + 1, size - position);
+                System.arraycopy(records, position, records, position + 1, size - position);
+            }
+            times[position] = time;
+            records[position] = record;
+            size++;
+        }
+
+        private int indexOf(long time) {
+            int position = lowerBound(time);
+            return position < size && times[position] == time ? position : -1;
+        }
+
+        private int[] range(long from, long to) {
+            int start = lowerBound(from);
+            int end = lowerBound(to);
+            return start >= end ? new int[0] : Arrays.copyOfRange(records, start, end);
+        }
+
+        private int lowerBound(long time) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (times[middle] < time) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import okhttp3.Authenticator;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.Route;
+
+/**
+ * Replays a request exactly once with a fresh access token after the API answered {@code 401 Unauthorized}.
+ * <p>
+ * This covers tokens that were revoked or expired earlier than announced. Requests that were already
+ * replayed once are not retried again, so a genuinely unauthorized account fails fast.
+ * </p>
+ */
+class TokenAuthenticator implements Authenticator {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final TokenService tokenService;
+
+    TokenAuthenticator(TokenService tokenService) {
+        this.tokenService = tokenService;
+    }
+
+    @Override
+    public Request authenticate(Route route, Response response) {
+        if (response.priorResponse() != null) {
+            return null;
+        }
+
+        String authorization = response.request().header("Authorization");
+        String rejectedToken = authorization != null && authorization.startsWith(BEARER_PREFIX)
+                ? authorization.substring(BEARER_PREFIX.length())
+                : "";
+
+        return response.request().newBuilder()
+                .header("Authorization", BEARER_PREFIX + tokenService.getTokenAfterRejection(rejectedToken))
+                .build();
+    }
+}
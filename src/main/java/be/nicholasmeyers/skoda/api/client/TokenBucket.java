@@ -0,0 +1,84 @@
+package be.nicholasmeyers.skoda.api.client;
+
+/**
+ * A token bucket that hands out permits by reservation.
+ * <p>
+ * A reservation takes a permit right away and tells the caller how long to wait before using it, so
+ * waiting callers are served in the order they reserved. The bucket can be paused, after which no permit
+ * becomes usable before the pause ends.
+ * </p>
+ */
+class TokenBucket {
+
+    private final double permitsPerNano;
+    private final double capacity;
+    private final boolean unlimited;
+
+    private double permits;
+    private long lastRefill;
+    private long resumeAt;
+
+    TokenBucket(double permitsPerSecond, int burst) {
+        this.unlimited = Double.isInfinite(permitsPerSecond);
+        this.permitsPerNano = permitsPerSecond / 1_000_000_000d;
+        this.capacity = burst;
+        this.permits = burst;
+        this.lastRefill = System.nanoTime();
+        this.resumeAt = lastRefill;
+    }
+
+    /**
+     * Reserves a permit when it becomes usable within {@code maxWaitNanos}.
+     *
+     * @return the nanoseconds to wait before the permit may be used, or {@code -1} when no permit was reserved.
+     */
+    synchronized long reserve(long maxWaitNanos) {
+        long now = System.nanoTime();
+        long pauseWait = Math.max(0, resumeAt - now);
+        if (unlimited) {
+            return pauseWait <= maxWaitNanos ? pauseWait : -1;
+        }
+
+        refill(now);
+        long refillWait = permits >= 1 ? 0 : (long) Math.ceil((1 - permits) / permitsPerNano);
+        long wait = Math.max(0, lastRefill - now) + refillWait;
+        if (wait > maxWaitNanos) {
+            return -1;
+        }
+        permits -= 1;
+        return Math.max(wait, pauseWait);
+    }
+
+    /**
+     * Gives back a permit that was reserved but will not be used.
+     */
+    synchronized void cancel() {
+        if (!unlimited) {
+            permits = Math.min(capacity, permits + 1);
+        }
+    }
+
+    /**
+     * Stops handing out usable permits for the given duration. Permits do not accumulate during the pause,
+     * so the requests held back are not released as one burst when it ends.
+     */
+    synchronized void pause(long pauseNanos) {
+        long now = System.nanoTime();
+        if (now + pauseNanos - resumeAt <= 0) {
+            return;
+        }
+        resumeAt = now + pauseNanos;
+        if (!unlimited) {
+            refill(now);
+            permits = Math.min(permits, 0);
+            lastRefill = resumeAt;
+        }
+    }
+
+    private void refill(long now) {
+        if (now - lastRefill > 0) {
+            permits = Math.min(capacity, permits + (now - lastRefill) * permitsPerNano);
+            lastRefill = now;
+        }
+    }
+}
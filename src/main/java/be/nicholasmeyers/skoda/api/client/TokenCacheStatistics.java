@@ -0,0 +1,58 @@
+package be.nicholasmeyers.skoda.api.client;
+
+/**
+ * A point-in-time view of the access token cache of a {@link VehicleService}.
+ * <p>
+ * Instances of this class are created internally by the {@link VehicleService}
+ * and are not intended to be constructed directly.
+ * </p>
+ */
+public class TokenCacheStatistics {
+
+    private final long hitCount;
+    private final long missCount;
+    private final long refreshCount;
+
+    /**
+     * Constructs a new {@code TokenCacheStatistics} with the given counters.
+     *
+     * @param hitCount     the number of requests served with a cached access token.
+     * @param missCount    the number of requests that found no valid cached access token.
+     * @param refreshCount the number of times new tokens were obtained from the identity provider.
+     */
+    TokenCacheStatistics(long hitCount, long missCount, long refreshCount) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.refreshCount = refreshCount;
+    }
+
+    /**
+     * Returns the number of requests served with a cached access token.
+     *
+     * @return the hit count.
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Returns the number of requests that found no valid cached access token.
+     * <p>
+     * Concurrent misses share a single refresh, so this can be higher than {@link #getRefreshCount()}.
+     * </p>
+     *
+     * @return the miss count.
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Returns the number of times new tokens were obtained from the identity provider.
+     *
+     * @return the refresh count.
+     */
+    public long getRefreshCount() {
+        return refreshCount;
+    }
+}
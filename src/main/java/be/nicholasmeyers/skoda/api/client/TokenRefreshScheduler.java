@@ -0,0 +1,64 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renews access tokens in the background shortly before they expire.
+ * <p>
+ * A single daemon thread is shared by all {@link TokenService} instances. Scheduled renewals only hold a
+ * weak reference to their token service, so a discarded {@link VehicleService} stops being refreshed
+ * once it has been garbage collected.
+ * </p>
+ */
+class TokenRefreshScheduler {
+
+    static final Duration REFRESH_LEAD = Duration.ofMinutes(2);
+    private static final Duration MINIMUM_DELAY = Duration.ofSeconds(10);
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(30);
+
+    private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "skoda-token-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private TokenRefreshScheduler() {
+    }
+
+    /**
+     * Schedules a background renewal for the given token service ahead of the given expiry.
+     *
+     * @param tokenService the token service to renew.
+     * @param expiresAt    the moment the current access token expires.
+     * @return the scheduled renewal, to be cancelled when it is replaced.
+     */
+    static ScheduledFuture<?> scheduleRenewal(TokenService tokenService, Instant expiresAt) {
+        long delay = Math.max(MINIMUM_DELAY.toMillis(), Duration.between(Instant.now(), expiresAt.minus(REFRESH_LEAD)).toMillis());
+        return schedule(new WeakReference<>(tokenService), delay);
+    }
+
+    /**
+     * Schedules another attempt after a background renewal failed.
+     *
+     * @param tokenService the token service to renew.
+     * @return the scheduled renewal, to be cancelled when it is replaced.
+     */
+    static ScheduledFuture<?> scheduleRetry(TokenService tokenService) {
+        return schedule(new WeakReference<>(tokenService), RETRY_DELAY.toMillis());
+    }
+
+    private static ScheduledFuture<?> schedule(WeakReference<TokenService> reference, long delayInMillis) {
+        return EXECUTOR.schedule(() -> {
+            TokenService tokenService = reference.get();
+            if (tokenService != null) {
+                tokenService.renewInBackground();
+            }
+        }, delayInMillis, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,82 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import java.io.IOException;
+
+/**
+ * Exchanges a refresh token for a new set of tokens at the Škoda identity endpoint.
+ * <p>
+ * This is much cheaper than the full login performed by the connector, which has to walk
+ * through the complete authorization flow with the account credentials.
+ * </p>
+ */
+class TokenRefresher {
+
+    static final String DEFAULT_REFRESH_URL =
+            "https://mysmob.api.connect.skoda-auto.cz/api/v1/authentication/refresh-token?tokenType=CONNECT";
+    private static final MediaType JSON = MediaType.get("application/json");
+    private static final OkHttpClient DEFAULT_HTTP_CLIENT = new OkHttpClient();
+
+    private final OkHttpClient httpClient;
+    private final String refreshUrl;
+
+    TokenRefresher() {
+        this(DEFAULT_HTTP_CLIENT);
+    }
+
+    TokenRefresher(OkHttpClient httpClient) {
+        this(httpClient, DEFAULT_REFRESH_URL);
+    }
+
+    TokenRefresher(OkHttpClient httpClient, String refreshUrl) {
+        this.httpClient = httpClient;
+        this.refreshUrl = refreshUrl;
+    }
+
+    /**
+     * Requests new tokens using the given refresh token.
+     *
+     * @param refreshToken the refresh token of the current session.
+     * @return the refreshed tokens.
+     * @throws IOException if the request fails or the response does not contain an access token.
+     */
+    CachedTokens refresh(String refreshToken) throws IOException {
+        JsonObject body = new JsonObject();
+        body.addProperty("token", refreshToken);
+
+        Request request = new Request.Builder()
+                .url(refreshUrl)
+                .post(RequestBody.create(body.toString(), JSON))
+                .build();
+
+        try (Response response = httpClient.newCall(request).execute()) {
+            ResponseBody responseBody = response.body();
+            if (!response.isSuccessful()) {
+                throw new IOException("Token refresh failed with status " + response.code());
+            }
+            JsonObject tokens = JsonParser.parseString(responseBody.string()).getAsJsonObject();
+            String accessToken = readString(tokens, "accessToken");
+            if (accessToken == null) {
+                throw new IOException("Token refresh response did not contain an access token");
+            }
+            String newRefreshToken = readString(tokens, "refreshToken");
+            return CachedTokens.of(accessToken, newRefreshToken != null ? newRefreshToken : refreshToken);
+        } catch (RuntimeException e) {
+            throw new IOException("Token refresh response could not be read", e);
+        }
+    }
+
+    private static String readString(JsonObject object, String name) {
+        JsonElement element = object.get(name);
+        return element == null || element.isJsonNull() ? null : element.getAsString();
+    }
+}
@@ -3,20 +3,165 @@ package be.nicholasmeyers.skoda.api.client;
 import be.nicholasmeyers.skodaconnector.resource.Tokens;
 import be.nicholasmeyers.skodaconnector.service.ConnectorService;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
 public class TokenService {
 
+    private static final Duration EXPIRY_MARGIN = Duration.ofSeconds(60);
+
     private final ConnectorService connectorService;
+    private final TokenRefresher tokenRefresher;
+    private final VehicleMetricsRegistry metricsRegistry;
     private final String email;
     private final String password;
 
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+
+    private volatile CachedTokens cachedTokens;
+    private ScheduledFuture<?> scheduledRenewal;
+
     TokenService(String email, String password) {
+        this(email, password, new TokenRefresher());
+    }
+
+    TokenService(String email, String password, TokenRefresher tokenRefresher) {
+        this(email, password, tokenRefresher, VehicleMetricsRegistry.NOOP);
+    }
+
+    TokenService(String email, String password, TokenRefresher tokenRefresher, VehicleMetricsRegistry metricsRegistry) {
         this.connectorService = new ConnectorService();
+        this.tokenRefresher = tokenRefresher;
+        this.metricsRegistry = metricsRegistry;
         this.email = email;
         this.password = password;
     }
 
+    /**
+     * Returns a valid access token, logging in only when the cached token is missing
+     * or about to expire. Concurrent callers that miss the cache wait for a single refresh.
+     */
     String getToken() {
-        Tokens tokens = connectorService.getTokens(email, password);
-        return tokens.getAccessToken();
+        CachedTokens current = cachedTokens;
+        if (current != null && current.isValidAt(Instant.now().plus(EXPIRY_MARGIN))) {
+            hits.increment();
+            return current.getAccessToken();
+        }
+
+        misses.increment();
+        refreshLock.lock();
+        try {
+            current = cachedTokens;
+            if (current != null && current.isValidAt(Instant.now().plus(EXPIRY_MARGIN))) {
+                return current.getAccessToken();
+            }
+            return renew(current).getAccessToken();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Returns a new access token after the upstream rejected {@code rejectedToken}.
+     * When another thread already replaced the rejected token, its replacement is returned without a new refresh.
+     */
+    String getTokenAfterRejection(String rejectedToken) {
+        refreshLock.lock();
+        try {
+            CachedTokens current = cachedTokens;
+            if (current != null && !Objects.equals(current.getAccessToken(), rejectedToken)) {
+                return current.getAccessToken();
+            }
+            return renew(current).getAccessToken();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Replaces the cached tokens with tokens obtained elsewhere, for example a long-lived token of a stand-in server.
+     */
+    void useTokens(CachedTokens tokens) {
+        refreshLock.lock();
+        try {
+            cachedTokens = tokens;
+            scheduleRenewal(TokenRefreshScheduler.scheduleRenewal(this, tokens.getExpiresAt()));
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    TokenCacheStatistics getStatistics() {
+        return new TokenCacheStatistics(hits.sum(), misses.sum(), refreshes.sum());
+    }
+
+    /**
+     * Renews the cached tokens ahead of their expiry, called by the {@link TokenRefreshScheduler}.
+     * Tokens that were already replaced by a caller in the meantime are left alone. A failed renewal is retried later.
+     */
+    void renewInBackground() {
+        refreshLock.lock();
+        try {
+            CachedTokens current = cachedTokens;
+            if (current != null && current.isValidAt(Instant.now().plus(TokenRefreshScheduler.REFRESH_LEAD.multipliedBy(2)))) {
+                return;
+            }
+            renew(current);
+        } catch (RuntimeException e) {
+            scheduleRenewal(TokenRefreshScheduler.scheduleRetry(this));
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private CachedTokens renew(CachedTokens current) {
+        CachedTokens renewed = null;
+        if (current != null && current.hasRefreshToken()) {
+            long start = System.nanoTime();
+            try {
+                renewed = tokenRefresher.refresh(current.getRefreshToken());
+            } catch (IOException e) {
+                renewed = null;
+            }
+            metricsRegistry.recordTokenFetch("refresh", System.nanoTime() - start, renewed != null);
+        }
+        if (renewed == null) {
+            renewed = login();
+        }
+        refreshes.increment();
+        cachedTokens = renewed;
+        scheduleRenewal(TokenRefreshScheduler.scheduleRenewal(this, renewed.getExpiresAt()));
+        return renewed;
+    }
+
+    /**
+     * Replaces the pending background renewal, so only one is scheduled at a time. Called while holding the refresh lock.
+     */
+    private void scheduleRenewal(ScheduledFuture<?> renewal) {
+        if (scheduledRenewal != null) {
+            scheduledRenewal.cancel(false);
+        }
+        scheduledRenewal = renewal;
+    }
+
+    private CachedTokens login() {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            Tokens tokens = connectorService.getTokens(email, password);
+            CachedTokens loggedIn = CachedTokens.of(tokens);
+            success = true;
+            return loggedIn;
+        } finally {
+            metricsRegistry.recordTokenFetch("login", System.nanoTime() - start, success);
+        }
     }
 }
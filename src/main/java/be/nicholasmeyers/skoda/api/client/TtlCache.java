@@ -0,0 +1,151 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * A size-bounded, least-recently-used cache whose entries expire after a fixed time to live.
+ * <p>
+ * Entries that are older than the time to live but still within the stale window are returned
+ * immediately while a single background reload replaces them.
+ * </p>
+ * <p>
+ * Invalidations are tracked per key, so a load is only discarded when its own key was invalidated while it ran.
+ * The most recent invalidations are remembered up to the maximum size; loads older than a forgotten invalidation
+ * are discarded as well.
+ * </p>
+ *
+ * @param <K> the type of the keys.
+ * @param <V> the type of the cached values.
+ */
+class TtlCache<K, V> {
+
+    private final long timeToLiveNanos;
+    private final long staleWindowNanos;
+    private final Executor revalidationExecutor;
+    private final Map<K, Entry<V>> entries;
+    private final Map<K, Long> invalidations;
+    private final AtomicLong generation = new AtomicLong();
+    private long forgottenInvalidation;
+
+    TtlCache(long timeToLiveNanos, long staleWindowNanos, int maximumSize, Executor revalidationExecutor) {
+        this.timeToLiveNanos = timeToLiveNanos;
+        this.staleWindowNanos = staleWindowNanos;
+        this.revalidationExecutor = revalidationExecutor;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > maximumSize;
+            }
+        };
+        this.invalidations = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Long> eldest) {
+                if (size() <= maximumSize) {
+                    return false;
+                }
+                forgottenInvalidation = Math.max(forgottenInvalidation, eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached value for the key, loading it with {@code loader} when it is missing or too old.
+     */
+    V get(K key, Supplier<V> loader) {
+        if (timeToLiveNanos <= 0) {
+            return loader.get();
+        }
+
+        long now = System.nanoTime();
+        Entry<V> entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+
+        if (entry != null) {
+            long age = now - entry.loadedAtNanos;
+            if (age < timeToLiveNanos) {
+                return entry.value;
+            }
+            if (age < timeToLiveNanos + staleWindowNanos) {
+                revalidate(key, entry, loader);
+                return entry.value;
+            }
+        }
+
+        long loadGeneration = generation.get();
+        V value = loader.get();
+        put(key, value, loadGeneration);
+        return value;
+    }
+
+    /**
+     * Removes the entry for the key. Loads of the key that started before the invalidation are not cached.
+     */
+    void invalidate(K key) {
+        synchronized (entries) {
+            long invalidation = generation.incrementAndGet();
+            // re-inserted so the eldest invalidation is always the oldest one
+            invalidations.remove(key);
+            invalidations.put(key, invalidation);
+            entries.remove(key);
+        }
+    }
+
+    void invalidateAll() {
+        synchronized (entries) {
+            forgottenInvalidation = generation.incrementAndGet();
+            invalidations.clear();
+            entries.clear();
+        }
+    }
+
+    private void put(K key, V value, long loadGeneration) {
+        synchronized (entries) {
+            if (loadGeneration >= invalidations.getOrDefault(key, forgottenInvalidation)) {
+                entries.put(key, new Entry<>(value, System.nanoTime()));
+            }
+        }
+    }
+
+    private void revalidate(K key, Entry<V> entry, Supplier<V> loader) {
+        if (!entry.revalidating.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            revalidationExecutor.execute(() -> {
+                try {
+                    V value = loader.get();
+                    synchronized (entries) {
+                        if (entries.get(key) == entry) {
+                            entries.put(key, new Entry<>(value, System.nanoTime()));
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    entry.revalidating.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            entry.revalidating.set(false);
+        }
+    }
+
+    private static class Entry<V> {
+
+        private final V value;
+        private final long loadedAtNanos;
+        private final AtomicBoolean revalidating = new AtomicBoolean();
+
+        private Entry(V value, long loadedAtNanos) {
+            this.value = value;
+            this.loadedAtNanos = loadedAtNanos;
+        }
+    }
+}
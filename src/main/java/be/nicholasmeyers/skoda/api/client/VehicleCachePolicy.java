@@ -0,0 +1,144 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Describes how long each kind of vehicle data may be served from the cache of a {@link CachingVehicleService}.
+ * <p>
+ * Every {@link VehicleDataType} has its own time to live. Setting a time to live of {@link Duration#ZERO}
+ * disables caching for that data type. Entries that are older than their time to live but still within the
+ * stale window are returned immediately while they are reloaded in the background.
+ * </p>
+ * <pre>{@code
+ * VehicleCachePolicy cachePolicy = VehicleCachePolicy.builder()
+ *         .timeToLive(VehicleDataType.LOCATION, Duration.ofSeconds(10))
+ *         .staleWhileRevalidate(Duration.ofSeconds(30))
+ *         .maximumSize(50_000)
+ *         .build();
+ * }</pre>
+ */
+public class VehicleCachePolicy {
+
+    private final Map<VehicleDataType, Duration> timeToLive;
+    private final Duration staleWhileRevalidate;
+    private final int maximumSize;
+
+    private VehicleCachePolicy(Builder builder) {
+        this.timeToLive = new EnumMap<>(builder.timeToLive);
+        this.staleWhileRevalidate = builder.staleWhileRevalidate;
+        this.maximumSize = builder.maximumSize;
+    }
+
+    /**
+     * Returns a new {@link Builder} initialised with the default time to live per data type.
+     *
+     * @return a new policy builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the policy with the default time to live per data type and no stale window.
+     *
+     * @return the default cache policy.
+     */
+    public static VehicleCachePolicy defaults() {
+        return builder().build();
+    }
+
+    /**
+     * Returns how long values of the given data type are served from the cache.
+     *
+     * @param dataType the data type.
+     * @return the time to live of the data type.
+     */
+    public Duration getTimeToLive(VehicleDataType dataType) {
+        return timeToLive.get(dataType);
+    }
+
+    /**
+     * Returns how long an expired value may still be served while it is reloaded in the background.
+     *
+     * @return the stale window.
+     */
+    public Duration getStaleWhileRevalidate() {
+        return staleWhileRevalidate;
+    }
+
+    /**
+     * Returns the maximum number of entries kept per data type.
+     *
+     * @return the maximum cache size per data type.
+     */
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Builder for {@link VehicleCachePolicy}.
+     */
+    public static class Builder {
+
+        private final Map<VehicleDataType, Duration> timeToLive = new EnumMap<>(VehicleDataType.class);
+        private Duration staleWhileRevalidate = Duration.ZERO;
+        private int maximumSize = 10_000;
+
+        private Builder() {
+            timeToLive.put(VehicleDataType.VEHICLES, Duration.ofMinutes(10));
+            timeToLive.put(VehicleDataType.STATUS, Duration.ofSeconds(30));
+            timeToLive.put(VehicleDataType.RANGE, Duration.ofSeconds(60));
+            timeToLive.put(VehicleDataType.LOCATION, Duration.ofSeconds(30));
+            timeToLive.put(VehicleDataType.CHARGING_STATE, Duration.ofSeconds(15));
+            timeToLive.put(VehicleDataType.AIR_CONDITIONING, Duration.ofSeconds(15));
+            timeToLive.put(VehicleDataType.CHARGING_SESSIONS, Duration.ofMinutes(5));
+        }
+
+        /**
+         * Sets how long values of the given data type are served from the cache.
+         *
+         * @param dataType   the data type.
+         * @param timeToLive the time to live, or {@link Duration#ZERO} to disable caching for the data type.
+         * @return this builder.
+         */
+        public Builder timeToLive(VehicleDataType dataType, Duration timeToLive) {
+            this.timeToLive.put(dataType, timeToLive);
+            return this;
+        }
+
+        /**
+         * Sets how long an expired value may still be served while it is reloaded in the background.
+         * Defaults to {@link Duration#ZERO}, which always reloads expired values before returning.
+         *
+         * @param staleWhileRevalidate the stale window.
+         * @return this builder.
+         */
+        public Builder staleWhileRevalidate(Duration staleWhileRevalidate) {
+            this.staleWhileRevalidate = staleWhileRevalidate;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of entries kept per data type. The least recently used entries are
+         * evicted first. Defaults to {@code 10000}.
+         *
+         * @param maximumSize the maximum cache size per data type.
+         * @return this builder.
+         */
+        public Builder maximumSize(int maximumSize) {
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        /**
+         * Builds the cache policy.
+         *
+         * @return a new {@link VehicleCachePolicy}.
+         */
+        public VehicleCachePolicy build() {
+            return new VehicleCachePolicy(this);
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import be.nicholasmeyers.skoda.client.resource.AirConditioningWebResponseResource;
+import be.nicholasmeyers.skoda.client.resource.ChargingStatusWebResponseResource;
+import be.nicholasmeyers.skoda.client.resource.RangeWebResponseResource;
+import be.nicholasmeyers.skoda.client.resource.StatusWebResponseResource;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Polls vehicle data and reports only the values that actually changed.
+ * <p>
+ * The detector remembers the last {@code carCapturedTimestamp} seen per VIN and data type. A response
+ * carrying the same or an older timestamp is discarded before it is mapped, and no listener is notified.
+ * Only newer values are mapped and handed out as {@link VehicleChangeEvent}s, so downstream work scales
+ * with the rate at which vehicles report new data rather than with the poll rate.
+ * </p>
+ * <p>
+ * Polls are reads of the {@link VehicleService}: they share the requests of identical reads in flight and are
+ * handed to its read listeners, such as a {@link FleetStateTable} or {@link CommandTracker}, whether they
+ * changed or not. Responses are only mapped for unchanged values when read listeners are registered.
+ * </p>
+ * <pre>{@code
+ * VehicleChangeDetector changeDetector = new VehicleChangeDetector(vehicleService);
+ * changeDetector.addListener(event -> System.out.println(event.getVin() + " " + event.getDataType()));
+ * changeDetector.poll("YOUR_CARS_VIN");
+ * }</pre>
+ */
+public class VehicleChangeDetector {
+
+    static final VehicleDataType[] TRACKED_DATA_TYPES = {
+            VehicleDataType.STATUS,
+            VehicleDataType.RANGE,
+            VehicleDataType.CHARGING_STATE,
+            VehicleDataType.AIR_CONDITIONING
+    };
+
+    private final VehicleService vehicleService;
+    private final ConcurrentHashMap<String, AtomicReferenceArray<String>> lastSeen = new ConcurrentHashMap<>();
+    private final List<VehicleChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private final LongAdder unchanged = new LongAdder();
+    private final LongAdder changed = new LongAdder();
+
+    /**
+     * Constructs a new {@code VehicleChangeDetector}.
+     *
+     * @param vehicleService the service used to poll the vehicles.
+     */
+    public VehicleChangeDetector(VehicleService vehicleService) {
+        this.vehicleService = vehicleService;
+    }
+
+    /**
+     * Registers a listener that is notified of every detected change.
+     * <p>
+     * A listener that throws does not stop the other listeners, and the change is still returned by the poll;
+     * the exception is passed to the uncaught exception handler of the polling thread.
+     * </p>
+     *
+     * @param listener the listener to add.
+     */
+    public void addListener(VehicleChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a previously registered listener.
+     *
+     * @param listener the listener to remove.
+     */
+    public void removeListener(VehicleChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Polls the status of a vehicle.
+     *
+     * @param vin the Vehicle Identification Number of the vehicle.
+     * @return the change, or an empty optional if the vehicle did not capture a new status.
+     * @throws VehicleServiceException if the API call fails.
+     */
+    public Optional<VehicleChangeEvent<VehicleStatus>> pollStatus(String vin) {
+        return detect(vin, VehicleDataType.STATUS, vehicleService.coalescedStatus(vin),
+                StatusWebResponseResource::getCarCapturedTimestamp, VehicleMapper::toStatus);
+    }
+
+    /**
+     * Polls the range of a vehicle.
+     *
+     * @param vin the Vehicle Identification Number of the vehicle.
+     * @return the change, or an empty optional if the vehicle did not capture a new range.
+     * @throws VehicleServiceException if the API call fails.
+     */
+    public Optional<VehicleChangeEvent<VehicleRange>> pollRange(String vin) {
+        return detect(vin, VehicleDataType.RANGE, vehicleService.coalescedRange(vin),
+                RangeWebResponseResource::getCarCapturedTimestamp, VehicleMapper::toRange);
+    }
+
+    /**
+     * Polls the charging state of a vehicle.
+     *
+     * @param vin the Vehicle Identification Number of the vehicle.
+     * @return the change, or an empty optional if the vehicle did not capture a new charging state.
+     * @throws VehicleServiceException if the API call fails.
+     */
+    public Optional<VehicleChangeEvent<VehicleChargingState>> pollChargingState(String vin) {
+        return detect(vin, VehicleDataType.CHARGING_STATE, vehicleService.coalescedChargingStatus(vin),
+                ChargingStatusWebResponseResource::getCarCapturedTimestamp, VehicleMapper::toChargingState);
+    }
+
+    /**
+     * Polls the air conditioning status of a vehicle.
+     *
+     * @param vin the Vehicle Identification Number of the vehicle.
+     * @return the change, or an empty optional if the vehicle did not capture a new air conditioning status.
+     * @throws VehicleServiceException if the API call fails.
+     */
+    public Optional<VehicleChangeEvent<VehicleAirConditioningStatus>> pollAirConditioning(String vin) {
+        return detect(vin, VehicleDataType.AIR_CONDITIONING, vehicleService.coalescedAirConditioning(vin),
+                AirConditioningWebResponseResource::getCarCapturedTimestamp, VehicleMapper::toAirConditioning);
+    }
+
+    /**
+     * Polls a single data type of a vehicle.
+     *
+     * @param vin      the Vehicle Identification Number of the vehicle.
+     * @param dataType the data type to poll; one of {@code STATUS}, {@code RANGE}, {@code CHARGING_STATE} or {@code AIR_CONDITIONING}.
+     * @return the change, or an empty optional if the vehicle did not capture new data.
+     * @throws VehicleServiceException  if the API call fails.
+     * @throws IllegalArgumentException if the data type carries no captured timestamp.
+     */
+    public Optional<? extends VehicleChangeEvent<?>> poll(String vin, VehicleDataType dataType) {
+        return switch (dataType) {
+            case STATUS -> pollStatus(vin);
+            case RANGE -> pollRange(vin);
+            case CHARGING_STATE -> pollChargingState(vin);
+            case AIR_CONDITIONING -> pollAirConditioning(vin);
+            default -> throw new IllegalArgumentException("Changes cannot be detected for " + dataType);
+        };
+    }
+
+    /**
+     * Polls the status, range, charging state and air conditioning of a vehicle.
+     * <p>
+     * A data type that fails does not stop the others: the changes that were found are returned together
+     * with the failures, so no change is lost once its timestamp has been recorded.
+     * </p>
+     *
+     * @param vin the Vehicle Identification Number of the vehicle.
+     * @return the changes that were found and the failure per data type that could not be polled.
+     */
+    public VehicleChanges poll(String vin) {
+        List<VehicleChangeEvent<?>> events = new ArrayList<>(TRACKED_DATA_TYPES.length);
+        Map<VehicleDataType, VehicleServiceException> errors = new EnumMap<>(VehicleDataType.class);
+        for (VehicleDataType dataType : TRACKED_DATA_TYPES) {
+            try {
+                poll(vin, dataType).ifPresent(events::add);
+            } catch (VehicleServiceException e) {
+                errors.put(dataType, e);
+            } catch (RuntimeException e) {
+                errors.put(dataType, new VehicleServiceException(
+                        "Failed to poll vehicle " + dataType.name().toLowerCase().replace('_', ' '), e.getMessage()));
+            }
+        }
+        return new VehicleChanges(vin, events, errors);
+    }
+
+    /**
+     * Forgets the timestamps seen for a vehicle, so that its next poll reports every data type again.
+     *
+     * @param vin the Vehicle Identification Number of the vehicle.
+     */
+    public void reset(String vin) {
+        lastSeen.remove(vin);
+    }
+
+    /**
+     * Returns the number of polls that returned data the vehicle had already reported.
+     *
+     * @return the number of unchanged polls.
+     */
+    public long getUnchangedCount() {
+        return unchanged.sum();
+    }
+
+    /**
+     * Returns the number of polls that found a change.
+     *
+     * @return the number of changes.
+     */
+    public long getChangedCount() {
+        return changed.sum();
+    }
+
+    private <R, T> Optional<VehicleChangeEvent<T>> detect(String vin, VehicleDataType dataType, R resource,
+                                                         Function<R, String> timestamp, Function<R, T> mapper) {
+        AtomicReferenceArray<String> timestamps = lastSeen.computeIfAbsent(vin,
+                key -> new AtomicReferenceArray<>(VehicleDataType.values().length));
+        String current = timestamp.apply(resource);
+        String previous = timestamps.get(dataType.ordinal());
+
+        if (!isNewer(previous, current)) {
+            unchanged.increment();
+            return Optional.empty();
+        }
+        // mapped before the timestamp is recorded, so a value that cannot be mapped is polled again
+        T value = mapper.apply(resource);
+        if (!timestamps.compareAndSet(dataType.ordinal(), previous, current)) {
+            unchanged.increment();
+            return Optional.empty();
+        }
+
+        changed.increment();
+        VehicleChangeEvent<T> event = new VehicleChangeEvent<>(vin, dataType, previous, current, value);
+        VehicleChangeListeners.deliver(listeners, event);
+        return Optional.of(event);
+    }
+
+    /**
+     * Returns whether {@code current} was captured after {@code previous}. Values without a captured
+     * timestamp cannot be compared and are always treated as a change.
+     */
+    static boolean isNewer(String previous, String current) {
+        if (previous == null || current == null) {
+            return true;
+        }
+        if (previous.equals(current)) {
+            return false;
+        }
+        try {
+            return parse(current).isAfter(parse(previous));
+        } catch (DateTimeParseException e) {
+            return true;
+        }
+    }
+
+    private static Instant parse(String timestamp) {
+        return OffsetDateTime.parse(timestamp).toInstant();
+    }
+}
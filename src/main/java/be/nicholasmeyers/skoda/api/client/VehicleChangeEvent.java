@@ -0,0 +1,83 @@
+package be.nicholasmeyers.skoda.api.client;
+
+/**
+ * Signals that vehicle data was captured by the vehicle after the last value that was seen,
+ * or, for the read listeners of a {@link VehicleService}, that vehicle data was read.
+ * <p>
+ * Instances of this class are created internally by the {@link VehicleChangeDetector} and the {@link VehicleService}
+ * and are not intended to be constructed directly.
+ * </p>
+ *
+ * @param <T> the type of the changed value, for example {@link VehicleStatus}.
+ */
+public class VehicleChangeEvent<T> {
+
+    private final String vin;
+    private final VehicleDataType dataType;
+    private final String previousCarCapturedTimestamp;
+    private final String carCapturedTimestamp;
+    private final T value;
+
+    /**
+     * Constructs a new {@code VehicleChangeEvent}.
+     *
+     * @param vin                          the Vehicle Identification Number of the vehicle.
+     * @param dataType                     the kind of data that changed.
+     * @param previousCarCapturedTimestamp the captured timestamp that was seen before, or {@code null} for the first value.
+     * @param carCapturedTimestamp         the captured timestamp of the new value.
+     * @param value                        the new value.
+     */
+    VehicleChangeEvent(String vin, VehicleDataType dataType, String previousCarCapturedTimestamp,
+                       String carCapturedTimestamp, T value) {
+        this.vin = vin;
+        this.dataType = dataType;
+        this.previousCarCapturedTimestamp = previousCarCapturedTimestamp;
+        this.carCapturedTimestamp = carCapturedTimestamp;
+        this.value = value;
+    }
+
+    /**
+     * Returns the Vehicle Identification Number of the vehicle.
+     *
+     * @return the VIN.
+     */
+    public String getVin() {
+        return vin;
+    }
+
+    /**
+     * Returns the kind of data that changed.
+     *
+     * @return the data type.
+     */
+    public VehicleDataType getDataType() {
+        return dataType;
+    }
+
+    /**
+     * Returns the captured timestamp of the value that was seen before this change.
+     *
+     * @return the previous car captured timestamp, or {@code null} if this is the first value seen.
+     */
+    public String getPreviousCarCapturedTimestamp() {
+        return previousCarCapturedTimestamp;
+    }
+
+    /**
+     * Returns the captured timestamp of the new value.
+     *
+     * @return the car captured timestamp.
+     */
+    public String getCarCapturedTimestamp() {
+        return carCapturedTimestamp;
+    }
+
+    /**
+     * Returns the new value.
+     *
+     * @return the changed value.
+     */
+    public T getValue() {
+        return value;
+    }
+}
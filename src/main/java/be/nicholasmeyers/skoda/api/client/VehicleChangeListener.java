@@ -0,0 +1,18 @@
+package be.nicholasmeyers.skoda.api.client;
+
+/**
+ * Receives the changes found by a {@link VehicleChangeDetector}.
+ */
+@FunctionalInterface
+public interface VehicleChangeListener {
+
+    /**
+     * Called for every value that was captured by the vehicle after the last value seen.
+     * <p>
+     * Use {@link VehicleChangeEvent#getDataType()} to determine the type of {@link VehicleChangeEvent#getValue()}.
+     * </p>
+     *
+     * @param event the change.
+     */
+    void onChange(VehicleChangeEvent<?> event);
+}
@@ -0,0 +1,36 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import java.util.List;
+
+/**
+ * Hands {@link VehicleChangeEvent}s to {@link VehicleChangeListener}s, isolating the listeners from each other
+ * and from the code that found the change.
+ */
+final class VehicleChangeListeners {
+
+    private VehicleChangeListeners() {
+    }
+
+    /**
+     * Passes an event to every listener. A listener that throws does not stop the others and does not fail the
+     * caller; its exception is passed to the uncaught exception handler of the current thread.
+     */
+    static void deliver(List<VehicleChangeListener> listeners, VehicleChangeEvent<?> event) {
+        for (VehicleChangeListener listener : listeners) {
+            try {
+                listener.onChange(event);
+            } catch (RuntimeException e) {
+                reportFailure(e);
+            }
+        }
+    }
+
+    /**
+     * Passes the failure of a listener, or of preparing its event, to the uncaught exception handler of the
+     * current thread.
+     */
+    static void reportFailure(RuntimeException failure) {
+        Thread thread = Thread.currentThread();
+        thread.getUncaughtExceptionHandler().uncaughtException(thread, failure);
+    }
+}
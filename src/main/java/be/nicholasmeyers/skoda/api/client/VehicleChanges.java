@@ -0,0 +1,75 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The changes found by polling every tracked data type of a vehicle.
+ * <p>
+ * When one of the data types fails, the changes of the others are still returned and the failure is
+ * reported per {@link VehicleDataType} through {@link #getErrors()}.
+ * </p>
+ * <p>
+ * Instances of this class are created internally by the {@link VehicleChangeDetector}
+ * and are not intended to be constructed directly.
+ * </p>
+ */
+public class VehicleChanges {
+
+    private final String vin;
+    private final List<VehicleChangeEvent<?>> events;
+    private final Map<VehicleDataType, VehicleServiceException> errors;
+
+    /**
+     * Constructs a new {@code VehicleChanges} with the given events and failures.
+     *
+     * @param vin    the Vehicle Identification Number of the vehicle.
+     * @param events the changes that were found.
+     * @param errors the failure per data type that could not be polled.
+     */
+    VehicleChanges(String vin, List<VehicleChangeEvent<?>> events, Map<VehicleDataType, VehicleServiceException> errors) {
+        this.vin = vin;
+        this.events = List.copyOf(events);
+        this.errors = errors.isEmpty()
+                ? Collections.emptyMap()
+                : Collections.unmodifiableMap(new EnumMap<>(errors));
+    }
+
+    /**
+     * Returns the Vehicle Identification Number of the vehicle.
+     *
+     * @return the VIN.
+     */
+    public String getVin() {
+        return vin;
+    }
+
+    /**
+     * Returns the changes that were found.
+     *
+     * @return the changes, empty if nothing changed.
+     */
+    public List<VehicleChangeEvent<?>> getEvents() {
+        return events;
+    }
+
+    /**
+     * Returns the failures of the data types that could not be polled.
+     *
+     * @return the failure per data type, empty if every data type was polled.
+     */
+    public Map<VehicleDataType, VehicleServiceException> getErrors() {
+        return errors;
+    }
+
+    /**
+     * Returns whether one of the data types could not be polled.
+     *
+     * @return {@code true} if at least one data type failed.
+     */
+    public boolean hasErrors() {
+        return !errors.isEmpty();
+    }
+}
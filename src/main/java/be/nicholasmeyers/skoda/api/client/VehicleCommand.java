@@ -0,0 +1,129 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+/**
+ * A command that can be sent to many vehicles at once with {@link FleetExecutor#dispatch(java.util.Collection, VehicleCommand)},
+ * or sent and confirmed with a {@link CommandTracker}.
+ * <p>
+ * Charging commands are confirmed by the state of {@link VehicleChargingState#getState()}: {@code "CHARGING"}
+ * after starting, {@code "READY_FOR_CHARGING"}, {@code "CONNECT_CABLE"} or {@code "CONSERVING"} after stopping.
+ * Air conditioning commands are confirmed by the state of {@link VehicleAirConditioningStatus#getState()}:
+ * {@code "ON"}, {@code "HEATING"}, {@code "HEATING_AUXILIARY"}, {@code "COOLING"} or {@code "VENTILATION"} after
+ * starting, {@code "OFF"} after stopping. Any other state, such as {@code "INVALID"}, confirms nothing.
+ * </p>
+ * <pre>{@code
+ * VehicleCommand precondition = VehicleCommand.startAirConditioning(VehicleHeaterSource.ELECTRIC, 21.0,
+ *         VehicleTemperatureUnit.CELSIUS);
+ * }</pre>
+ */
+public class VehicleCommand {
+
+    private static final Predicate<String> CHARGING = oneOf("CHARGING");
+    private static final Predicate<String> NOT_CHARGING = oneOf("READY_FOR_CHARGING", "CONNECT_CABLE", "CONSERVING");
+    private static final Predicate<String> AIR_CONDITIONING_ACTIVE = oneOf("ON", "HEATING", "HEATING_AUXILIARY",
+            "COOLING", "VENTILATION");
+    private static final Predicate<String> AIR_CONDITIONING_OFF = oneOf("OFF");
+
+    private final String name;
+    private final BiConsumer<VehicleService, String> action;
+    private final VehicleDataType confirmedBy;
+    private final Predicate<String> confirmingState;
+
+    private VehicleCommand(String name, BiConsumer<VehicleService, String> action, VehicleDataType confirmedBy,
+                           Predicate<String> confirmingState) {
+        this.name = name;
+        this.action = action;
+        this.confirmedBy = confirmedBy;
+        this.confirmingState = confirmingState;
+    }
+
+    /**
+     * Returns a command that starts a charging session, see {@link VehicleService#startCharging(String)}.
+     *
+     * @return the command.
+     */
+    public static VehicleCommand startCharging() {
+        return new VehicleCommand("start charging", VehicleService::startCharging, VehicleDataType.CHARGING_STATE,
+                CHARGING);
+    }
+
+    /**
+     * Returns a command that stops the active charging session, see {@link VehicleService#stopCharging(String)}.
+     *
+     * @return the command.
+     */
+    public static VehicleCommand stopCharging() {
+        return new VehicleCommand("stop charging", VehicleService::stopCharging, VehicleDataType.CHARGING_STATE,
+                NOT_CHARGING);
+    }
+
+    /**
+     * Returns a command that starts the air conditioning with the given settings,
+     * see {@link VehicleService#startVehicleAirConditioning(String, VehicleHeaterSource, double, VehicleTemperatureUnit)}.
+     *
+     * @param heaterSource    the heat source to use (e.g., electric).
+     * @param temperature     the desired target temperature.
+     * @param temperatureUnit the unit of the target temperature (e.g., Celsius).
+     * @return the command.
+     */
+    public static VehicleCommand startAirConditioning(VehicleHeaterSource heaterSource, double temperature,
+                                                      VehicleTemperatureUnit temperatureUnit) {
+        return new VehicleCommand("start air conditioning at " + temperature + " " + temperatureUnit,
+                (vehicleService, vin) -> vehicleService.startVehicleAirConditioning(vin, heaterSource, temperature, temperatureUnit),
+                VehicleDataType.AIR_CONDITIONING, AIR_CONDITIONING_ACTIVE);
+    }
+
+    /**
+     * Returns a command that stops the air conditioning, see {@link VehicleService#stopVehicleAirConditioning(String)}.
+     *
+     * @return the command.
+     */
+    public static VehicleCommand stopAirConditioning() {
+        return new VehicleCommand("stop air conditioning", VehicleService::stopVehicleAirConditioning,
+                VehicleDataType.AIR_CONDITIONING, AIR_CONDITIONING_OFF);
+    }
+
+    /**
+     * Returns a description of the command, for example {@code "start charging"}.
+     *
+     * @return the description.
+     */
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    void execute(VehicleService vehicleService, String vin) {
+        action.accept(vehicleService, vin);
+    }
+
+    /**
+     * Returns the kind of data that shows whether the command took effect.
+     */
+    VehicleDataType getConfirmedBy() {
+        return confirmedBy;
+    }
+
+    /**
+     * Returns whether an observed state shows that the command took effect.
+     */
+    boolean isConfirmedBy(String state) {
+        return confirmingState.test(state);
+    }
+
+    /**
+     * Returns a predicate that matches exactly the given states, ignoring case, and never {@code null}.
+     */
+    private static Predicate<String> oneOf(String... states) {
+        Set<String> confirmingStates = Set.of(states);
+        return state -> state != null && confirmingStates.contains(state.toUpperCase(Locale.ROOT));
+    }
+}
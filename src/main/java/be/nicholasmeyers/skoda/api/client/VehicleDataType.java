@@ -0,0 +1,42 @@
+package be.nicholasmeyers.skoda.api.client;
+
+/**
+ * Represents the kinds of vehicle data that can be retrieved through the {@link VehicleService}.
+ */
+public enum VehicleDataType {
+
+    /**
+     * The list of vehicles associated with the account, see {@link Vehicle}.
+     */
+    VEHICLES,
+
+    /**
+     * The status of doors, windows, lights and locks, see {@link VehicleStatus}.
+     */
+    STATUS,
+
+    /**
+     * The range and battery information, see {@link VehicleRange}.
+     */
+    RANGE,
+
+    /**
+     * The geographical location, see {@link VehicleLocation}.
+     */
+    LOCATION,
+
+    /**
+     * The charging state, see {@link VehicleChargingState}.
+     */
+    CHARGING_STATE,
+
+    /**
+     * The air conditioning status, see {@link VehicleAirConditioningStatus}.
+     */
+    AIR_CONDITIONING,
+
+    /**
+     * The charging session history, see {@link VehicleChargingSession}.
+     */
+    CHARGING_SESSIONS
+}
@@ -0,0 +1,532 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A spatial index of the latest location of every vehicle of a fleet, for radius, nearest-neighbour and
+ * bounding-box queries.
+ * <p>
+ * The world is divided into a grid of cells of equal size in degrees, and every cell keeps the coordinates of
+ * its vehicles in primitive arrays. A query only visits the cells that can hold a match: a radius query the cells
+ * around the point, a nearest-neighbour query rings of cells around the point until no closer vehicle can exist.
+ * Moving a vehicle moves it between two cells, so the index can be updated on every location read.
+ * Distances are great-circle distances.
+ * </p>
+ * <p>
+ * The index is fed by registering it as a read listener of a {@link VehicleService}, or by calling
+ * {@link #update(String, double, double)} directly. A location captured before the stored location of a vehicle
+ * is ignored; a location without a readable capture time always replaces it. A location without valid coordinates
+ * removes the vehicle from the index.
+ * </p>
+ * <pre>{@code
+ * VehicleLocationIndex index = new VehicleLocationIndex();
+ * vehicleService.addReadListener(index);
+ * List<NearbyVehicle> nearby = index.findWithinRadius(50.8503, 4.3517, 5);
+ * List<NearbyVehicle> nearest = index.findNearest(50.8503, 4.3517, 10);
+ * }</pre>
+ */
+public class VehicleLocationIndex implements VehicleChangeListener {
+
+    private static final double EARTH_RADIUS_IN_KM = 6371.0088;
+    private static final double DEFAULT_CELL_SIZE_IN_DEGREES = 0.05;
+    private static final Comparator<NearbyVehicle> BY_DISTANCE = Comparator.comparingDouble(NearbyVehicle::getDistanceInKm);
+
+    private final double cellSize;
+    private final int latitudeCells;
+    private final int longitudeCells;
+    private final Map<Long, Cell> cells = new HashMap<>();
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Constructs a new {@code VehicleLocationIndex} with cells of 0.05 degrees, about 5.5 km north to south.
+     */
+    public VehicleLocationIndex() {
+        this(DEFAULT_CELL_SIZE_IN_DEGREES);
+    }
+
+    /**
+     * Constructs a new {@code VehicleLocationIndex} with cells of the given size.
+     * <p>
+     * Cells around the typical query radius give the best results: much smaller cells make queries visit many
+     * cells, much larger cells make them test many vehicles.
+     * </p>
+     *
+     * @param cellSizeInDegrees the size of a cell in degrees of latitude and longitude.
+     */
+    public VehicleLocationIndex(double cellSizeInDegrees) {
+        if (!(cellSizeInDegrees > 0 && cellSizeInDegrees <= 90)) {
+            throw new IllegalArgumentException("cellSizeInDegrees must be greater than 0 and at most 90: " + cellSizeInDegrees);
+        }
+        this.cellSize = cellSizeInDegrees;
+        this.latitudeCells = (int) Math.ceil(180 / cellSizeInDegrees);
+        this.longitudeCells = (int) Math.ceil(360 / cellSizeInDegrees);
+    }
+
+    /**
+     * Stores the location of a location event, unless the index holds a location that was captured later.
+     * Events of other data types are ignored.
+     *
+     * @param event the event to store.
+     */
+    @Override
+    public void onChange(VehicleChangeEvent<?> event) {
+        if (event.getDataType() == VehicleDataType.LOCATION) {
+            update(event.getVin(), (VehicleLocation) event.getValue(), event.getCarCapturedTimestamp());
+        }
+    }
+
+    /**
+     * Stores the location of a vehicle, whose capture time is unknown. A location without valid coordinates
+     * removes the vehicle from the index.
+     *
+     * @param vin      the Vehicle Identification Number of the vehicle.
+     * @param location the location of the vehicle.
+     */
+    public void update(String vin, VehicleLocation location) {
+        update(vin, location, null);
+    }
+
+    /**
+     * Stores the location of a vehicle, unless the index holds a location that was captured later. A location
+     * without valid coordinates removes the vehicle from the index.
+     *
+     * @param vin                  the Vehicle Identification Number of the vehicle.
+     * @param location             the location of the vehicle.
+     * @param carCapturedTimestamp the time the location was captured, or {@code null} if unknown.
+     */
+    public void update(String vin, VehicleLocation location, String carCapturedTimestamp) {
+        long capturedAt = VehicleMapper.toEpochMillis(carCapturedTimestamp);
+        if (location.getLatitude() == null || location.getLongitude() == null) {
+            remove(vin, capturedAt);
+        } else {
+            update(vin, location.getLatitude(), location.getLongitude(), capturedAt);
+        }
+    }
+
+    /**
+     * Stores the location of a vehicle, whose capture time is unknown, replacing its previous location.
+     * Coordinates outside the valid range remove the vehicle from the index.
+     *
+     * @param vin       the Vehicle Identification Number of the vehicle.
+     * @param latitude  the latitude, between {@code -90} and {@code 90}.
+     * @param longitude the longitude, between {@code -180} and {@code 180}.
+     */
+    public void update(String vin, double latitude, double longitude) {
+        update(vin, latitude, longitude, Long.MIN_VALUE);
+    }
+
+    private void update(String vin, double latitude, double longitude, long capturedAt) {
+        if (!isValid(latitude, longitude)) {
+            remove(vin, capturedAt);
+            return;
+        }
+        long key = key(latitudeIndex(latitude), longitudeIndex(longitude));
+        lock.writeLock().lock();
+        try {
+            Entry entry = entries.get(vin);
+            if (entry == null) {
+                entry = new Entry(vin);
+                entries.put(vin, entry);
+            } else if (isOlder(capturedAt, entry.capturedAt)) {
+                return;
+            } else if (entry.cell.key != key) {
+                removeFromCell(entry);
+            } else {
+                entry.cell.latitudes[entry.slot] = latitude;
+                entry.cell.longitudes[entry.slot] = longitude;
+                entry.capturedAt = capturedAt;
+                return;
+            }
+            entry.capturedAt = capturedAt;
+            cells.computeIfAbsent(key, Cell::new).add(entry, latitude, longitude);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a vehicle from the index.
+     *
+     * @param vin the Vehicle Identification Number of the vehicle.
+     * @return {@code true} if the vehicle was in the index.
+     */
+    public boolean remove(String vin) {
+        lock.writeLock().lock();
+        try {
+            Entry entry = entries.remove(vin);
+            if (entry == null) {
+                return false;
+            }
+            removeFromCell(entry);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a vehicle from the index, unless the index holds a location that was captured later.
+     */
+    private void remove(String vin, long capturedAt) {
+        lock.writeLock().lock();
+        try {
+            Entry entry = entries.get(vin);
+            if (entry != null && !isOlder(capturedAt, entry.capturedAt)) {
+                entries.remove(vin);
+                removeFromCell(entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of vehicles in the index.
+     *
+     * @return the number of vehicles.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the vehicles within a distance of a point.
+     *
+     * @param latitude   the latitude of the point.
+     * @param longitude  the longitude of the point.
+     * @param radiusInKm the maximum distance in kilometres, inclusive.
+     * @return the vehicles within the radius, the nearest first.
+     */
+    public List<NearbyVehicle> findWithinRadius(double latitude, double longitude, double radiusInKm) {
+        validate(latitude, longitude);
+        if (!(radiusInKm >= 0)) {
+            throw new IllegalArgumentException("radiusInKm must not be negative: " + radiusInKm);
+        }
+        double angle = Math.min(radiusInKm / EARTH_RADIUS_IN_KM, Math.PI);
+        double latitudeDelta = Math.toDegrees(angle);
+        double longitudeDelta = longitudeDelta(angle, Math.abs(latitude) + latitudeDelta);
+
+        List<NearbyVehicle> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            visit(latitude - latitudeDelta, latitude + latitudeDelta, longitude - longitudeDelta,
+                    longitude + longitudeDelta, cell -> {
+                        for (int slot = 0; slot < cell.size; slot++) {
+                            double distance = distanceInKm(latitude, longitude, cell.latitudes[slot], cell.longitudes[slot]);
+                            if (distance <= radiusInKm) {
+                                matches.add(cell.toNearbyVehicle(slot, distance));
+                            }
+                        }
+                    });
+        } finally {
+            lock.readLock().unlock();
+        }
+        matches.sort(BY_DISTANCE);
+        return matches;
+    }
+
+    /**
+     * Returns the vehicles nearest to a point.
+     *
+     * @param latitude  the latitude of the point.
+     * @param longitude the longitude of the point.
+     * @param count     the maximum number of vehicles to return.
+     * @return up to {@code count} vehicles, the nearest first.
+     */
+    public List<NearbyVehicle> findNearest(double latitude, double longitude, int count) {
+        validate(latitude, longitude);
+        if (count <= 0) {
+            return List.of();
+        }
+        PriorityQueue<NearbyVehicle> nearest = new PriorityQueue<>(count, BY_DISTANCE.reversed());
+        CellVisitor collector = cell -> {
+            for (int slot = 0; slot < cell.size; slot++) {
+                double distance = distanceInKm(latitude, longitude, cell.latitudes[slot], cell.longitudes[slot]);
+                if (nearest.size() < count) {
+                    nearest.add(cell.toNearbyVehicle(slot, distance));
+                } else if (distance < nearest.peek().getDistanceInKm()) {
+                    nearest.poll();
+                    nearest.add(cell.toNearbyVehicle(slot, distance));
+                }
+            }
+        };
+
+        lock.readLock().lock();
+        try {
+            if (count >= entries.size()) {
+                cells.values().forEach(collector::visit);
+            } else {
+                int centerLatitude = latitudeIndex(latitude);
+                int centerLongitude = longitudeIndex(longitude);
+                for (int ring = 0; ; ring++) {
+                    if (8L * ring > cells.size() || 2 * ring + 1 > longitudeCells) {
+                        // visiting further rings costs more than visiting every occupied cell once
+                        nearest.clear();
+                        cells.values().forEach(collector::visit);
+                        break;
+                    }
+                    visitRing(centerLatitude, centerLongitude, ring, collector);
+                    if (nearest.size() == count && nearest.peek().getDistanceInKm() <= minimumDistanceOutside(latitude, ring)) {
+                        break;
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        NearbyVehicle[] sorted = nearest.toArray(new NearbyVehicle[0]);
+        Arrays.sort(sorted, BY_DISTANCE);
+        return List.of(sorted);
+    }
+
+    /**
+     * Returns the vehicles within a bounding box. A box with {@code minLongitude} greater than {@code maxLongitude}
+     * crosses the antimeridian.
+     *
+     * @param minLatitude  the southern edge, inclusive.
+     * @param minLongitude the western edge, inclusive.
+     * @param maxLatitude  the northern edge, inclusive.
+     * @param maxLongitude the eastern edge, inclusive.
+     * @return the VINs of the vehicles in the box, in no particular order.
+     */
+    public List<String> findWithinBox(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude) {
+        validate(minLatitude, minLongitude);
+        validate(maxLatitude, maxLongitude);
+        boolean crossesAntimeridian = minLongitude > maxLongitude;
+        List<String> vins = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            visit(minLatitude, maxLatitude, minLongitude, crossesAntimeridian ? maxLongitude + 360 : maxLongitude, cell -> {
+                for (int slot = 0; slot < cell.size; slot++) {
+                    double latitude = cell.latitudes[slot];
+                    double longitude = cell.longitudes[slot];
+                    boolean inLongitude = crossesAntimeridian
+                            ? longitude >= minLongitude || longitude <= maxLongitude
+                            : longitude >= minLongitude && longitude <= maxLongitude;
+                    if (inLongitude && latitude >= minLatitude && latitude <= maxLatitude) {
+                        vins.add(cell.entries[slot].vin);
+                    }
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        return vins;
+    }
+
+    /**
+     * Returns the great-circle distance between two points with the haversine formula.
+     */
+    static double distanceInKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double sinLatitude = Math.sin(Math.toRadians(latitude2 - latitude1) / 2);
+        double sinLongitude = Math.sin(Math.toRadians(longitude2 - longitude1) / 2);
+        double haversine = sinLatitude * sinLatitude
+                + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2)) * sinLongitude * sinLongitude;
+        return 2 * EARTH_RADIUS_IN_KM * Math.asin(Math.min(1, Math.sqrt(haversine)));
+    }
+
+    /**
+     * Visits the occupied cells that overlap a window. Longitudes outside {@code [-180, 180]} wrap around.
+     * When the window spans more cells than are occupied, every occupied cell is visited instead.
+     */
+    private void visit(double minLatitude, double maxLatitude, double minLongitude, double maxLongitude,
+                       CellVisitor visitor) {
+        int fromLatitude = latitudeIndex(Math.max(minLatitude, -90));
+        int toLatitude = latitudeIndex(Math.min(maxLatitude, 90));
+        long fromLongitude = (long) Math.floor((minLongitude + 180) / cellSize);
+        long toLongitude = (long) Math.floor((maxLongitude + 180) / cellSize);
+        if (toLongitude - fromLongitude + 1 >= longitudeCells) {
+            fromLongitude = 0;
+            toLongitude = longitudeCells - 1;
+        }
+        if ((toLatitude - fromLatitude + 1) * (toLongitude - fromLongitude + 1) > cells.size()) {
+            cells.values().forEach(visitor::visit);
+            return;
+        }
+        for (int latitudeIndex = fromLatitude; latitudeIndex <= toLatitude; latitudeIndex++) {
+            for (long longitudeIndex = fromLongitude; longitudeIndex <= toLongitude; longitudeIndex++) {
+                visitCell(latitudeIndex, Math.floorMod(longitudeIndex, longitudeCells), visitor);
+            }
+        }
+    }
+
+    /**
+     * Visits the occupied cells at a Chebyshev distance of exactly {@code ring} cells from a center cell.
+     */
+    private void visitRing(int centerLatitude, int centerLongitude, int ring, CellVisitor visitor) {
+        if (ring == 0) {
+            visitCell(centerLatitude, centerLongitude, visitor);
+            return;
+        }
+        for (int longitude = centerLongitude - ring; longitude <= centerLongitude + ring; longitude++) {
+            visitCell(centerLatitude - ring, Math.floorMod(longitude, longitudeCells), visitor);
+            visitCell(centerLatitude + ring, Math.floorMod(longitude, longitudeCells), visitor);
+        }
+        for (int latitude = centerLatitude - ring + 1; latitude < centerLatitude + ring; latitude++) {
+            visitCell(latitude, Math.floorMod(centerLongitude - ring, longitudeCells), visitor);
+            visitCell(latitude, Math.floorMod(centerLongitude + ring, longitudeCells), visitor);
+        }
+    }
+
+    private void visitCell(int latitudeIndex, int longitudeIndex, CellVisitor visitor) {
+        if (latitudeIndex < 0 || latitudeIndex >= latitudeCells) {
+            return;
+        }
+        Cell cell = cells.get(key(latitudeIndex, longitudeIndex));
+        if (cell != null) {
+            visitor.visit(cell);
+        }
+    }
+
+    /**
+     * Returns a lower bound of the distance from a point to every vehicle outside the first {@code ring} rings
+     * of cells around it. Such a vehicle is at least {@code ring} cells away in latitude or in longitude.
+     */
+    private double minimumDistanceOutside(double latitude, int ring) {
+        double degrees = ring * cellSize;
+        double latitudeBound = EARTH_RADIUS_IN_KM * Math.toRadians(degrees);
+        double maxLatitude = Math.abs(latitude) + (ring + 1) * cellSize;
+        if (maxLatitude >= 90) {
+            return 0;
+        }
+        double sinHalfAngle = Math.cos(Math.toRadians(maxLatitude)) * Math.sin(Math.toRadians(Math.min(degrees, 180)) / 2);
+        double longitudeBound = 2 * EARTH_RADIUS_IN_KM * Math.asin(sinHalfAngle);
+        return Math.min(latitudeBound, longitudeBound);
+    }
+
+    /**
+     * Returns the longitude difference in degrees beyond which two points with an absolute latitude of at most
+     * {@code maxLatitude} are more than {@code angle} radians apart.
+     */
+    private static double longitudeDelta(double angle, double maxLatitude) {
+        if (maxLatitude >= 90) {
+            return 180;
+        }
+        double sinHalfDelta = Math.sin(angle / 2) / Math.cos(Math.toRadians(maxLatitude));
+        return sinHalfDelta >= 1 ? 180 : Math.toDegrees(2 * Math.asin(sinHalfDelta));
+    }
+
+    private void removeFromCell(Entry entry) {
+        Cell cell = entry.cell;
+        cell.remove(entry.slot);
+        if (cell.size == 0) {
+            cells.remove(cell.key);
+        }
+    }
+
+    private int latitudeIndex(double latitude) {
+        return Math.min((int) Math.floor((latitude + 90) / cellSize), latitudeCells - 1);
+    }
+
+    private int longitudeIndex(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180) / cellSize), longitudeCells);
+    }
+
+    private static long key(int latitudeIndex, int longitudeIndex) {
+        return ((long) latitudeIndex << 32) | longitudeIndex;
+    }
+
+    /**
+     * Returns whether a value was captured before the stored value. Values without a readable capture time
+     * cannot be compared and always replace the stored value.
+     */
+    private static boolean isOlder(long capturedAt, long storedCapturedAt) {
+        return capturedAt != Long.MIN_VALUE && capturedAt < storedCapturedAt;
+    }
+
+    private static boolean isValid(double latitude, double longitude) {
+        return latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180;
+    }
+
+    private static void validate(double latitude, double longitude) {
+        if (!(latitude >= -90 && latitude <= 90)) {
+            throw new IllegalArgumentException("latitude must be between -90 and 90: " + latitude);
+        }
+        if (!(longitude >= -180 && longitude <= 180)) {
+            throw new IllegalArgumentException("longitude must be between -180 and 180: " + longitude);
+        }
+    }
+
+    @FunctionalInterface
+    private interface CellVisitor {
+
+        void visit(Cell cell);
+    }
+
+    /**
+     * The position of a vehicle in the index: its cell and its slot in the arrays of the cell, and the capture time
+     * of its location.
+     */
+    private static class Entry {
+
+        private final String vin;
+        private Cell cell;
+        private int slot;
+        private long capturedAt;
+
+        private Entry(String vin) {
+            this.vin = vin;
+        }
+    }
+
+    /**
+     * The vehicles in one grid cell, with their coordinates in parallel arrays.
+     */
+    private static class Cell {
+
+        private static final int INITIAL_CAPACITY = 4;
+
+        private final long key;
+        private Entry[] entries = new Entry[INITIAL_CAPACITY];
+        private double[] latitudes = new double[INITIAL_CAPACITY];
+        private double[] longitudes = new double[INITIAL_CAPACITY];
+        private int size;
+
+        private Cell(long key) {
+            this.key = key;
+        }
+
+        private void add(Entry entry, double latitude, double longitude) {
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, size * 2);
+                latitudes = Arrays.copyOf(latitudes, size * 2);
+                longitudes = Arrays.copyOf(longitudes, size * 2);
+            }
+            entries[size] = entry;
+            latitudes[size] = latitude;
+            longitudes[size] = longitude;
+            entry.cell = this;
+            entry.slot = size++;
+        }
+
+        private void remove(int slot) {
+            int last = --size;
+            if (slot != last) {
+                entries[slot] = entries[last];
+                latitudes[slot] = latitudes[last];
+                longitudes[slot] = longitudes[last];
+                entries[slot].slot = slot;
+            }
+            entries[last] = null;
+        }
+
+        private NearbyVehicle toNearbyVehicle(int slot, double distance) {
+            return new NearbyVehicle(entries[slot].vin, latitudes[slot], longitudes[slot], distance);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import be.nicholasmeyers.skoda.client.resource.AirConditioningWebRequestResource;
+import be.nicholasmeyers.skoda.client.resource.AirConditioningWebResponseResource;
+import be.nicholasmeyers.skoda.client.resource.ChargingSessionWebResponseResource;
+import be.nicholasmeyers.skoda.client.resource.ChargingStatusWebResponseResource;
+import be.nicholasmeyers.skoda.client.resource.LocationWebResponseResource;
+import be.nicholasmeyers.skoda.client.resource.RangeWebResponseResource;
+import be.nicholasmeyers.skoda.client.resource.StatusWebResponseResource;
+import be.nicholasmeyers.skoda.client.resource.VehicleWebResponseResource;
+
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps the generated API resources to the domain objects returned by {@link VehicleService}
+ * and {@link AsyncVehicleService}.
+ */
+final class VehicleMapper {
+
+    private static final int MAX_CANONICAL_STRINGS = 256;
+    private static final Map<String, String> CANONICAL_STRINGS = new ConcurrentHashMap<>();
+
+    private VehicleMapper() {
+    }
+
+    /**
+     * Maps a {@link VehicleWebResponseResource} to a {@link Vehicle} domain object.
+     *
+     * @param vehicleWebResponseResource the API response resource to map.
+     * @return a {@link Vehicle} containing the VIN, name, title, and license plate.
+     */
+    static Vehicle toVehicle(VehicleWebResponseResource vehicleWebResponseResource) {
+        return new Vehicle(vehicleWebResponseResource.getVin(),
+                vehicleWebResponseResource.getName(),
+                vehicleWebResponseResource.getTitle(),
+                vehicleWebResponseResource.getLicensePlate());
+    }
+
+    static List<Vehicle> toVehicles(List<VehicleWebResponseResource> vehicleWebResponseResources) {
+        return vehicleWebResponseResources.stream()
+                .map(VehicleMapper::toVehicle)
+                .toList();
+    }
+
+    static VehicleLocation toLocation(LocationWebResponseResource location) {
+        return new VehicleLocation(location.getLatitude(), location.getLongitude(), location.getAddress());
+    }
+
+    static VehicleStatus toStatus(StatusWebResponseResource status) {
+        return new VehicleStatus(status.getDoorsLocked(), status.getLocked(), status.getDoors(), status.getWindows(),
+                status.getLights(), status.getReliableLockStatus(), status.getSunroof(), status.getTrunk(),
+                status.getBonnet(), status.getCarCapturedTimestamp());
+    }
+
+    static VehicleRange toRange(RangeWebResponseResource range) {
+        return new VehicleRange(range.getCarType(), range.getTotalRangeInKm(), range.getEngineType(),
+                range.getCurrentSoCInPercent(), range.getRemainingRangeInKm(), range.getCarCapturedTimestamp());
+    }
+
+    static CompactVehicleStatus toCompactStatus(StatusWebResponseResource status) {
+        return toCompactStatus(status.getDoorsLocked(), status.getLocked(), status.getDoors(), status.getWindows(),
+                status.getLights(), status.getReliableLockStatus(), status.getSunroof(), status.getTrunk(),
+                status.getBonnet(), status.getCarCapturedTimestamp());
+    }
+
+    static CompactVehicleStatus toCompactStatus(VehicleStatus status) {
+        return toCompactStatus(status.getDoorsLocked(), status.getLocked(), status.getDoors(), status.getWindows(),
+                status.getLights(), status.getReliableLockStatus(), status.getSunroof(), status.getTrunk(),
+                status.getBonnet(), status.getCarCapturedTimestamp());
+    }
+
+    static CompactVehicleRange toCompactRange(RangeWebResponseResource range) {
+        return new CompactVehicleRange(canonical(range.getCarType()), canonical(range.getEngineType()),
+                toInt(range.getTotalRangeInKm()), toInt(range.getCurrentSoCInPercent()),
+                toInt(range.getRemainingRangeInKm()), toEpochMillis(range.getCarCapturedTimestamp()));
+    }
+
+    static CompactVehicleLocation toCompactLocation(LocationWebResponseResource location) {
+        return new CompactVehicleLocation(toDouble(location.getLatitude()), toDouble(location.getLongitude()),
+                location.getAddress());
+    }
+
+    static VehicleAirConditioningStatus toAirConditioning(AirConditioningWebResponseResource airConditioning) {
+        return new VehicleAirConditioningStatus(airConditioning.getState(), airConditioning.getTemperature(),
+                airConditioning.getTemperatureUnit(), airConditioning.getCarCapturedTimestamp());
+    }
+
+    static VehicleChargingState toChargingState(ChargingStatusWebResponseResource chargingStatus) {
+        return new VehicleChargingState(chargingStatus.getChargingRateInKilometersPerHour(),
+                chargingStatus.getChargePowerInKw(),
+                chargingStatus.getRemainingTimeToFullyChargedInMinutes(),
+                chargingStatus.getState(),
+                chargingStatus.getChargeType(),
+                chargingStatus.getRemainingCruisingRangeInMeters(),
+                chargingStatus.getStateOfChargeInPercent(),
+                chargingStatus.getCarCapturedTimestamp());
+    }
+
+    static VehicleChargingSession toChargingSession(ChargingSessionWebResponseResource session) {
+        return new VehicleChargingSession(
+                session.getStartAt(), session.getChargedInKWh(), session.getDurationInMinutes(), session.getCurrentType());
+    }
+
+    static List<VehicleChargingSession> toChargingSessions(List<ChargingSessionWebResponseResource> sessions) {
+        return sessions.stream()
+                .map(VehicleMapper::toChargingSession)
+                .toList();
+    }
+
+    /**
+     * Builds a compact status from the status values, which are passed in the order of the {@link VehicleStatusFlag} constants.
+     */
+    private static CompactVehicleStatus toCompactStatus(String doorsLocked, String locked, String doors, String windows,
+                                                        String lights, String reliableLockStatus, String sunroof,
+                                                        String trunk, String bonnet, String carCapturedTimestamp) {
+        String[] values = {doorsLocked, locked, doors, windows, lights, reliableLockStatus, sunroof, trunk, bonnet};
+        int flags = 0;
+        int knownFlags = 0;
+        for (VehicleStatusFlag flag : VehicleStatusFlag.values()) {
+            String value = values[flag.ordinal()];
+            if (flag.isPositive(value)) {
+                flags |= flag.mask();
+                knownFlags |= flag.mask();
+            } else if (flag.isNegative(value)) {
+                knownFlags |= flag.mask();
+            }
+        }
+        return new CompactVehicleStatus(flags, knownFlags, toEpochMillis(carCapturedTimestamp));
+    }
+
+    /**
+     * Parses an ISO-8601 timestamp with offset to epoch milliseconds.
+     *
+     * @return the epoch milliseconds, or {@link Long#MIN_VALUE} if the timestamp is missing or unreadable.
+     */
+    static long toEpochMillis(String timestamp) {
+        if (timestamp == null) {
+            return Long.MIN_VALUE;
+        }
+        try {
+            return OffsetDateTime.parse(timestamp).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return Long.MIN_VALUE;
+        }
+    }
+
+    static AirConditioningWebRequestResource toAirConditioningRequest(VehicleHeaterSource heaterSource, double temperature,
+                                                                      VehicleTemperatureUnit temperatureUnit) {
+        AirConditioningWebRequestResource requestResource = new AirConditioningWebRequestResource();
+        requestResource.setHeaterSource(heaterSource.toString());
+        requestResource.setTemperature(temperature);
+        requestResource.setTemperatureUnit(temperatureUnit.toString());
+        return requestResource;
+    }
+
+    /**
+     * Returns a shared instance of a car or engine type, so the compact models of a fleet share their strings.
+     * Only the first {@value #MAX_CANONICAL_STRINGS} distinct values are shared; later ones are returned as received,
+     * so unexpected values from the API cannot grow the map without bound.
+     */
+    private static String canonical(String value) {
+        if (value == null) {
+            return null;
+        }
+        String canonical = CANONICAL_STRINGS.get(value);
+        if (canonical != null) {
+            return canonical;
+        }
+        if (CANONICAL_STRINGS.size() >= MAX_CANONICAL_STRINGS) {
+            return value;
+        }
+        canonical = CANONICAL_STRINGS.putIfAbsent(value, value);
+        return canonical != null ? canonical : value;
+    }
+
+    private static int toInt(Integer value) {
+        return value != null ? value : -1;
+    }
+
+    private static double toDouble(Double value) {
+        return value != null ? value : Double.NaN;
+    }
+}
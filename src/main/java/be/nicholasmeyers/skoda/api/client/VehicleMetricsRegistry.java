@@ -0,0 +1,131 @@
+package be.nicholasmeyers.skoda.api.client;
+
+/**
+ * Receives the measurements of the client, so they can be exported to a metrics system.
+ * <p>
+ * Every method has an empty default implementation, so an implementation only overrides what it needs.
+ * Implementations are called on the request path and must be thread-safe and cheap.
+ * Use {@link MicrometerVehicleMetricsRegistry} to publish the measurements to Micrometer.
+ * </p>
+ * <p>
+ * Endpoints are reported as path templates such as {@code /status/{vin}}, so the VIN never ends up in a metric name or tag.
+ * </p>
+ */
+public interface VehicleMetricsRegistry {
+
+    /**
+     * A registry that discards every measurement.
+     */
+    VehicleMetricsRegistry NOOP = new VehicleMetricsRegistry() {
+    };
+
+    /**
+     * Called when an HTTP response was received from the API.
+     *
+     * @param endpoint      the path template of the endpoint, for example {@code /charging/{vin}}.
+     * @param method        the HTTP method.
+     * @param statusCode    the HTTP status code of the response.
+     * @param durationNanos the time until the response headers were received, in nanoseconds.
+     */
+    default void recordRequest(String endpoint, String method, int statusCode, long durationNanos) {
+    }
+
+    /**
+     * Called when an HTTP request failed without a response, for example because of a timeout.
+     *
+     * @param endpoint      the path template of the endpoint.
+     * @param method        the HTTP method.
+     * @param exception     the simple class name of the exception that made the request fail.
+     * @param durationNanos the time until the request failed, in nanoseconds.
+     */
+    default void recordRequestFailure(String endpoint, String method, String exception, long durationNanos) {
+    }
+
+    /**
+     * Called with the size of a request body that was sent to the API.
+     *
+     * @param endpoint the path template of the endpoint.
+     * @param bytes    the number of bytes sent.
+     */
+    default void recordRequestBytes(String endpoint, long bytes) {
+    }
+
+    /**
+     * Called with the size of a response body once it has been read.
+     *
+     * @param endpoint the path template of the endpoint.
+     * @param bytes    the number of bytes received.
+     */
+    default void recordResponseBytes(String endpoint, long bytes) {
+    }
+
+    /**
+     * Called when a {@link VehicleService} operation finished, including mapping and error handling.
+     *
+     * @param operation     the API operation, for example {@code getChargingStatus}.
+     * @param durationNanos the duration of the operation, in nanoseconds.
+     * @param success       whether the operation succeeded.
+     */
+    default void recordOperation(String operation, long durationNanos, boolean success) {
+    }
+
+    /**
+     * Called when new access tokens were obtained.
+     *
+     * @param method        how the tokens were obtained, either {@code login} or {@code refresh}.
+     * @param durationNanos the duration of the token fetch, in nanoseconds.
+     * @param success       whether the tokens were obtained.
+     */
+    default void recordTokenFetch(String method, long durationNanos, boolean success) {
+    }
+
+    /**
+     * Called before a failed read is retried.
+     *
+     * @param operation the API operation, for example {@code getStatus}.
+     * @param attempt   the number of the attempt that failed, starting at {@code 1}.
+     */
+    default void recordRetry(String operation, int attempt) {
+    }
+
+    /**
+     * Called when the circuit breaker of an endpoint changes state.
+     *
+     * @param endpoint the endpoint protected by the circuit breaker, for example {@code /status}.
+     * @param state    the new state: {@code CLOSED}, {@code OPEN} or {@code HALF_OPEN}.
+     */
+    default void recordCircuitBreakerState(String endpoint, String state) {
+    }
+
+    /**
+     * Called when a call was rejected without being sent.
+     *
+     * @param endpoint the endpoint of the call, for example {@code /status}.
+     * @param reason   why the call was rejected, either {@code circuit_open} or {@code bulkhead_full}.
+     */
+    default void recordRejectedCall(String endpoint, String reason) {
+    }
+
+    /**
+     * Called when a request has to wait for a rate limit permit.
+     *
+     * @param waitNanos the time the request waits before it is sent, in nanoseconds.
+     */
+    default void recordRateLimitWait(long waitNanos) {
+    }
+
+    /**
+     * Called when a request is failed because no rate limit permit became available in time.
+     */
+    default void recordRateLimitRejection() {
+    }
+
+    /**
+     * Called when the API answered with {@code 429 Too Many Requests} and the account was paused.
+     *
+     * @param endpoint   the path template of the endpoint.
+     * @param pauseNanos the pause taken from the {@code Retry-After} header, in nanoseconds.
+     */
+    default void recordThrottled(String endpoint, long pauseNanos) {
+    }
+}
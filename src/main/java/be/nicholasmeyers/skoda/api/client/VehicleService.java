@@ -16,7 +16,22 @@ import be.nicholasmeyers.skoda.client.resource.RangeWebResponseResource;
 import be.nicholasmeyers.skoda.client.resource.StatusWebResponseResource;
 import be.nicholasmeyers.skoda.client.resource.VehicleWebResponseResource;
 
+import okhttp3.Call;
+import okhttp3.Response;
+
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Service for interacting with Škoda vehicles via the unofficial Škoda API.
@@ -29,6 +44,11 @@ import java.util.List;
  * Authentication is handled internally using the provided email and password credentials.
  * All methods throw a {@link VehicleServiceException} if the underlying API call fails.
  * </p>
+ * <p>
+ * Services created by a {@link VehicleServiceFactory} are protected by a {@link ResiliencePolicy}: reads are
+ * retried on transient failures, and every endpoint has its own circuit breaker and bulkhead. Services created
+ * with the constructors send every call once.
+ * </p>
  */
 public class VehicleService {
 
@@ -38,6 +58,12 @@ public class VehicleService {
     private final RangeApi rangeApi;
     private final AirConditioningApi airConditioningApi;
     private final ChargingApi chargingApi;
+    private final TokenService tokenService;
+    private final AsyncVehicleService asyncVehicleService;
+    private final VehicleMetricsRegistry metricsRegistry;
+    private final ResilientExecutor resilientExecutor;
+    private final SingleFlight singleFlight = new SingleFlight();
+    private final List<VehicleChangeListener> readListeners = new CopyOnWriteArrayList<>();
 
     /**
      * Constructs a new {@code VehicleService} using the default server configuration.
@@ -46,13 +72,7 @@ public class VehicleService {
      * @param password the password used for authentication.
      */
     public VehicleService(String email, String password) {
-        ClientConfiguration clientConfiguration = new ClientConfiguration(email, password);
-        this.vehicleApi = new VehicleApi(clientConfiguration.getApiClient());
-        this.locationApi = new LocationApi(clientConfiguration.getApiClient());
-        this.statusApi = new StatusApi(clientConfiguration.getApiClient());
-        this.rangeApi = new RangeApi(clientConfiguration.getApiClient());
-        this.airConditioningApi = new AirConditioningApi(clientConfiguration.getApiClient());
-        this.chargingApi = new ChargingApi(clientConfiguration.getApiClient());
+        this(new ClientConfiguration(email, password));
     }
 
     /**
@@ -67,13 +87,38 @@ public class VehicleService {
      * @param server   the base URL of the API server to use.
      */
     public VehicleService(String email, String password, String server) {
-        ClientConfiguration clientConfiguration = new ClientConfiguration(email, password, server);
+        this(new ClientConfiguration(email, password, server));
+    }
+
+    /**
+     * Constructs a new {@code VehicleService} on top of an existing client configuration.
+     *
+     * @param clientConfiguration the configuration providing the API client and token service.
+     */
+    VehicleService(ClientConfiguration clientConfiguration) {
         this.vehicleApi = new VehicleApi(clientConfiguration.getApiClient());
         this.locationApi = new LocationApi(clientConfiguration.getApiClient());
         this.statusApi = new StatusApi(clientConfiguration.getApiClient());
         this.rangeApi = new RangeApi(clientConfiguration.getApiClient());
         this.airConditioningApi = new AirConditioningApi(clientConfiguration.getApiClient());
         this.chargingApi = new ChargingApi(clientConfiguration.getApiClient());
+        this.tokenService = clientConfiguration.getTokenService();
+        this.metricsRegistry = clientConfiguration.getMetricsRegistry();
+        this.resilientExecutor = clientConfiguration.getResilientExecutor();
+        this.asyncVehicleService = new AsyncVehicleService(clientConfiguration, readListeners);
+    }
+
+    /**
+     * Returns the non-blocking view of this service.
+     * <p>
+     * The returned {@link AsyncVehicleService} shares the HTTP client, access tokens, resilience policy and
+     * read listeners of this service.
+     * </p>
+     *
+     * @return the {@link AsyncVehicleService} for the same account.
+     */
+    public AsyncVehicleService async() {
+        return asyncVehicleService;
     }
 
     /**
@@ -83,14 +128,7 @@ public class VehicleService {
      * @throws VehicleServiceException if the API call fails.
      */
     public List<Vehicle> getVehicles() {
-        try {
-            List<VehicleWebResponseResource> vehicleWebResponseResources = vehicleApi.findAllVehicles();
-            return vehicleWebResponseResources.stream()
-                    .map(this::mapToVehicle)
-                    .toList();
-        } catch (ApiException e) {
-            throw new VehicleServiceException("Failed to retrieve vehicles", e.getMessage());
-        }
+        return singleFlight.execute(VehicleDataType.VEHICLES, "", () -> VehicleMapper.toVehicles(fetchVehicles()));
     }
 
     /**
@@ -101,12 +139,18 @@ public class VehicleService {
      * @throws VehicleServiceException if the API call fails.
      */
     public VehicleLocation getVehicleLocation(String vin) {
-        try {
-            LocationWebResponseResource location = locationApi.getLocation(vin);
-            return new VehicleLocation(location.getLatitude(), location.getLongitude(), location.getAddress());
-        } catch (ApiException e) {
-            throw new VehicleServiceException("Failed to get vehicle location", e.getMessage());
-        }
+        return VehicleMapper.toLocation(coalescedLocation(vin));
+    }
+
+    /**
+     * Retrieves the current location of a vehicle in a compact form, for keeping the location of many vehicles in memory.
+     *
+     * @param vin the Vehicle Identification Number of the vehicle.
+     * @return a {@link CompactVehicleLocation} with the coordinates as primitives.
+     * @throws VehicleServiceException if the API call fails.
+     */
+    public CompactVehicleLocation getCompactVehicleLocation(String vin) {
+        return VehicleMapper.toCompactLocation(coalescedLocation(vin));
     }
 
     /**
@@ -117,14 +161,18 @@ public class VehicleService {
      * @throws VehicleServiceException if the API call fails.
      */
     public VehicleStatus getVehicleStatus(String vin) {
-        try {
-            StatusWebResponseResource status = statusApi.getStatus(vin);
-            return new VehicleStatus(status.getDoorsLocked(), status.getLocked(), status.getDoors(), status.getWindows(),
-                    status.getLights(), status.getReliableLockStatus(), status.getSunroof(), status.getTrunk(),
-                    status.getBonnet(), status.getCarCapturedTimestamp());
-        } catch (ApiException e) {
-            throw new VehicleServiceException("Failed to get vehicle status", e.getMessage());
-        }
+        return VehicleMapper.toStatus(coalescedStatus(vin));
+    }
+
+    /**
+     * Retrieves the current status of a vehicle in a compact form, for keeping the status of many vehicles in memory.
+     *
+     * @param vin the Vehicle Identification Number of the vehicle.
+     * @return a {@link CompactVehicleStatus} with the states as bit flags and the capture time as epoch milliseconds.
+     * @throws VehicleServiceException if the API call fails.
+     */
+    public CompactVehicleStatus getCompactVehicleStatus(String vin) {
+        return VehicleMapper.toCompactStatus(coalescedStatus(vin));
     }
 
     /**
@@ -136,13 +184,19 @@ public class VehicleService {
      * @throws VehicleServiceException if the API call fails.
      */
     public VehicleRange getVehicleRange(String vin) {
-        try {
-            RangeWebResponseResource range = rangeApi.getRange(vin);
-            return new VehicleRange(range.getCarType(), range.getTotalRangeInKm(), range.getEngineType(),
-                    range.getCurrentSoCInPercent(), range.getRemainingRangeInKm(), range.getCarCapturedTimestamp());
-        } catch (ApiException e) {
-            throw new VehicleServiceException("Failed to get vehicle range", e.getMessage());
-        }
+        return VehicleMapper.toRange(coalescedRange(vin));
+    }
+
+    /**
+     * Retrieves the current range and battery information of a vehicle in a compact form, for keeping the range
+     * of many vehicles in memory.
+     *
+     * @param vin the Vehicle Identification Number of the vehicle.
+     * @return a {@link CompactVehicleRange} with the numbers as primitives and the capture time as epoch milliseconds.
+     * @throws VehicleServiceException if the API call fails.
+     */
+    public CompactVehicleRange getCompactVehicleRange(String vin) {
+        return VehicleMapper.toCompactRange(coalescedRange(vin));
     }
 
     /**
@@ -154,13 +208,7 @@ public class VehicleService {
      * @throws VehicleServiceException if the API call fails.
      */
     public VehicleAirConditioningStatus getVehicleAirConditioning(String vin) {
-        try {
-            AirConditioningWebResponseResource airConditioning = airConditioningApi.getAirConditioning(vin);
-            return new VehicleAirConditioningStatus(airConditioning.getState(), airConditioning.getTemperature(),
-                    airConditioning.getTemperatureUnit(), airConditioning.getCarCapturedTimestamp());
-        } catch (ApiException e) {
-            throw new VehicleServiceException("Failed to get vehicle air conditioning", e.getMessage());
-        }
+        return VehicleMapper.toAirConditioning(coalescedAirConditioning(vin));
     }
 
     /**
@@ -173,16 +221,13 @@ public class VehicleService {
      * @throws VehicleServiceException if the API call fails.
      */
     public void startVehicleAirConditioning(String vin, VehicleHeaterSource heaterSource, double temperature, VehicleTemperatureUnit temperatureUnit) {
-        AirConditioningWebRequestResource requestResource = new AirConditioningWebRequestResource();
-        requestResource.setHeaterSource(heaterSource.toString());
-        requestResource.setTemperature(temperature);
-        requestResource.setTemperatureUnit(temperatureUnit.toString());
+        AirConditioningWebRequestResource requestResource =
+                VehicleMapper.toAirConditioningRequest(heaterSource, temperature, temperatureUnit);
 
-        try {
+        call(ApiOperation.START_AIR_CONDITIONING, "Failed to start vehicle air conditioning", () -> {
             airConditioningApi.startAirConditioning(vin, requestResource);
-        } catch (ApiException e) {
-            throw new VehicleServiceException("Failed to start vehicle air conditioning", e.getMessage());
-        }
+            return null;
+        });
     }
 
     /**
@@ -192,11 +237,10 @@ public class VehicleService {
      * @throws VehicleServiceException if the API call fails.
      */
     public void stopVehicleAirConditioning(String vin) {
-        try {
+        call(ApiOperation.STOP_AIR_CONDITIONING, "Failed to stop vehicle air conditioning", () -> {
             airConditioningApi.stopAirConditioning(vin);
-        } catch (ApiException e) {
-            throw new VehicleServiceException("Failed to stop vehicle air conditioning", e.getMessage());
-        }
+            return null;
+        });
     }
 
     /**
@@ -209,19 +253,7 @@ public class VehicleService {
      * @throws VehicleServiceException if the API call fails.
      */
     public VehicleChargingState getVehicleChargingState(String vin) {
-        try {
-            ChargingStatusWebResponseResource chargingStatus = chargingApi.getChargingStatus(vin);
-            return new VehicleChargingState(chargingStatus.getChargingRateInKilometersPerHour(),
-                    chargingStatus.getChargePowerInKw(),
-                    chargingStatus.getRemainingTimeToFullyChargedInMinutes(),
-                    chargingStatus.getState(),
-                    chargingStatus.getChargeType(),
-                    chargingStatus.getRemainingCruisingRangeInMeters(),
-                    chargingStatus.getStateOfChargeInPercent(),
-                    chargingStatus.getCarCapturedTimestamp());
-        } catch (ApiException e) {
-            throw new VehicleServiceException("Failed to get vehicle charging state", e.getMessage());
-        }
+        return VehicleMapper.toChargingState(coalescedChargingStatus(vin));
     }
 
     /**
@@ -233,16 +265,68 @@ public class VehicleService {
      * @throws VehicleServiceException if the API call fails.
      */
     public List<VehicleChargingSession> getVehicleChargingSessions(String vin) {
-        try {
-            List<ChargingSessionWebResponseResource> sessions = chargingApi.getChargingSession(vin);
-            return sessions.stream()
-                    .map(session -> new VehicleChargingSession(
-                            session.getStartAt(), session.getChargedInKWh(), session.getDurationInMinutes(), session.getCurrentType())).toList();
-        } catch (ApiException e) {
-            throw new VehicleServiceException("Failed to get vehicle charging sessions", e.getMessage());
+        return singleFlight.execute(VehicleDataType.CHARGING_SESSIONS, vin, () -> VehicleMapper.toChargingSessions(fetchChargingSessions(vin)));
+    }
+
+    /**
+     * Passes every vehicle of the authenticated account to {@code action} while the response is being read.
+     * <p>
+     * Unlike {@link #getVehicles()}, the vehicle list is never held in memory as a whole, which keeps
+     * allocation flat for accounts with large fleets.
+     * </p>
+     *
+     * @param action the action receiving each {@link Vehicle}.
+     * @throws VehicleServiceException if the API call fails or the response cannot be read.
+     */
+    public void forEachVehicle(Consumer<Vehicle> action) {
+        try (JsonArrayReader<Vehicle> reader = openVehicles()) {
+            reader.forEachRemaining(action);
         }
     }
 
+    /**
+     * Returns a lazy stream of the vehicles of the authenticated account, read from the response as it arrives.
+     * <p>
+     * The stream holds the HTTP response open until it is closed, so use it in a try-with-resources statement.
+     * </p>
+     *
+     * @return a {@link Stream} of {@link Vehicle} objects that must be closed after use.
+     * @throws VehicleServiceException if the API call fails; reading errors are thrown by the stream operations.
+     */
+    public Stream<Vehicle> streamVehicles() {
+        return stream(openVehicles());
+    }
+
+    /**
+     * Passes every charging session of a vehicle to {@code action} while the response is being read.
+     * <p>
+     * Unlike {@link #getVehicleChargingSessions(String)}, the charging history is never held in memory as a whole.
+     * </p>
+     *
+     * @param vin    the Vehicle Identification Number of the vehicle.
+     * @param action the action receiving each {@link VehicleChargingSession}.
+     * @throws VehicleServiceException if the API call fails or the response cannot be read.
+     */
+    public void forEachChargingSession(String vin, Consumer<VehicleChargingSession> action) {
+        try (JsonArrayReader<VehicleChargingSession> reader = openChargingSessions(vin)) {
+            reader.forEachRemaining(action);
+        }
+    }
+
+    /**
+     * Returns a lazy stream of the charging sessions of a vehicle, read from the response as it arrives.
+     * <p>
+     * The stream holds the HTTP response open until it is closed, so use it in a try-with-resources statement.
+     * </p>
+     *
+     * @param vin the Vehicle Identification Number of the vehicle.
+     * @return a {@link Stream} of {@link VehicleChargingSession} objects that must be closed after use.
+     * @throws VehicleServiceException if the API call fails; reading errors are thrown by the stream operations.
+     */
+    public Stream<VehicleChargingSession> streamChargingSessions(String vin) {
+        return stream(openChargingSessions(vin));
+    }
+
     /**
      * Starts a charging session for a vehicle.
      *
@@ -250,11 +334,10 @@ public class VehicleService {
      * @throws VehicleServiceException if the API call fails.
      */
     public void startCharging(String vin) {
-        try {
+        call(ApiOperation.START_CHARGING, "Failed to start charging", () -> {
             chargingApi.startCharging(vin);
-        } catch (ApiException e) {
-            throw new VehicleServiceException("Failed to start charging", e.getMessage());
-        }
+            return null;
+        });
     }
 
     /**
@@ -264,23 +347,287 @@ public class VehicleService {
      * @throws VehicleServiceException if the API call fails.
      */
     public void stopCharging(String vin) {
-        try {
+        call(ApiOperation.STOP_CHARGING, "Failed to stop charging", () -> {
             chargingApi.stopCharging(vin);
-        } catch (ApiException e) {
-            throw new VehicleServiceException("Failed to stop charging", e.getMessage());
+            return null;
+        });
+    }
+
+    /**
+     * Retrieves the status, range, location, charging state and air conditioning of a vehicle in a single call.
+     * <p>
+     * The five underlying reads run in parallel on virtual threads, so the call takes as long as the slowest
+     * of them instead of their sum. Each of them is retried, coalesced and handed to the read listeners like
+     * the individual reads. Parts that fail do not fail the snapshot; they are reported through
+     * {@link VehicleSnapshot#getErrors()}.
+     * </p>
+     *
+     * @param vin the Vehicle Identification Number of the vehicle.
+     * @return a {@link VehicleSnapshot} combining the available vehicle data.
+     */
+    public VehicleSnapshot getVehicleSnapshot(String vin) {
+        Map<VehicleDataType, VehicleServiceException> errors = new ConcurrentHashMap<>();
+        Future<VehicleStatus> status;
+        Future<VehicleRange> range;
+        Future<VehicleLocation> location;
+        Future<VehicleChargingState> chargingState;
+        Future<VehicleAirConditioningStatus> airConditioning;
+        // closing the executor waits for every part
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            status = executor.submit(() -> snapshotPart(VehicleDataType.STATUS, errors, () -> getVehicleStatus(vin)));
+            range = executor.submit(() -> snapshotPart(VehicleDataType.RANGE, errors, () -> getVehicleRange(vin)));
+            location = executor.submit(() -> snapshotPart(VehicleDataType.LOCATION, errors, () -> getVehicleLocation(vin)));
+            chargingState = executor.submit(() ->
+                    snapshotPart(VehicleDataType.CHARGING_STATE, errors, () -> getVehicleChargingState(vin)));
+            airConditioning = executor.submit(() ->
+                    snapshotPart(VehicleDataType.AIR_CONDITIONING, errors, () -> getVehicleAirConditioning(vin)));
         }
+        return new VehicleSnapshot(vin, status.resultNow(), range.resultNow(), location.resultNow(),
+                chargingState.resultNow(), airConditioning.resultNow(), errors);
+    }
+
+    /**
+     * Returns how many read calls were served by joining an identical call that was already in flight.
+     * <p>
+     * Concurrent reads of the same data for the same VIN share a single upstream request and its result.
+     * </p>
+     *
+     * @return the number of coalesced calls since this service was created.
+     */
+    public long getCoalescedCallCount() {
+        return singleFlight.getCoalescedCount();
+    }
+
+    /**
+     * Returns the hit, miss and refresh counters of the access token cache used by this service.
+     * <p>
+     * Access tokens are reused across calls until shortly before they expire, so most
+     * calls should be hits and refreshes should stay close to one per token lifetime.
+     * </p>
+     *
+     * @return a {@link TokenCacheStatistics} snapshot of the token cache counters.
+     */
+    public TokenCacheStatistics getTokenCacheStatistics() {
+        return tokenService.getStatistics();
+    }
+
+    /**
+     * Registers a listener that receives every status, range, location, charging state and air conditioning
+     * status read by this service, for example a {@link FleetStateTable}.
+     * <p>
+     * Listeners are called on the reading thread, once per request sent: reads that join an identical
+     * request in flight do not notify again. Reads of the {@link #async()} view notify the same listeners.
+     * Compact reads notify with the regular model. The events carry no previous timestamp, as a read does
+     * not know which value was seen before.
+     * </p>
+     * <p>
+     * A listener that throws does not stop the other listeners and does not fail the read;
+     * the exception is passed to the uncaught exception handler of the reading thread.
+     * </p>
+     *
+     * @param listener the listener to add.
+     */
+    public void addReadListener(VehicleChangeListener listener) {
+        readListeners.add(listener);
     }
 
     /**
-     * Maps a {@link VehicleWebResponseResource} to a {@link Vehicle} domain object.
+     * Removes a previously registered read listener.
      *
-     * @param vehicleWebResponseResource the API response resource to map.
-     * @return a {@link Vehicle} containing the VIN, name, title, and license plate.
+     * @param listener the listener to remove.
      */
-    private Vehicle mapToVehicle(VehicleWebResponseResource vehicleWebResponseResource) {
-        return new Vehicle(vehicleWebResponseResource.getVin(),
-                vehicleWebResponseResource.getName(),
-                vehicleWebResponseResource.getTitle(),
-                vehicleWebResponseResource.getLicensePlate());
+    public void removeReadListener(VehicleChangeListener listener) {
+        readListeners.remove(listener);
+    }
+
+    /**
+     * Makes the next read of a data type of a vehicle send a new request instead of joining one that is
+     * already in flight, for example because a command changed the data after that request was sent.
+     */
+    void forgetInFlightRead(String vin, VehicleDataType dataType) {
+        singleFlight.forget(dataType, vin);
+    }
+
+    /**
+     * Makes the next read of any data send a new request instead of joining one that is already in flight.
+     */
+    void forgetInFlightReads() {
+        singleFlight.forgetAll();
+    }
+
+    /**
+     * Retrieves the vehicle list of the account as returned by the API, without mapping it.
+     */
+    List<VehicleWebResponseResource> fetchVehicles() {
+        return call(ApiOperation.FIND_ALL_VEHICLES, "Failed to retrieve vehicles", vehicleApi::findAllVehicles);
+    }
+
+    /**
+     * Retrieves the location of a vehicle as returned by the API, without mapping it.
+     */
+    LocationWebResponseResource fetchLocation(String vin) {
+        return call(ApiOperation.GET_LOCATION, "Failed to get vehicle location", () -> locationApi.getLocation(vin));
+    }
+
+    /**
+     * Retrieves the status of a vehicle as returned by the API, without mapping it.
+     */
+    StatusWebResponseResource fetchStatus(String vin) {
+        return call(ApiOperation.GET_STATUS, "Failed to get vehicle status", () -> statusApi.getStatus(vin));
+    }
+
+    /**
+     * Retrieves the range of a vehicle as returned by the API, without mapping it.
+     */
+    RangeWebResponseResource fetchRange(String vin) {
+        return call(ApiOperation.GET_RANGE, "Failed to get vehicle range", () -> rangeApi.getRange(vin));
+    }
+
+    /**
+     * Retrieves the air conditioning status of a vehicle as returned by the API, without mapping it.
+     */
+    AirConditioningWebResponseResource fetchAirConditioning(String vin) {
+        return call(ApiOperation.GET_AIR_CONDITIONING, "Failed to get vehicle air conditioning", () -> airConditioningApi.getAirConditioning(vin));
+    }
+
+    /**
+     * Retrieves the charging state of a vehicle as returned by the API, without mapping it.
+     */
+    ChargingStatusWebResponseResource fetchChargingStatus(String vin) {
+        return call(ApiOperation.GET_CHARGING_STATUS, "Failed to get vehicle charging state", () -> chargingApi.getChargingStatus(vin));
+    }
+
+    /**
+     * Retrieves the charging session history of a vehicle as returned by the API, without mapping it.
+     */
+    List<ChargingSessionWebResponseResource> fetchChargingSessions(String vin) {
+        return call(ApiOperation.GET_CHARGING_SESSION, "Failed to get vehicle charging sessions", () -> chargingApi.getChargingSession(vin));
+    }
+
+    /**
+     * Retrieves the location of a vehicle, sharing the request with identical reads in flight and handing the
+     * result to the read listeners. The response is coalesced rather than the mapped result, so regular and
+     * compact reads, and the reads of a {@link VehicleChangeDetector}, share it.
+     */
+    private LocationWebResponseResource coalescedLocation(String vin) {
+        return singleFlight.execute(VehicleDataType.LOCATION, vin, () -> publish(vin, VehicleDataType.LOCATION,
+                fetchLocation(vin), VehicleMapper::toLocation, location -> null));
+    }
+
+    StatusWebResponseResource coalescedStatus(String vin) {
+        return singleFlight.execute(VehicleDataType.STATUS, vin, () -> publish(vin, VehicleDataType.STATUS,
+                fetchStatus(vin), VehicleMapper::toStatus, VehicleStatus::getCarCapturedTimestamp));
+    }
+
+    RangeWebResponseResource coalescedRange(String vin) {
+        return singleFlight.execute(VehicleDataType.RANGE, vin, () -> publish(vin, VehicleDataType.RANGE,
+                fetchRange(vin), VehicleMapper::toRange, VehicleRange::getCarCapturedTimestamp));
+    }
+
+    ChargingStatusWebResponseResource coalescedChargingStatus(String vin) {
+        return singleFlight.execute(VehicleDataType.CHARGING_STATE, vin, () -> publish(vin, VehicleDataType.CHARGING_STATE,
+                fetchChargingStatus(vin), VehicleMapper::toChargingState, VehicleChargingState::getCarCapturedTimestamp));
+    }
+
+    AirConditioningWebResponseResource coalescedAirConditioning(String vin) {
+        return singleFlight.execute(VehicleDataType.AIR_CONDITIONING, vin, () -> publish(vin, VehicleDataType.AIR_CONDITIONING,
+                fetchAirConditioning(vin), VehicleMapper::toAirConditioning,
+                VehicleAirConditioningStatus::getCarCapturedTimestamp));
+    }
+
+    /**
+     * Hands a value that was read to the read listeners, mapping it only if there are any, and returns it unchanged.
+     * Failures of the listeners, or of mapping the value for them, are reported and never fail the read or the
+     * reads that joined it.
+     */
+    private <R, T> R publish(String vin, VehicleDataType dataType, R value, Function<R, T> mapper,
+                             Function<T, String> timestamp) {
+        if (!readListeners.isEmpty()) {
+            VehicleChangeEvent<T> event;
+            try {
+                T mapped = mapper.apply(value);
+                event = new VehicleChangeEvent<>(vin, dataType, null, timestamp.apply(mapped), mapped);
+            } catch (RuntimeException e) {
+                VehicleChangeListeners.reportFailure(e);
+                return value;
+            }
+            VehicleChangeListeners.deliver(readListeners, event);
+        }
+        return value;
+    }
+
+    /**
+     * Reads one part of a snapshot, recording its failure instead of throwing it.
+     */
+    private static <T> T snapshotPart(VehicleDataType dataType, Map<VehicleDataType, VehicleServiceException> errors,
+                                      Supplier<T> read) {
+        try {
+            return read.get();
+        } catch (VehicleServiceException e) {
+            errors.put(dataType, e);
+        } catch (RuntimeException e) {
+            errors.put(dataType, new VehicleServiceException(
+                    "Failed to get vehicle " + dataType.name().toLowerCase().replace('_', ' '), e.getMessage()));
+        }
+        return null;
+    }
+
+    private JsonArrayReader<Vehicle> openVehicles() {
+        String errorMessage = "Failed to retrieve vehicles";
+        Response response = call(ApiOperation.FIND_ALL_VEHICLES, errorMessage,
+                () -> execute(vehicleApi.findAllVehiclesCall(null)));
+        return new JsonArrayReader<>(response, JsonArrayReader::readVehicle, errorMessage);
+    }
+
+    private JsonArrayReader<VehicleChargingSession> openChargingSessions(String vin) {
+        String errorMessage = "Failed to get vehicle charging sessions";
+        Response response = call(ApiOperation.GET_CHARGING_SESSION, errorMessage,
+                () -> execute(chargingApi.getChargingSessionCall(vin, null)));
+        return new JsonArrayReader<>(response, JsonArrayReader::readChargingSession, errorMessage);
+    }
+
+    private static <T> Stream<T> stream(JsonArrayReader<T> reader) {
+        return StreamSupport.stream(reader.spliterator(), false).onClose(reader::close);
+    }
+
+    /**
+     * Executes a prepared call and returns its response with the body still unread.
+     *
+     * @throws ApiException if the request fails or the API answers with an error status.
+     */
+    private static Response execute(Call call) throws ApiException {
+        Response response;
+        try {
+            response = call.execute();
+        } catch (IOException e) {
+            throw new ApiException(e);
+        }
+        if (!response.isSuccessful()) {
+            try (response) {
+                String body = response.body().string();
+                throw new ApiException(response.message(), response.code(), response.headers().toMultimap(), body);
+            } catch (IOException e) {
+                throw new ApiException(response.message(), e, response.code(), response.headers().toMultimap());
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Executes a blocking API call under the resilience policy, reports its duration to the metrics registry
+     * and converts API errors.
+     */
+    private <T> T call(ApiOperation operation, String errorMessage, ApiCall<T> apiCall) {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            T result = resilientExecutor.execute(operation, apiCall);
+            success = true;
+            return result;
+        } catch (ApiException e) {
+            throw new VehicleServiceException(errorMessage, e.getMessage());
+        } finally {
+            metricsRegistry.recordOperation(operation.getOperationId(), System.nanoTime() - start, success);
+        }
     }
-}
\ No newline at end of file
+}
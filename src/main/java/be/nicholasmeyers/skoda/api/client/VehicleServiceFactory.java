@@ -0,0 +1,290 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates {@link VehicleService} instances for many accounts that share one HTTP client.
+ * <p>
+ * Every service created by a factory uses the same connection pool, dispatcher and TLS sessions.
+ * Authentication stays per account: each service binds its own access token to the requests it sends.
+ * </p>
+ * <pre>{@code
+ * VehicleServiceFactory factory = VehicleServiceFactory.builder()
+ *         .maxIdleConnections(50)
+ *         .maxRequestsPerHost(100)
+ *         .build();
+ * VehicleService vehicleService = factory.create("YOUR_EMAIL", "YOUR_PASSWORD");
+ * }</pre>
+ */
+public class VehicleServiceFactory implements AutoCloseable {
+
+    private final OkHttpClient httpClient;
+    private final TokenRefresher tokenRefresher;
+    private final String server;
+    private final VehicleMetricsRegistry metricsRegistry;
+    private final ResilientExecutor resilientExecutor;
+    private final RateLimiter rateLimiter;
+
+    private VehicleServiceFactory(Builder builder) {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(builder.maxRequests);
+        dispatcher.setMaxRequestsPerHost(builder.maxRequestsPerHost);
+
+        this.httpClient = new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(builder.maxIdleConnections,
+                        builder.keepAliveDuration.toMillis(), TimeUnit.MILLISECONDS))
+                .dispatcher(dispatcher)
+                .protocols(builder.http2Enabled
+                        ? List.of(Protocol.HTTP_2, Protocol.HTTP_1_1)
+                        : List.of(Protocol.HTTP_1_1))
+                .connectTimeout(builder.connectTimeout)
+                .readTimeout(builder.readTimeout)
+                .build();
+        this.tokenRefresher = new TokenRefresher(httpClient, builder.tokenRefreshUrl);
+        this.server = builder.server;
+        this.metricsRegistry = builder.metricsRegistry;
+        this.resilientExecutor = new ResilientExecutor(builder.resiliencePolicy, builder.metricsRegistry);
+        this.rateLimiter = new RateLimiter(builder.rateLimitPolicy, builder.metricsRegistry);
+    }
+
+    /**
+     * Returns a new {@link Builder} with default settings.
+     *
+     * @return a new factory builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Creates a {@code VehicleService} for the given account on top of the shared HTTP client.
+     *
+     * @param email    the email address used for authentication.
+     * @param password the password used for authentication.
+     * @return a new {@link VehicleService} for the account.
+     */
+    public VehicleService create(String email, String password) {
+        return new VehicleService(createClientConfiguration(email, password));
+    }
+
+    /**
+     * Creates a {@code VehicleService} that authenticates with a refresh token instead of account credentials.
+     * <p>
+     * Access tokens are obtained from the token refresh endpoint of the factory, see
+     * {@link Builder#tokenRefreshUrl(String)}. This is how a service is pointed at a stand-in server
+     * for load testing without logging in to the real identity provider.
+     * </p>
+     *
+     * @param refreshToken the refresh token of the account.
+     * @return a new {@link VehicleService} for the account.
+     */
+    public VehicleService createWithRefreshToken(String refreshToken) {
+        TokenService tokenService = new TokenService(null, null, tokenRefresher, metricsRegistry);
+        tokenService.useTokens(CachedTokens.ofRefreshToken(refreshToken));
+        return new VehicleService(new ClientConfiguration(tokenService, httpClient, server, metricsRegistry,
+                resilientExecutor, rateLimiter));
+    }
+
+    /**
+     * Creates an {@code AsyncVehicleService} for the given account on top of the shared HTTP client.
+     *
+     * @param email    the email address used for authentication.
+     * @param password the password used for authentication.
+     * @return a new {@link AsyncVehicleService} for the account.
+     */
+    public AsyncVehicleService createAsync(String email, String password) {
+        return new AsyncVehicleService(createClientConfiguration(email, password));
+    }
+
+    /**
+     * Releases the idle connections and dispatcher threads of the shared HTTP client.
+     * <p>
+     * Services created by this factory can no longer be used afterwards.
+     * </p>
+     */
+    @Override
+    public void close() {
+        httpClient.dispatcher().executorService().shutdown();
+        httpClient.connectionPool().evictAll();
+    }
+
+    ClientConfiguration createClientConfiguration(String email, String password) {
+        return new ClientConfiguration(new TokenService(email, password, tokenRefresher, metricsRegistry),
+                httpClient, server, metricsRegistry, resilientExecutor, rateLimiter);
+    }
+
+    /**
+     * Builder for {@link VehicleServiceFactory}.
+     */
+    public static class Builder {
+
+        private String server;
+        private String tokenRefreshUrl = TokenRefresher.DEFAULT_REFRESH_URL;
+        private int maxIdleConnections = 5;
+        private Duration keepAliveDuration = Duration.ofMinutes(5);
+        private int maxRequests = 64;
+        private int maxRequestsPerHost = 5;
+        private boolean http2Enabled = true;
+        private Duration connectTimeout = Duration.ofSeconds(10);
+        private Duration readTimeout = Duration.ofSeconds(10);
+        private VehicleMetricsRegistry metricsRegistry = VehicleMetricsRegistry.NOOP;
+        private ResiliencePolicy resiliencePolicy = ResiliencePolicy.defaults();
+        private RateLimitPolicy rateLimitPolicy = RateLimitPolicy.defaults();
+
+        private Builder() {
+        }
+
+        /**
+         * Sets a custom base URL of the API server, for example a local mock or a staging environment.
+         *
+         * @param server the base URL of the API server to use.
+         * @return this builder.
+         */
+        public Builder server(String server) {
+            this.server = server;
+            return this;
+        }
+
+        /**
+         * Sets the endpoint used to exchange refresh tokens for new access tokens, for example the token
+         * endpoint of a stand-in server. Defaults to the Škoda identity endpoint.
+         *
+         * @param tokenRefreshUrl the URL of the token refresh endpoint.
+         * @return this builder.
+         */
+        public Builder tokenRefreshUrl(String tokenRefreshUrl) {
+            this.tokenRefreshUrl = tokenRefreshUrl;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of idle connections kept in the shared pool. Defaults to {@code 5}.
+         *
+         * @param maxIdleConnections the maximum number of idle connections.
+         * @return this builder.
+         */
+        public Builder maxIdleConnections(int maxIdleConnections) {
+            this.maxIdleConnections = maxIdleConnections;
+            return this;
+        }
+
+        /**
+         * Sets how long an idle connection is kept alive in the shared pool. Defaults to five minutes.
+         *
+         * @param keepAliveDuration the keep-alive duration of idle connections.
+         * @return this builder.
+         */
+        public Builder keepAliveDuration(Duration keepAliveDuration) {
+            this.keepAliveDuration = keepAliveDuration;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of requests executed concurrently by the shared dispatcher. Defaults to {@code 64}.
+         *
+         * @param maxRequests the maximum number of concurrent requests.
+         * @return this builder.
+         */
+        public Builder maxRequests(int maxRequests) {
+            this.maxRequests = maxRequests;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of requests executed concurrently per host. Defaults to {@code 5}.
+         *
+         * @param maxRequestsPerHost the maximum number of concurrent requests per host.
+         * @return this builder.
+         */
+        public Builder maxRequestsPerHost(int maxRequestsPerHost) {
+            this.maxRequestsPerHost = maxRequestsPerHost;
+            return this;
+        }
+
+        /**
+         * Enables or disables HTTP/2. When enabled, requests to the same host are multiplexed
+         * over a single connection where the server supports it. Defaults to {@code true}.
+         *
+         * @param http2Enabled whether HTTP/2 may be negotiated.
+         * @return this builder.
+         */
+        public Builder http2Enabled(boolean http2Enabled) {
+            this.http2Enabled = http2Enabled;
+            return this;
+        }
+
+        /**
+         * Sets the connect timeout of the shared HTTP client. Defaults to ten seconds.
+         *
+         * @param connectTimeout the connect timeout.
+         * @return this builder.
+         */
+        public Builder connectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+            return this;
+        }
+
+        /**
+         * Sets the read timeout of the shared HTTP client. Defaults to ten seconds.
+         *
+         * @param readTimeout the read timeout.
+         * @return this builder.
+         */
+        public Builder readTimeout(Duration readTimeout) {
+            this.readTimeout = readTimeout;
+            return this;
+        }
+
+        /**
+         * Sets the registry that receives the request latencies, status codes, transferred bytes and token
+         * fetch timings of every service created by the factory. Defaults to {@link VehicleMetricsRegistry#NOOP}.
+         *
+         * @param metricsRegistry the registry to report to, for example a {@link MicrometerVehicleMetricsRegistry}.
+         * @return this builder.
+         */
+        public Builder metricsRegistry(VehicleMetricsRegistry metricsRegistry) {
+            this.metricsRegistry = metricsRegistry;
+            return this;
+        }
+
+        /**
+         * Sets the retry, circuit breaker and bulkhead settings of the services created by the factory.
+         * The circuit breakers and bulkheads are shared by all accounts. Defaults to {@link ResiliencePolicy#defaults()}.
+         *
+         * @param resiliencePolicy the resilience policy, or {@link ResiliencePolicy#disabled()} to turn it off.
+         * @return this builder.
+         */
+        public Builder resiliencePolicy(ResiliencePolicy resiliencePolicy) {
+            this.resiliencePolicy = resiliencePolicy;
+            return this;
+        }
+
+        /**
+         * Sets the request budgets per account and for all accounts together. By default requests are not
+         * limited, but accounts throttled by the API are paused for the duration of the {@code Retry-After} header.
+         *
+         * @param rateLimitPolicy the rate limit policy.
+         * @return this builder.
+         */
+        public Builder rateLimitPolicy(RateLimitPolicy rateLimitPolicy) {
+            this.rateLimitPolicy = rateLimitPolicy;
+            return this;
+        }
+
+        /**
+         * Builds the factory and its shared HTTP client.
+         *
+         * @return a new {@link VehicleServiceFactory}.
+         */
+        public VehicleServiceFactory build() {
+            return new VehicleServiceFactory(this);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * An immutable combined view of the status, range, location, charging state and air conditioning of a vehicle.
+ * <p>
+ * The parts of a snapshot are retrieved in parallel. When one of them fails, the others are still
+ * available and the failure is reported per {@link VehicleDataType} through {@link #getErrors()}.
+ * </p>
+ * <p>
+ * Instances of this class are created internally by the {@link VehicleService}
+ * and are not intended to be constructed directly.
+ * </p>
+ */
+public class VehicleSnapshot {
+
+    private final String vin;
+    private final VehicleStatus status;
+    private final VehicleRange range;
+    private final VehicleLocation location;
+    private final VehicleChargingState chargingState;
+    private final VehicleAirConditioningStatus airConditioning;
+    private final Map<VehicleDataType, VehicleServiceException> errors;
+
+    /**
+     * Constructs a new {@code VehicleSnapshot} with the given parts.
+     *
+     * @param vin             the Vehicle Identification Number of the vehicle.
+     * @param status          the status of the vehicle, or {@code null} if it could not be retrieved.
+     * @param range           the range of the vehicle, or {@code null} if it could not be retrieved.
+     * @param location        the location of the vehicle, or {@code null} if it could not be retrieved.
+     * @param chargingState   the charging state of the vehicle, or {@code null} if it could not be retrieved.
+     * @param airConditioning the air conditioning status of the vehicle, or {@code null} if it could not be retrieved.
+     * @param errors          the failure per part that could not be retrieved.
+     */
+    VehicleSnapshot(String vin, VehicleStatus status, VehicleRange range, VehicleLocation location,
+                    VehicleChargingState chargingState, VehicleAirConditioningStatus airConditioning,
+                    Map<VehicleDataType, VehicleServiceException> errors) {
+        this.vin = vin;
+        this.status = status;
+        this.range = range;
+        this.location = location;
+        this.chargingState = chargingState;
+        this.airConditioning = airConditioning;
+        this.errors = errors.isEmpty()
+                ? Collections.emptyMap()
+                : Collections.unmodifiableMap(new EnumMap<>(errors));
+    }
+
+    /**
+     * Returns the Vehicle Identification Number of the vehicle.
+     *
+     * @return the VIN.
+     */
+    public String getVin() {
+        return vin;
+    }
+
+    /**
+     * Returns the status of the vehicle.
+     *
+     * @return the {@link VehicleStatus}, or {@code null} if it could not be retrieved.
+     */
+    public VehicleStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Returns the range of the vehicle.
+     *
+     * @return the {@link VehicleRange}, or {@code null} if it could not be retrieved.
+     */
+    public VehicleRange getRange() {
+        return range;
+    }
+
+    /**
+     * Returns the location of the vehicle.
+     *
+     * @return the {@link VehicleLocation}, or {@code null} if it could not be retrieved.
+     */
+    public VehicleLocation getLocation() {
+        return location;
+    }
+
+    /**
+     * Returns the charging state of the vehicle.
+     *
+     * @return the {@link VehicleChargingState}, or {@code null} if it could not be retrieved.
+     */
+    public VehicleChargingState getChargingState() {
+        return chargingState;
+    }
+
+    /**
+     * Returns the air conditioning status of the vehicle.
+     *
+     * @return the {@link VehicleAirConditioningStatus}, or {@code null} if it could not be retrieved.
+     */
+    public VehicleAirConditioningStatus getAirConditioning() {
+        return airConditioning;
+    }
+
+    /**
+     * Returns the failure for every part of the snapshot that could not be retrieved.
+     *
+     * @return an unmodifiable map of failures, empty if the snapshot is complete.
+     */
+    public Map<VehicleDataType, VehicleServiceException> getErrors() {
+        return errors;
+    }
+
+    /**
+     * Returns whether every part of the snapshot was retrieved successfully.
+     *
+     * @return {@code true} if there are no errors.
+     */
+    public boolean isComplete() {
+        return errors.isEmpty();
+    }
+}
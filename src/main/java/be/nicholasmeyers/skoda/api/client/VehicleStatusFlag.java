@@ -0,0 +1,77 @@
+package be.nicholasmeyers.skoda.api.client;
+
+/**
+ * The yes-or-no conditions of a vehicle reported in a {@link CompactVehicleStatus}.
+ * <p>
+ * Every flag is set from one field of the vehicle status, which the API reports as text:
+ * the flag is set for the positive value, cleared for the negative value and unknown for any other value.
+ * </p>
+ */
+public enum VehicleStatusFlag {
+
+    /**
+     * The doors are locked; set from {@link VehicleStatus#getDoorsLocked()} ({@code "YES"} or {@code "NO"}).
+     */
+    DOORS_LOCKED("YES", "NO"),
+
+    /**
+     * The vehicle is locked; set from {@link VehicleStatus#getLocked()} ({@code "YES"} or {@code "NO"}).
+     */
+    LOCKED("YES", "NO"),
+
+    /**
+     * A door is open; set from {@link VehicleStatus#getDoors()} ({@code "OPEN"} or {@code "CLOSED"}).
+     */
+    DOORS_OPEN("OPEN", "CLOSED"),
+
+    /**
+     * A window is open; set from {@link VehicleStatus#getWindows()} ({@code "OPEN"} or {@code "CLOSED"}).
+     */
+    WINDOWS_OPEN("OPEN", "CLOSED"),
+
+    /**
+     * The lights are on; set from {@link VehicleStatus#getLights()} ({@code "ON"} or {@code "OFF"}).
+     */
+    LIGHTS_ON("ON", "OFF"),
+
+    /**
+     * The vehicle is reliably reported as locked; set from {@link VehicleStatus#getReliableLockStatus()}
+     * ({@code "LOCKED"} or {@code "UNLOCKED"}).
+     */
+    RELIABLY_LOCKED("LOCKED", "UNLOCKED"),
+
+    /**
+     * The sunroof is open; set from {@link VehicleStatus#getSunroof()} ({@code "OPEN"} or {@code "CLOSED"}).
+     */
+    SUNROOF_OPEN("OPEN", "CLOSED"),
+
+    /**
+     * The trunk is open; set from {@link VehicleStatus#getTrunk()} ({@code "OPEN"} or {@code "CLOSED"}).
+     */
+    TRUNK_OPEN("OPEN", "CLOSED"),
+
+    /**
+     * The bonnet is open; set from {@link VehicleStatus#getBonnet()} ({@code "OPEN"} or {@code "CLOSED"}).
+     */
+    BONNET_OPEN("OPEN", "CLOSED");
+
+    private final String positiveValue;
+    private final String negativeValue;
+
+    VehicleStatusFlag(String positiveValue, String negativeValue) {
+        this.positiveValue = positiveValue;
+        this.negativeValue = negativeValue;
+    }
+
+    int mask() {
+        return 1 << ordinal();
+    }
+
+    boolean isPositive(String value) {
+        return positiveValue.equalsIgnoreCase(value);
+    }
+
+    boolean isNegative(String value) {
+        return negativeValue.equalsIgnoreCase(value);
+    }
+}
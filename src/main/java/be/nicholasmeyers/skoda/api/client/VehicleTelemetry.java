@@ -0,0 +1,189 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Streams vehicle updates as {@link Flow.Publisher}s with backpressure.
+ * <p>
+ * Each subscription polls the API on its own and only emits values the vehicle captured after the
+ * previously emitted one. Polling only happens while the subscriber has requested more items, so a
+ * slow subscriber throttles polling instead of letting updates pile up in memory.
+ * </p>
+ * <p>
+ * A failed poll is retried with a doubling delay. A subscription only ends with {@code onError} after
+ * five polls in a row have failed.
+ * </p>
+ * <pre>{@code
+ * VehicleTelemetry telemetry = new VehicleTelemetry(vehicleService, Duration.ofMinutes(1));
+ * telemetry.subscribeChargingState("YOUR_CARS_VIN").subscribe(subscriber);
+ * }</pre>
+ */
+public class VehicleTelemetry implements AutoCloseable {
+
+    private final VehicleService vehicleService;
+    private final Duration pollInterval;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService pollExecutor;
+    private final Set<PollingSubscription<?>> subscriptions = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructs a new {@code VehicleTelemetry}.
+     *
+     * @param vehicleService the service used to poll the vehicles.
+     * @param pollInterval   the minimum time between two polls of the same subscription.
+     */
+    public VehicleTelemetry(VehicleService vehicleService, Duration pollInterval) {
+        this.vehicleService = vehicleService;
+        this.pollInterval = pollInterval;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "skoda-telemetry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.pollExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("skoda-telemetry-poll-", 0).factory());
+    }
+
+    /**
+     * Returns a publisher of the status updates of a vehicle.
+     *
+     * @param vin the Vehicle Identification Number of the vehicle.
+     * @return a publisher emitting every newly captured {@link VehicleStatus}.
+     */
+    public Flow.Publisher<VehicleStatus> subscribeStatus(String vin) {
+        return vinPublisher(detector -> detector.pollStatus(vin));
+    }
+
+    /**
+     * Returns a publisher of the range updates of a vehicle.
+     *
+     * @param vin the Vehicle Identification Number of the vehicle.
+     * @return a publisher emitting every newly captured {@link VehicleRange}.
+     */
+    public Flow.Publisher<VehicleRange> subscribeRange(String vin) {
+        return vinPublisher(detector -> detector.pollRange(vin));
+    }
+
+    /**
+     * Returns a publisher of the charging state updates of a vehicle.
+     *
+     * @param vin the Vehicle Identification Number of the vehicle.
+     * @return a publisher emitting every newly captured {@link VehicleChargingState}.
+     */
+    public Flow.Publisher<VehicleChargingState> subscribeChargingState(String vin) {
+        return vinPublisher(detector -> detector.pollChargingState(vin));
+    }
+
+    /**
+     * Returns a publisher of the air conditioning updates of a vehicle.
+     *
+     * @param vin the Vehicle Identification Number of the vehicle.
+     * @return a publisher emitting every newly captured {@link VehicleAirConditioningStatus}.
+     */
+    public Flow.Publisher<VehicleAirConditioningStatus> subscribeAirConditioning(String vin) {
+        return vinPublisher(detector -> detector.pollAirConditioning(vin));
+    }
+
+    /**
+     * Returns a publisher of all changes of every vehicle associated with the authenticated account.
+     * <p>
+     * The vehicle list is retrieved on the first poll. Vehicles are polled one after the other, so that
+     * one pass over the whole fleet takes about one poll interval. A vehicle of which a data type fails to poll
+     * counts as a failed poll, like a failed poll of a single vehicle, while the changes of its other data types
+     * are still emitted; the failed data types are polled again on the next pass.
+     * </p>
+     *
+     * @return a publisher emitting a {@link VehicleChangeEvent} for every newly captured value.
+     */
+    public Flow.Publisher<VehicleChangeEvent<?>> subscribeFleet() {
+        return subscriber -> subscribe(subscriber, new FleetCursor(null));
+    }
+
+    /**
+     * Returns a publisher of all changes of the given vehicles.
+     *
+     * @param vins the Vehicle Identification Numbers of the vehicles.
+     * @return a publisher emitting a {@link VehicleChangeEvent} for every newly captured value.
+     * @see #subscribeFleet()
+     */
+    public Flow.Publisher<VehicleChangeEvent<?>> subscribeFleet(Collection<String> vins) {
+        List<String> fleet = List.copyOf(vins);
+        return subscriber -> subscribe(subscriber, new FleetCursor(fleet));
+    }
+
+    /**
+     * Cancels every subscription and stops polling.
+     */
+    @Override
+    public void close() {
+        subscriptions.forEach(PollingSubscription::cancel);
+        subscriptions.clear();
+        scheduler.shutdownNow();
+        pollExecutor.shutdownNow();
+    }
+
+    private <T> Flow.Publisher<T> vinPublisher(Function<VehicleChangeDetector, Optional<VehicleChangeEvent<T>>> poll) {
+        return subscriber -> {
+            VehicleChangeDetector detector = new VehicleChangeDetector(vehicleService);
+            PollingSubscription<T> subscription = new PollingSubscription<>(subscriber,
+                    emitter -> poll.apply(detector).map(VehicleChangeEvent::getValue).ifPresent(emitter),
+                    pollInterval::toNanos, scheduler, pollExecutor);
+            register(subscription);
+        };
+    }
+
+    private void subscribe(Flow.Subscriber<? super VehicleChangeEvent<?>> subscriber, FleetCursor cursor) {
+        register(new PollingSubscription<>(subscriber, cursor::next, cursor::intervalNanos, scheduler, pollExecutor));
+    }
+
+    private void register(PollingSubscription<?> subscription) {
+        subscriptions.add(subscription);
+        subscriptions.removeIf(PollingSubscription::isCancelled);
+        subscription.start();
+    }
+
+    private class FleetCursor {
+
+        private final VehicleChangeDetector detector = new VehicleChangeDetector(vehicleService);
+        private final AtomicInteger position = new AtomicInteger();
+        private volatile List<String> vins;
+
+        private FleetCursor(List<String> vins) {
+            this.vins = vins;
+        }
+
+        private void next(Consumer<VehicleChangeEvent<?>> emitter) {
+            if (vins == null) {
+                vins = vehicleService.getVehicles().stream()
+                        .map(Vehicle::getVin)
+                        .toList();
+            }
+            if (vins.isEmpty()) {
+                return;
+            }
+            String vin = vins.get(Math.floorMod(position.getAndIncrement(), vins.size()));
+            VehicleChanges changes = detector.poll(vin);
+            changes.getEvents().forEach(emitter);
+            if (changes.hasErrors()) {
+                // failed data types are retried on the next pass over the fleet
+                throw changes.getErrors().values().iterator().next();
+            }
+        }
+
+        private long intervalNanos() {
+            List<String> current = vins;
+            return pollInterval.toNanos() / Math.max(1, current == null ? 1 : current.size());
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A local, append-only store of the charging sessions and range snapshots of vehicles.
+ * <p>
+ * History that has been stored once can be analysed without calling the API again, for example the energy
+ * charged per month or the state of charge over the last day. Every record type is kept in its own file in the
+ * store directory, as fixed-size binary records that are read through a memory mapping and indexed by VIN and
+ * time. Records are never rewritten: a session with a VIN, start time and content that is already stored, or a
+ * snapshot with a VIN and time that is already stored, is skipped, so the same history can be appended again after
+ * every sync.
+ * </p>
+ * <p>
+ * Records without a readable timestamp cannot be indexed and are skipped. Strings are stored in fixed-size fields;
+ * car types, engine types and current types longer than the field are truncated. Timestamps are returned with
+ * millisecond precision, in the offset they were received in.
+ * </p>
+ * <pre>{@code
+ * try (VehicleTimeSeriesStore store = VehicleTimeSeriesStore.open(Path.of("skoda-history"))) {
+ *     store.appendChargingSessions("YOUR_CARS_VIN", vehicleService.getVehicleChargingSessions("YOUR_CARS_VIN"));
+ *     SortedMap<YearMonth, Double> kWhPerMonth = store.getChargedKWhPerMonth("YOUR_CARS_VIN", ZoneId.systemDefault());
+ * }
+ * }</pre>
+ */
+public class VehicleTimeSeriesStore implements AutoCloseable {
+
+    private static final String CHARGING_SESSIONS_FILE = "charging-sessions.bin";
+    private static final String RANGES_FILE = "ranges.bin";
+    private static final short CHARGING_SESSION_RECORD = 1;
+    private static final short RANGE_RECORD = 2;
+    private static final int NULL_INT = Integer.MIN_VALUE;
+
+    private static final int SESSION_KWH = 0;
+    private static final int SESSION_DURATION = 8;
+    private static final int SESSION_OFFSET = 12;
+    private static final int SESSION_CURRENT_TYPE = 16;
+    private static final int SESSION_CURRENT_TYPE_SIZE = 8;
+    private static final int SESSION_RECORD_SIZE =
+            TimeSeriesFile.PAYLOAD_OFFSET + SESSION_CURRENT_TYPE + SESSION_CURRENT_TYPE_SIZE;
+
+    private static final int RANGE_SOC = 0;
+    private static final int RANGE_REMAINING = 4;
+    private static final int RANGE_TOTAL = 8;
+    private static final int RANGE_OFFSET = 12;
+    private static final int RANGE_CAR_TYPE = 16;
+    private static final int RANGE_ENGINE_TYPE = 32;
+    private static final int RANGE_TYPE_SIZE = 16;
+    private static final int RANGE_RECORD_SIZE = TimeSeriesFile.PAYLOAD_OFFSET + RANGE_ENGINE_TYPE + RANGE_TYPE_SIZE;
+
+    private final TimeSeriesFile chargingSessions;
+    private final TimeSeriesFile ranges;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private VehicleTimeSeriesStore(TimeSeriesFile chargingSessions, TimeSeriesFile ranges) {
+        this.chargingSessions = chargingSessions;
+        this.ranges = ranges;
+    }
+
+    /**
+     * Opens the store in a directory, creating the directory and its files if they do not exist yet.
+     * <p>
+     * A store directory must only be opened by one instance at a time.
+     * </p>
+     *
+     * @param directory the directory of the store.
+     * @return the opened store.
+     * @throws IOException if the directory cannot be created or contains files that are not store files.
+     */
+    public static VehicleTimeSeriesStore open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        TimeSeriesFile chargingSessions = new TimeSeriesFile(directory.resolve(CHARGING_SESSIONS_FILE),
+                CHARGING_SESSION_RECORD, SESSION_RECORD_SIZE);
+        try {
+            TimeSeriesFile ranges = new TimeSeriesFile(directory.resolve(RANGES_FILE), RANGE_RECORD, RANGE_RECORD_SIZE);
+            return new VehicleTimeSeriesStore(chargingSessions, ranges);
+        } catch (IOException | RuntimeException e) {
+            chargingSessions.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Appends the charging sessions of a vehicle that are not stored yet.
+     * <p>
+     * Sessions are matched on their start time and content, like {@link ChargingSessionSync} does, so sessions that
+     * started at the same time are all kept. A session that occurs more often than it is stored is added as often
+     * as it is missing.
+     * </p>
+     *
+     * @param vin      the Vehicle Identification Number of the vehicle.
+     * @param sessions the sessions to store, in any order.
+     * @return the number of sessions that were added.
+     * @throws IOException if the sessions cannot be written.
+     */
+    public int appendChargingSessions(String vin, Collection<VehicleChargingSession> sessions) throws IOException {
+        lock.writeLock().lock();
+        try {
+            List<ByteBuffer> records = new ArrayList<>(sessions.size());
+            Set<Long> storedTimes = new HashSet<>();
+            Map<String, Integer> unmatched = new HashMap<>();
+            for (VehicleChargingSession session : sessions) {
+                OffsetDateTime startAt = parse(session.getStartAt());
+                if (startAt == null) {
+                    continue;
+                }
+                long time = startAt.toInstant().toEpochMilli();
+                ByteBuffer record = chargingSessions.newRecord(vin, time);
+                record.putDouble(TimeSeriesFile.PAYLOAD_OFFSET + SESSION_KWH, session.getChargedInKWh());
+                record.putInt(TimeSeriesFile.PAYLOAD_OFFSET + SESSION_DURATION, session.getDurationInMinutes());
+                record.putInt(TimeSeriesFile.PAYLOAD_OFFSET + SESSION_OFFSET, startAt.getOffset().getTotalSeconds());
+                TimeSeriesFile.putString(record, SESSION_CURRENT_TYPE, SESSION_CURRENT_TYPE_SIZE, session.getCurrentType());
+                if (storedTimes.add(time)) {
+                    for (int stored : chargingSessions.find(vin, time, time + 1)) {
+                        unmatched.merge(key(time, chargingSessions.getDouble(stored, SESSION_KWH),
+                                chargingSessions.getInt(stored, SESSION_DURATION),
+                                chargingSessions.getString(stored, SESSION_CURRENT_TYPE)), 1, Integer::sum);
+                    }
+                }
+                String key = key(time, session.getChargedInKWh(), session.getDurationInMinutes(),
+                        TimeSeriesFile.getString(record, SESSION_CURRENT_TYPE));
+                Integer remaining = unmatched.get(key);
+                if (remaining != null) {
+                    if (remaining == 1) {
+                        unmatched.remove(key);
+                    } else {
+                        unmatched.put(key, remaining - 1);
+                    }
+                    continue;
+                }
+                records.add(record);
+            }
+            chargingSessions.append(records.toArray(new ByteBuffer[0]));
+            return records.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Appends a range snapshot of a vehicle if no snapshot with the same capture time is stored yet.
+     *
+     * @param vin   the Vehicle Identification Number of the vehicle.
+     * @param range the snapshot to store.
+     * @return {@code true} if the snapshot was added.
+     * @throws IOException if the snapshot cannot be written.
+     */
+    public boolean appendRange(String vin, VehicleRange range) throws IOException {
+        OffsetDateTime capturedAt = parse(range.getCarCapturedTimestamp());
+        if (capturedAt == null) {
+            return false;
+        }
+        long time = capturedAt.toInstant().toEpochMilli();
+        lock.writeLock().lock();
+        try {
+            if (ranges.contains(vin, time)) {
+                return false;
+            }
+            ByteBuffer record = ranges.newRecord(vin, time);
+            record.putInt(TimeSeriesFile.PAYLOAD_OFFSET + RANGE_SOC, toInt(range.getCurrentSoCInPercent()));
+            record.putInt(TimeSeriesFile.PAYLOAD_OFFSET + RANGE_REMAINING, toInt(range.getRemainingRangeInKm()));
+            record.putInt(TimeSeriesFile.PAYLOAD_OFFSET + RANGE_TOTAL, toInt(range.getTotalRangeInKm()));
+            record.putInt(TimeSeriesFile.PAYLOAD_OFFSET + RANGE_OFFSET, capturedAt.getOffset().getTotalSeconds());
+            TimeSeriesFile.putString(record, RANGE_CAR_TYPE, RANGE_TYPE_SIZE, range.getCarType());
+            TimeSeriesFile.putString(record, RANGE_ENGINE_TYPE, RANGE_TYPE_SIZE, range.getEngineType());
+            ranges.append(new ByteBuffer[]{record});
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the stored charging sessions of a vehicle that started within a time window.
+     *
+     * @param vin  the Vehicle Identification Number of the vehicle.
+     * @param from the start of the window, inclusive.
+     * @param to   the end of the window, exclusive.
+     * @return the sessions in the window, the oldest first.
+     */
+    public List<VehicleChargingSession> getChargingSessions(String vin, Instant from, Instant to) {
+        lock.readLock().lock();
+        try {
+            int[] records = chargingSessions.find(vin, from.toEpochMilli(), to.toEpochMilli());
+            List<VehicleChargingSession> sessions = new ArrayList<>(records.length);
+            for (int record : records) {
+                sessions.add(new VehicleChargingSession(
+                        format(chargingSessions.getTime(record), chargingSessions.getInt(record, SESSION_OFFSET)),
+                        chargingSessions.getDouble(record, SESSION_KWH),
+                        chargingSessions.getInt(record, SESSION_DURATION),
+                        chargingSessions.getString(record, SESSION_CURRENT_TYPE)));
+            }
+            return sessions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the energy charged by a vehicle in the sessions that started within a time window.
+     *
+     * @param vin  the Vehicle Identification Number of the vehicle.
+     * @param from the start of the window, inclusive.
+     * @param to   the end of the window, exclusive.
+     * @return the charged energy in kWh.
+     */
+    public double getChargedKWh(String vin, Instant from, Instant to) {
+        lock.readLock().lock();
+        try {
+            double chargedInKWh = 0;
+            for (int record : chargingSessions.find(vin, from.toEpochMilli(), to.toEpochMilli())) {
+                chargedInKWh += chargingSessions.getDouble(record, SESSION_KWH);
+            }
+            return chargedInKWh;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the energy charged by a vehicle per calendar month, over its full stored history.
+     *
+     * @param vin  the Vehicle Identification Number of the vehicle.
+     * @param zone the time zone that determines the month a session belongs to.
+     * @return the charged energy in kWh per month, ordered by month; months without sessions are left out.
+     */
+    public SortedMap<YearMonth, Double> getChargedKWhPerMonth(String vin, ZoneId zone) {
+        lock.readLock().lock();
+        try {
+            SortedMap<YearMonth, Double> chargedPerMonth = new TreeMap<>();
+            for (int record : chargingSessions.find(vin, Long.MIN_VALUE, Long.MAX_VALUE)) {
+                YearMonth month = YearMonth.from(Instant.ofEpochMilli(chargingSessions.getTime(record)).atZone(zone));
+                chargedPerMonth.merge(month, chargingSessions.getDouble(record, SESSION_KWH), Double::sum);
+            }
+            return chargedPerMonth;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the stored range snapshots of a vehicle that were captured within a time window, for example
+     * to plot the state of charge over the last day.
+     *
+     * @param vin  the Vehicle Identification Number of the vehicle.
+     * @param from the start of the window, inclusive.
+     * @param to   the end of the window, exclusive.
+     * @return the snapshots in the window, the oldest first.
+     */
+    public List<VehicleRange> getRanges(String vin, Instant from, Instant to) {
+        lock.readLock().lock();
+        try {
+            int[] records = ranges.find(vin, from.toEpochMilli(), to.toEpochMilli());
+            List<VehicleRange> snapshots = new ArrayList<>(records.length);
+            for (int record : records) {
+                snapshots.add(new VehicleRange(
+                        ranges.getString(record, RANGE_CAR_TYPE),
+                        toInteger(ranges.getInt(record, RANGE_TOTAL)),
+                        ranges.getString(record, RANGE_ENGINE_TYPE),
+                        toInteger(ranges.getInt(record, RANGE_SOC)),
+                        toInteger(ranges.getInt(record, RANGE_REMAINING)),
+                        format(ranges.getTime(record), ranges.getInt(record, RANGE_OFFSET))));
+            }
+            return snapshots;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Forces all appended records to the storage device.
+     *
+     * @throws IOException if the files cannot be synchronised.
+     */
+    public void flush() throws IOException {
+        lock.writeLock().lock();
+        try {
+            chargingSessions.force();
+            ranges.force();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Closes the files of the store. Appended records are flushed first.
+     *
+     * @throws IOException if the files cannot be synchronised or closed.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try (chargingSessions; ranges) {
+            chargingSessions.force();
+            ranges.force();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the start time and the {@link ChargingSessionSync#key(VehicleChargingSession) content key} of a session.
+     */
+    private static String key(long time, double chargedInKWh, int durationInMinutes, String currentType) {
+        return time + "|" + ChargingSessionSync.key(new VehicleChargingSession(null, chargedInKWh, durationInMinutes,
+                currentType));
+    }
+
+    private static OffsetDateTime parse(String timestamp) {
+        if (timestamp == null) {
+            return null;
+        }
+        try {
+            return OffsetDateTime.parse(timestamp);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static String format(long time, int offsetSeconds) {
+        return Instant.ofEpochMilli(time).atOffset(ZoneOffset.ofTotalSeconds(offsetSeconds)).toString();
+    }
+
+    private static int toInt(Integer value) {
+        return value != null ? value : NULL_INT;
+    }
+
+    private static Integer toInteger(int value) {
+        return value != NULL_INT ? value : null;
+    }
+}
@@ -0,0 +1,116 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+
+    private static final long LONG_OPEN_DURATION = TimeUnit.HOURS.toNanos(1);
+
+    @Test
+    void opensAfterConsecutiveFailures() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("/status", 3, LONG_OPEN_DURATION, VehicleMetricsRegistry.NOOP);
+
+        for (int i = 0; i < 2; i++) {
+            assertTrue(circuitBreaker.tryAcquirePermission());
+            circuitBreaker.onFailure();
+            assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        }
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        circuitBreaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+    }
+
+    @Test
+    void successResetsConsecutiveFailures() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("/status", 2, LONG_OPEN_DURATION, VehicleMetricsRegistry.NOOP);
+
+        circuitBreaker.tryAcquirePermission();
+        circuitBreaker.onFailure();
+        circuitBreaker.tryAcquirePermission();
+        circuitBreaker.onSuccess();
+        circuitBreaker.tryAcquirePermission();
+        circuitBreaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void letsOneTrialCallThroughAfterTheOpenDuration() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("/status", 1, 0, VehicleMetricsRegistry.NOOP);
+        circuitBreaker.tryAcquirePermission();
+        circuitBreaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+    }
+
+    @Test
+    void closesWhenTheTrialCallSucceeds() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("/status", 1, 0, VehicleMetricsRegistry.NOOP);
+        circuitBreaker.tryAcquirePermission();
+        circuitBreaker.onFailure();
+        circuitBreaker.tryAcquirePermission();
+
+        circuitBreaker.onSuccess();
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        assertTrue(circuitBreaker.tryAcquirePermission());
+    }
+
+    @Test
+    void reopensWhenTheTrialCallFails() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("/status", 5, 0, VehicleMetricsRegistry.NOOP);
+        for (int i = 0; i < 5; i++) {
+            circuitBreaker.tryAcquirePermission();
+            circuitBreaker.onFailure();
+        }
+        circuitBreaker.tryAcquirePermission();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+
+        circuitBreaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    void ignoredTrialCallReleasesThePermission() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("/status", 1, 0, VehicleMetricsRegistry.NOOP);
+        circuitBreaker.tryAcquirePermission();
+        circuitBreaker.onFailure();
+        circuitBreaker.tryAcquirePermission();
+
+        circuitBreaker.onIgnored();
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        assertTrue(circuitBreaker.tryAcquirePermission());
+    }
+
+    @Test
+    void reportsTransitionsToTheMetricsRegistry() {
+        StringBuilder states = new StringBuilder();
+        CircuitBreaker circuitBreaker = new CircuitBreaker("/status", 1, 0, new VehicleMetricsRegistry() {
+            @Override
+            public void recordCircuitBreakerState(String endpoint, String state) {
+                states.append(endpoint).append('=').append(state).append(' ');
+            }
+        });
+
+        circuitBreaker.tryAcquirePermission();
+        circuitBreaker.onFailure();
+        circuitBreaker.tryAcquirePermission();
+        circuitBreaker.onSuccess();
+
+        assertEquals("/status=OPEN /status=HALF_OPEN /status=CLOSED ", states.toString());
+    }
+}
@@ -0,0 +1,213 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import be.nicholasmeyers.skoda.ApiException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResilientExecutorTest {
+
+    @Test
+    void retriesTransientFailuresUpToMaxAttempts() {
+        ResilientExecutor executor = executor(ResiliencePolicy.builder().maxAttempts(3).initialBackoff(Duration.ZERO));
+        AtomicInteger attempts = new AtomicInteger();
+
+        ApiException e = assertThrows(ApiException.class, () -> executor.execute(ApiOperation.GET_STATUS, () -> {
+            attempts.incrementAndGet();
+            throw new ApiException(503, "Service Unavailable");
+        }));
+
+        assertEquals(503, e.getCode());
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    void returnsTheResultOfASuccessfulRetry() throws ApiException {
+        ResilientExecutor executor = executor(ResiliencePolicy.builder().maxAttempts(3).initialBackoff(Duration.ZERO));
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = executor.execute(ApiOperation.GET_STATUS, () -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new ApiException(429, "Too Many Requests");
+            }
+            return "status";
+        });
+
+        assertEquals("status", result);
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void doesNotRetryClientErrors() {
+        ResilientExecutor executor = executor(ResiliencePolicy.builder().maxAttempts(3).initialBackoff(Duration.ZERO));
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(ApiException.class, () -> executor.execute(ApiOperation.GET_STATUS, () -> {
+            attempts.incrementAndGet();
+            throw new ApiException(404, "Not Found");
+        }));
+
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void doesNotRetryOperationsThatAreNotIdempotent() {
+        ResilientExecutor executor = executor(ResiliencePolicy.builder().maxAttempts(3).initialBackoff(Duration.ZERO));
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(ApiException.class, () -> executor.execute(ApiOperation.START_CHARGING, () -> {
+            attempts.incrementAndGet();
+            throw new ApiException(503, "Service Unavailable");
+        }));
+
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void backsOffBetweenAttemptsWithinTheMaximumBackoff() {
+        ResilientExecutor executor = executor(ResiliencePolicy.builder().maxAttempts(4)
+                .initialBackoff(Duration.ofSeconds(10)).maxBackoff(Duration.ofMillis(20)));
+        long start = System.nanoTime();
+
+        assertThrows(ApiException.class, () -> executor.execute(ApiOperation.GET_STATUS, () -> {
+            throw new ApiException(500, "Internal Server Error");
+        }));
+
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(3 * 20 + 500));
+    }
+
+    @Test
+    void retriesAsynchronousCallsUpToMaxAttempts() throws InterruptedException {
+        ResilientExecutor executor = executor(ResiliencePolicy.builder().maxAttempts(3).initialBackoff(Duration.ZERO));
+        AtomicInteger attempts = new AtomicInteger();
+
+        CompletableFuture<String> result = executor.executeAsync(ApiOperation.GET_STATUS, () -> {
+            attempts.incrementAndGet();
+            return CompletableFuture.failedFuture(new ApiException(502, "Bad Gateway"));
+        });
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertEquals(502, assertInstanceOf(ApiException.class, e.getCause()).getCode());
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    void rejectsCallsWhileTheCircuitIsOpen() {
+        ResilientExecutor executor = executor(ResiliencePolicy.builder().maxAttempts(1).failureThreshold(2)
+                .openDuration(Duration.ofHours(1)));
+        AtomicInteger attempts = new AtomicInteger();
+        ApiCall<String> failing = () -> {
+            attempts.incrementAndGet();
+            throw new ApiException(500, "Internal Server Error");
+        };
+        assertThrows(ApiException.class, () -> executor.execute(ApiOperation.GET_STATUS, failing));
+        assertThrows(ApiException.class, () -> executor.execute(ApiOperation.GET_STATUS, failing));
+
+        assertThrows(ResilientExecutor.RejectedCallException.class, () -> executor.execute(ApiOperation.GET_STATUS, failing));
+
+        assertEquals(2, attempts.get());
+        assertEquals(CircuitBreaker.State.OPEN, executor.getCircuitBreakerState(ApiOperation.GET_STATUS.getEndpoint()));
+    }
+
+    @Test
+    void doesNotRetryCallsRejectedByTheCircuitBreaker() {
+        ResilientExecutor executor = executor(ResiliencePolicy.builder().maxAttempts(5).initialBackoff(Duration.ZERO)
+                .failureThreshold(1).openDuration(Duration.ofHours(1)));
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(ResilientExecutor.RejectedCallException.class, () -> executor.execute(ApiOperation.GET_STATUS, () -> {
+            attempts.incrementAndGet();
+            throw new ApiException(500, "Internal Server Error");
+        }));
+
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void rejectsCallsWhenTheBulkheadIsFull() throws Exception {
+        ResilientExecutor executor = executor(ResiliencePolicy.builder().maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> {
+            try {
+                executor.execute(ApiOperation.GET_STATUS, () -> {
+                    started.countDown();
+                    await(release);
+                    return "status";
+                });
+            } catch (ApiException | RuntimeException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        holder.start();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        try {
+            assertThrows(ResilientExecutor.RejectedCallException.class,
+                    () -> executor.execute(ApiOperation.GET_STATUS, () -> "status"));
+            assertEquals("range", executor.execute(ApiOperation.GET_RANGE, () -> "range"));
+        } finally {
+            release.countDown();
+            holder.join();
+        }
+        assertEquals("status", executor.execute(ApiOperation.GET_STATUS, () -> "status"));
+    }
+
+    @Test
+    void rejectsAsynchronousCallsThatWaitTooLongForTheBulkhead() {
+        ResilientExecutor executor = executor(ResiliencePolicy.builder().maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ofMillis(50)));
+        executor.executeAsync(ApiOperation.GET_STATUS, CompletableFuture::new);
+        AtomicInteger started = new AtomicInteger();
+
+        CompletableFuture<String> waiting = executor.executeAsync(ApiOperation.GET_STATUS, () -> {
+            started.incrementAndGet();
+            return CompletableFuture.completedFuture("status");
+        });
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> waiting.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(ResilientExecutor.RejectedCallException.class, e.getCause());
+        assertEquals(0, started.get());
+    }
+
+    @Test
+    void startsAWaitingAsynchronousCallWhenASlotIsReleased() throws Exception {
+        ResilientExecutor executor = executor(ResiliencePolicy.builder().maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ofSeconds(10)));
+        CompletableFuture<String> first = new CompletableFuture<>();
+        CompletableFuture<String> firstResult = executor.executeAsync(ApiOperation.GET_STATUS, () -> first);
+        CompletableFuture<String> second = executor.executeAsync(ApiOperation.GET_STATUS,
+                () -> CompletableFuture.completedFuture("second"));
+        assertFalse(second.isDone());
+
+        first.complete("first");
+
+        assertEquals("first", firstResult.get(5, TimeUnit.SECONDS));
+        assertEquals("second", second.get(5, TimeUnit.SECONDS));
+    }
+
+    private static ResilientExecutor executor(ResiliencePolicy.Builder policy) {
+        return new ResilientExecutor(policy.build(), VehicleMetricsRegistry.NOOP);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+    private static final String VIN = "TMBJJ7NX5MY000001";
+    private static final int JOINING_CALLERS = 8;
+
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void shutDownCallers() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallersShareOneCall() throws Exception {
+        SingleFlight singleFlight = new SingleFlight();
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<Object> call = () -> {
+            calls.incrementAndGet();
+            await(release);
+            return new Object();
+        };
+
+        List<Future<Object>> results = startCallers(singleFlight, call);
+        release.countDown();
+
+        Object first = results.get(0).get(5, TimeUnit.SECONDS);
+        for (Future<Object> result : results) {
+            assertSame(first, result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, calls.get());
+        assertEquals(JOINING_CALLERS, singleFlight.getCoalescedCount());
+    }
+
+    @Test
+    void concurrentCallersShareTheException() throws Exception {
+        SingleFlight singleFlight = new SingleFlight();
+        IllegalStateException failure = new IllegalStateException("read failed");
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<Object> call = () -> {
+            await(release);
+            throw failure;
+        };
+
+        List<Future<Object>> results = startCallers(singleFlight, call);
+        release.countDown();
+
+        for (Future<Object> result : results) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertSame(failure, e.getCause());
+        }
+    }
+
+    @Test
+    void startsANewCallOnceTheCallCompleted() {
+        SingleFlight singleFlight = new SingleFlight();
+        AtomicInteger calls = new AtomicInteger();
+
+        singleFlight.execute(VehicleDataType.STATUS, VIN, calls::incrementAndGet);
+        singleFlight.execute(VehicleDataType.STATUS, VIN, calls::incrementAndGet);
+
+        assertEquals(2, calls.get());
+        assertEquals(0, singleFlight.getCoalescedCount());
+    }
+
+    @Test
+    void startsANewCallOnceTheCallFailed() {
+        SingleFlight singleFlight = new SingleFlight();
+
+        assertThrows(IllegalStateException.class, () -> singleFlight.execute(VehicleDataType.STATUS, VIN, () -> {
+            throw new IllegalStateException("read failed");
+        }));
+
+        assertEquals("status", singleFlight.execute(VehicleDataType.STATUS, VIN, () -> "status"));
+    }
+
+    @Test
+    void doesNotShareCallsOfOtherKeys() throws Exception {
+        SingleFlight singleFlight = new SingleFlight();
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Object> status = callers.submit(() -> singleFlight.execute(VehicleDataType.STATUS, VIN, () -> {
+            await(release);
+            return "status";
+        }));
+
+        try {
+            assertEquals("range", singleFlight.execute(VehicleDataType.RANGE, VIN, () -> "range"));
+            assertEquals("other", singleFlight.execute(VehicleDataType.STATUS, "TMBJJ7NX5MY000002", () -> "other"));
+        } finally {
+            release.countDown();
+        }
+        assertEquals("status", status.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void forgottenCallIsNotJoined() throws Exception {
+        SingleFlight singleFlight = new SingleFlight();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Object> stale = callers.submit(() -> singleFlight.execute(VehicleDataType.STATUS, VIN, () -> {
+            started.countDown();
+            await(release);
+            return "stale";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        singleFlight.forget(VehicleDataType.STATUS, VIN);
+
+        try {
+            assertEquals("fresh", singleFlight.execute(VehicleDataType.STATUS, VIN, () -> "fresh"));
+        } finally {
+            release.countDown();
+        }
+        assertEquals("stale", stale.get(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Starts a caller that performs the call, then callers that join it, and waits until all of them joined.
+     */
+    private List<Future<Object>> startCallers(SingleFlight singleFlight, Supplier<Object> call) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        List<Future<Object>> results = new ArrayList<>();
+        results.add(callers.submit(() -> singleFlight.execute(VehicleDataType.STATUS, VIN, () -> {
+            started.countDown();
+            return call.get();
+        })));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < JOINING_CALLERS; i++) {
+            results.add(callers.submit(() -> singleFlight.execute(VehicleDataType.STATUS, VIN, call)));
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleFlight.getCoalescedCount() < JOINING_CALLERS && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertEquals(JOINING_CALLERS, singleFlight.getCoalescedCount());
+        return results;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+    private static final long NO_WAIT = 0;
+    private static final long ONE_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void handsOutTheBurstWithoutWaiting() {
+        TokenBucket bucket = new TokenBucket(1, 3);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.reserve(NO_WAIT));
+        }
+        assertEquals(-1, bucket.reserve(NO_WAIT));
+    }
+
+    @Test
+    void reservesPermitsThatRefillWithinTheMaximumWait() {
+        TokenBucket bucket = new TokenBucket(10, 1);
+        bucket.reserve(NO_WAIT);
+
+        long first = bucket.reserve(ONE_SECOND);
+        long second = bucket.reserve(ONE_SECOND);
+
+        assertBetween(TimeUnit.MILLISECONDS.toNanos(50), TimeUnit.MILLISECONDS.toNanos(100), first);
+        assertBetween(first + TimeUnit.MILLISECONDS.toNanos(50), TimeUnit.MILLISECONDS.toNanos(200), second);
+    }
+
+    @Test
+    void refillsOverTime() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(20, 1);
+        bucket.reserve(NO_WAIT);
+        assertEquals(-1, bucket.reserve(NO_WAIT));
+
+        TimeUnit.MILLISECONDS.sleep(100);
+
+        assertEquals(0, bucket.reserve(NO_WAIT));
+    }
+
+    @Test
+    void doesNotRefillBeyondTheBurst() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(1000, 2);
+
+        TimeUnit.MILLISECONDS.sleep(50);
+
+        assertEquals(0, bucket.reserve(NO_WAIT));
+        assertEquals(0, bucket.reserve(NO_WAIT));
+        assertTrue(bucket.reserve(ONE_SECOND) > 0);
+    }
+
+    @Test
+    void cancelledReservationGivesThePermitBack() {
+        TokenBucket bucket = new TokenBucket(1, 1);
+        bucket.reserve(NO_WAIT);
+
+        bucket.cancel();
+
+        assertEquals(0, bucket.reserve(NO_WAIT));
+    }
+
+    @Test
+    void holdsBackPermitsDuringAPause() {
+        TokenBucket bucket = new TokenBucket(1000, 10);
+
+        bucket.pause(TimeUnit.MILLISECONDS.toNanos(500));
+
+        assertEquals(-1, bucket.reserve(NO_WAIT));
+        assertBetween(TimeUnit.MILLISECONDS.toNanos(400), TimeUnit.MILLISECONDS.toNanos(510), bucket.reserve(ONE_SECOND));
+    }
+
+    @Test
+    void doesNotReleaseABurstAfterAPause() {
+        TokenBucket bucket = new TokenBucket(10, 10);
+
+        bucket.pause(TimeUnit.MILLISECONDS.toNanos(200));
+
+        long first = bucket.reserve(ONE_SECOND);
+        long second = bucket.reserve(ONE_SECOND);
+        assertTrue(first >= TimeUnit.MILLISECONDS.toNanos(200), "first permit waits for the pause and a refill");
+        assertTrue(second - first >= TimeUnit.MILLISECONDS.toNanos(90), "later permits keep the rate");
+    }
+
+    @Test
+    void shorterPauseDoesNotShortenTheCurrentPause() {
+        TokenBucket bucket = new TokenBucket(Double.POSITIVE_INFINITY, 1);
+
+        bucket.pause(TimeUnit.MILLISECONDS.toNanos(500));
+        bucket.pause(TimeUnit.MILLISECONDS.toNanos(10));
+
+        assertTrue(bucket.reserve(ONE_SECOND) > TimeUnit.MILLISECONDS.toNanos(400));
+    }
+
+    @Test
+    void unlimitedBucketOnlyWaitsForPauses() {
+        TokenBucket bucket = new TokenBucket(Double.POSITIVE_INFINITY, 1);
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(0, bucket.reserve(NO_WAIT));
+        }
+        bucket.pause(ONE_SECOND);
+        assertEquals(-1, bucket.reserve(NO_WAIT));
+    }
+
+    private static void assertBetween(long min, long max, long actual) {
+        assertTrue(actual >= min && actual <= max, actual + " is not between " + min + " and " + max);
+    }
+}
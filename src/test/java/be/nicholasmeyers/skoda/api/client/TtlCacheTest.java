@@ -0,0 +1,192 @@
+package be.nicholasmeyers.skoda.api.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TtlCacheTest {
+
+    private static final long LONG_TIME_TO_LIVE = TimeUnit.HOURS.toNanos(1);
+    private static final long SHORT_TIME_TO_LIVE = TimeUnit.MILLISECONDS.toNanos(20);
+
+    private final Queue<Runnable> revalidations = new ArrayDeque<>();
+    private final Executor revalidationExecutor = revalidations::add;
+
+    @Test
+    void returnsTheCachedValueWithinTheTimeToLive() {
+        TtlCache<String, Integer> cache = new TtlCache<>(LONG_TIME_TO_LIVE, 0, 10, revalidationExecutor);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals(1, cache.get("vin", loads::incrementAndGet));
+        assertEquals(1, cache.get("vin", loads::incrementAndGet));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void loadsAgainOnceTheEntryExpired() throws InterruptedException {
+        TtlCache<String, Integer> cache = new TtlCache<>(SHORT_TIME_TO_LIVE, 0, 10, revalidationExecutor);
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("vin", loads::incrementAndGet);
+
+        TimeUnit.NANOSECONDS.sleep(2 * SHORT_TIME_TO_LIVE);
+
+        assertEquals(2, cache.get("vin", loads::incrementAndGet));
+        assertTrue(revalidations.isEmpty());
+    }
+
+    @Test
+    void doesNotCacheWithoutATimeToLive() {
+        TtlCache<String, Integer> cache = new TtlCache<>(0, LONG_TIME_TO_LIVE, 10, revalidationExecutor);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("vin", loads::incrementAndGet);
+
+        assertEquals(2, cache.get("vin", loads::incrementAndGet));
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntry() {
+        TtlCache<String, Integer> cache = new TtlCache<>(LONG_TIME_TO_LIVE, 0, 2, revalidationExecutor);
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("first", loads::incrementAndGet);
+        cache.get("second", loads::incrementAndGet);
+        cache.get("first", loads::incrementAndGet);
+
+        cache.get("third", loads::incrementAndGet);
+
+        assertEquals(1, cache.get("first", loads::incrementAndGet));
+        assertEquals(4, cache.get("second", loads::incrementAndGet));
+    }
+
+    @Test
+    void loadsAgainAfterAnInvalidation() {
+        TtlCache<String, Integer> cache = new TtlCache<>(LONG_TIME_TO_LIVE, 0, 10, revalidationExecutor);
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("vin", loads::incrementAndGet);
+        cache.get("other", loads::incrementAndGet);
+
+        cache.invalidate("vin");
+
+        assertEquals(3, cache.get("vin", loads::incrementAndGet));
+        assertEquals(2, cache.get("other", loads::incrementAndGet));
+    }
+
+    @Test
+    void loadsAgainAfterInvalidatingEverything() {
+        TtlCache<String, Integer> cache = new TtlCache<>(LONG_TIME_TO_LIVE, 0, 10, revalidationExecutor);
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("vin", loads::incrementAndGet);
+        cache.get("other", loads::incrementAndGet);
+
+        cache.invalidateAll();
+
+        assertEquals(3, cache.get("vin", loads::incrementAndGet));
+        assertEquals(4, cache.get("other", loads::incrementAndGet));
+    }
+
+    @Test
+    void discardsALoadThatRanDuringAnInvalidationOfItsKey() {
+        TtlCache<String, Integer> cache = new TtlCache<>(LONG_TIME_TO_LIVE, 0, 10, revalidationExecutor);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals(1, cache.get("vin", () -> {
+            cache.invalidate("vin");
+            return loads.incrementAndGet();
+        }));
+
+        assertEquals(2, cache.get("vin", loads::incrementAndGet));
+    }
+
+    @Test
+    void keepsALoadThatRanDuringAnInvalidationOfAnotherKey() {
+        TtlCache<String, Integer> cache = new TtlCache<>(LONG_TIME_TO_LIVE, 0, 10, revalidationExecutor);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("vin", () -> {
+            cache.invalidate("other");
+            return loads.incrementAndGet();
+        });
+
+        assertEquals(1, cache.get("vin", loads::incrementAndGet));
+    }
+
+    @Test
+    void returnsAStaleEntryWhileOneRevalidationReplacesIt() throws InterruptedException {
+        TtlCache<String, Integer> cache = new TtlCache<>(SHORT_TIME_TO_LIVE, LONG_TIME_TO_LIVE, 10, revalidationExecutor);
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("vin", loads::incrementAndGet);
+        TimeUnit.NANOSECONDS.sleep(2 * SHORT_TIME_TO_LIVE);
+
+        assertEquals(1, cache.get("vin", loads::incrementAndGet));
+        assertEquals(1, cache.get("vin", loads::incrementAndGet));
+        assertEquals(1, revalidations.size());
+        assertEquals(1, loads.get());
+
+        revalidations.poll().run();
+
+        assertEquals(2, cache.get("vin", loads::incrementAndGet));
+    }
+
+    @Test
+    void retriesARevalidationThatFailed() throws InterruptedException {
+        TtlCache<String, Integer> cache = new TtlCache<>(SHORT_TIME_TO_LIVE, LONG_TIME_TO_LIVE, 10, revalidationExecutor);
+        cache.get("vin", () -> 1);
+        TimeUnit.NANOSECONDS.sleep(2 * SHORT_TIME_TO_LIVE);
+        cache.get("vin", () -> {
+            throw new IllegalStateException("read failed");
+        });
+
+        revalidations.poll().run();
+
+        assertEquals(1, cache.get("vin", () -> 2));
+        revalidations.poll().run();
+        assertEquals(2, cache.get("vin", () -> 3));
+    }
+
+    @Test
+    void returnsTheStaleEntryWhenTheRevalidationIsRejected() throws InterruptedException {
+        AtomicInteger attempts = new AtomicInteger();
+        TtlCache<String, Integer> cache = new TtlCache<>(SHORT_TIME_TO_LIVE, LONG_TIME_TO_LIVE, 10, task -> {
+            attempts.incrementAndGet();
+            throw new RejectedExecutionException("shut down");
+        });
+        cache.get("vin", () -> 1);
+        TimeUnit.NANOSECONDS.sleep(2 * SHORT_TIME_TO_LIVE);
+
+        assertEquals(1, cache.get("vin", () -> 2));
+        assertEquals(1, cache.get("vin", () -> 2));
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void discardsARevalidationOfAnInvalidatedEntry() throws InterruptedException {
+        TtlCache<String, Integer> cache = new TtlCache<>(SHORT_TIME_TO_LIVE, LONG_TIME_TO_LIVE, 10, revalidationExecutor);
+        cache.get("vin", () -> 1);
+        TimeUnit.NANOSECONDS.sleep(2 * SHORT_TIME_TO_LIVE);
+        cache.get("vin", () -> 2);
+
+        cache.invalidate("vin");
+        revalidations.poll().run();
+
+        assertEquals(3, cache.get("vin", () -> 3));
+    }
+
+    @Test
+    void loadsAgainOnceTheStaleWindowPassed() throws InterruptedException {
+        TtlCache<String, Integer> cache = new TtlCache<>(SHORT_TIME_TO_LIVE, SHORT_TIME_TO_LIVE, 10, revalidationExecutor);
+        cache.get("vin", () -> 1);
+
+        TimeUnit.NANOSECONDS.sleep(3 * SHORT_TIME_TO_LIVE);
+
+        assertEquals(2, cache.get("vin", () -> 2));
+        assertTrue(revalidations.isEmpty());
+    }
+}
@@ -0,0 +1,51 @@
+package be.nicholasmeyers.skoda.standin;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * A fixed set of simulated vehicles, generated from a seed so every run serves the same fleet.
+ */
+class SimulatedFleet {
+
+    private final List<String> vins;
+    private final Map<String, SimulatedVehicle> vehicles;
+
+    SimulatedFleet(int size, long seed) {
+        Random random = new Random(seed);
+        Instant now = Instant.now();
+        List<String> vins = new ArrayList<>(size);
+        Map<String, SimulatedVehicle> vehicles = new HashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            String vin = vin(i);
+            vins.add(vin);
+            vehicles.put(vin, new SimulatedVehicle(vin, i, random, now));
+        }
+        this.vins = Collections.unmodifiableList(vins);
+        this.vehicles = vehicles;
+    }
+
+    List<String> getVins() {
+        return vins;
+    }
+
+    Iterable<SimulatedVehicle> getVehicles() {
+        return () -> vins.stream().map(vehicles::get).iterator();
+    }
+
+    SimulatedVehicle get(String vin) {
+        return vehicles.get(vin);
+    }
+
+    /**
+     * Returns a 17 character VIN that encodes the index of the vehicle.
+     */
+    static String vin(int index) {
+        return "TMBSIM" + "%011d".formatted(index);
+    }
+}
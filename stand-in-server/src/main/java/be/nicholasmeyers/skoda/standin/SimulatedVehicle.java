@@ -0,0 +1,220 @@
+package be.nicholasmeyers.skoda.standin;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * One vehicle of the simulated fleet.
+ * <p>
+ * The state only moves forward when it is read or changed by a command: a charging vehicle gains charge for
+ * the time that passed since the previous read, and stops once it is full. The captured timestamp changes
+ * only when the state changes, as it does for a parked vehicle of the real API.
+ * </p>
+ */
+class SimulatedVehicle {
+
+    private static final double CHARGE_PERCENT_PER_MINUTE = 0.5;
+    private static final double CHARGE_POWER_IN_KW = 11;
+    private static final int SESSION_HISTORY = 20;
+
+    private final String vin;
+    private final String name;
+    private final String licensePlate;
+    private final double latitude;
+    private final double longitude;
+    private final List<JsonObject> sessions = new ArrayList<>();
+
+    private double stateOfCharge;
+    private boolean charging;
+    private Instant chargingStartedAt;
+    private double chargingStartedAtStateOfCharge;
+    private boolean airConditioningOn;
+    private double temperature = 21;
+    private String temperatureUnit = "CELSIUS";
+    private boolean locked = true;
+    private Instant capturedAt;
+    private Instant advancedAt;
+
+    SimulatedVehicle(String vin, int index, Random random, Instant now) {
+        this.vin = vin;
+        this.name = "Enyaq " + index;
+        this.licensePlate = "1-SIM-%03d".formatted(index % 1000);
+        this.latitude = 50.85 + (random.nextDouble() - 0.5) * 2;
+        this.longitude = 4.35 + (random.nextDouble() - 0.5) * 3;
+        this.stateOfCharge = 20 + random.nextInt(75);
+        this.charging = random.nextInt(10) == 0;
+        this.chargingStartedAt = charging ? now : null;
+        this.chargingStartedAtStateOfCharge = stateOfCharge;
+        this.capturedAt = now.minus(Duration.ofMinutes(random.nextInt(600)));
+        this.advancedAt = now;
+
+        Instant sessionStart = now.minus(Duration.ofDays(SESSION_HISTORY * 2L));
+        for (int i = 0; i < SESSION_HISTORY; i++) {
+            int minutes = 30 + random.nextInt(300);
+            sessions.add(session(sessionStart, minutes * CHARGE_POWER_IN_KW / 60, minutes, random.nextInt(4) == 0 ? "DC" : "AC"));
+            sessionStart = sessionStart.plus(Duration.ofHours(24 + random.nextInt(48)));
+        }
+    }
+
+    String getVin() {
+        return vin;
+    }
+
+    synchronized JsonObject toVehicleJson() {
+        JsonObject json = new JsonObject();
+        json.addProperty("vin", vin);
+        json.addProperty("name", name);
+        json.addProperty("licensePlate", licensePlate);
+        json.addProperty("state", "ACTIVATED");
+        json.addProperty("devicePlatform", "MBB_ODP");
+        json.addProperty("systemModelId", "5AZ");
+        json.addProperty("title", "Škoda Enyaq");
+        return json;
+    }
+
+    synchronized JsonObject toLocationJson(Instant now) {
+        advance(now);
+        JsonObject json = new JsonObject();
+        json.addProperty("latitude", latitude);
+        json.addProperty("longitude", longitude);
+        json.addProperty("address", "Simulated street %s, Brussels, Belgium".formatted(vin.substring(vin.length() - 5)));
+        return json;
+    }
+
+    synchronized JsonObject toStatusJson(Instant now) {
+        advance(now);
+        String lock = locked ? "YES" : "NO";
+        JsonObject json = new JsonObject();
+        json.addProperty("doorsLocked", lock);
+        json.addProperty("locked", lock);
+        json.addProperty("doors", "CLOSED");
+        json.addProperty("windows", "CLOSED");
+        json.addProperty("lights", "OFF");
+        json.addProperty("reliableLockStatus", locked ? "LOCKED" : "UNLOCKED");
+        json.addProperty("sunroof", "CLOSED");
+        json.addProperty("trunk", "CLOSED");
+        json.addProperty("bonnet", "CLOSED");
+        json.addProperty("carCapturedTimestamp", capturedAt.toString());
+        return json;
+    }
+
+    synchronized JsonObject toRangeJson(Instant now) {
+        advance(now);
+        int range = remainingRangeInKm();
+        JsonObject json = new JsonObject();
+        json.addProperty("carType", "ELECTRIC");
+        json.addProperty("totalRangeInKm", range);
+        json.addProperty("engineType", "ELECTRIC");
+        json.addProperty("currentSoCInPercent", (int) stateOfCharge);
+        json.addProperty("remainingRangeInKm", range);
+        json.addProperty("carCapturedTimestamp", capturedAt.toString());
+        return json;
+    }
+
+    synchronized JsonObject toAirConditioningJson(Instant now) {
+        advance(now);
+        JsonObject json = new JsonObject();
+        json.addProperty("state", airConditioningOn ? "ON" : "OFF");
+        json.addProperty("temperature", temperature);
+        json.addProperty("temperatureUnit", temperatureUnit);
+        json.addProperty("carCapturedTimestamp", capturedAt.toString());
+        return json;
+    }
+
+    synchronized JsonObject toChargingStatusJson(Instant now) {
+        advance(now);
+        JsonObject json = new JsonObject();
+        json.addProperty("chargingRateInKilometersPerHour", charging ? CHARGE_PERCENT_PER_MINUTE * 60 * 4.2 : 0);
+        json.addProperty("chargePowerInKw", charging ? CHARGE_POWER_IN_KW : 0);
+        json.addProperty("remainingTimeToFullyChargedInMinutes",
+                charging ? (int) Math.ceil((100 - stateOfCharge) / CHARGE_PERCENT_PER_MINUTE) : 0);
+        json.addProperty("state", charging ? "CHARGING" : "READY_FOR_CHARGING");
+        json.addProperty("chargeType", charging ? "AC" : "OFF");
+        json.addProperty("remainingCruisingRangeInMeters", remainingRangeInKm() * 1000);
+        json.addProperty("stateOfChargeInPercent", (int) stateOfCharge);
+        json.addProperty("carCapturedTimestamp", capturedAt.toString());
+        return json;
+    }
+
+    synchronized JsonArray toChargingSessionsJson(Instant now) {
+        advance(now);
+        JsonArray json = new JsonArray();
+        sessions.forEach(json::add);
+        return json;
+    }
+
+    synchronized void startAirConditioning(double temperature, String temperatureUnit, Instant now) {
+        advance(now);
+        this.airConditioningOn = true;
+        this.temperature = temperature;
+        this.temperatureUnit = temperatureUnit;
+        this.capturedAt = now;
+    }
+
+    synchronized void stopAirConditioning(Instant now) {
+        advance(now);
+        airConditioningOn = false;
+        capturedAt = now;
+    }
+
+    synchronized void startCharging(Instant now) {
+        advance(now);
+        if (!charging && stateOfCharge < 100) {
+            charging = true;
+            chargingStartedAt = now;
+            chargingStartedAtStateOfCharge = stateOfCharge;
+            capturedAt = now;
+        }
+    }
+
+    synchronized void stopCharging(Instant now) {
+        advance(now);
+        if (charging) {
+            finishSession(now);
+        }
+    }
+
+    private void advance(Instant now) {
+        if (charging) {
+            double minutes = Duration.between(advancedAt, now).toMillis() / 60_000d;
+            stateOfCharge = Math.min(100, stateOfCharge + minutes * CHARGE_PERCENT_PER_MINUTE);
+            if (minutes > 0) {
+                capturedAt = now;
+            }
+            if (stateOfCharge >= 100) {
+                finishSession(now);
+            }
+        }
+        advancedAt = now;
+    }
+
+    private void finishSession(Instant now) {
+        long minutes = Duration.between(chargingStartedAt, now).toMinutes();
+        sessions.add(session(chargingStartedAt, (stateOfCharge - chargingStartedAtStateOfCharge) * 0.77, minutes, "AC"));
+        if (sessions.size() > SESSION_HISTORY) {
+            sessions.removeFirst();
+        }
+        charging = false;
+        chargingStartedAt = null;
+        capturedAt = now;
+    }
+
+    private int remainingRangeInKm() {
+        return (int) (stateOfCharge * 4.2);
+    }
+
+    private static JsonObject session(Instant startAt, double chargedInKWh, long durationInMinutes, String currentType) {
+        JsonObject json = new JsonObject();
+        json.addProperty("startAt", startAt.toString());
+        json.addProperty("chargedInKWh", Math.round(chargedInKWh * 10) / 10d);
+        json.addProperty("durationInMinutes", durationInMinutes);
+        json.addProperty("currentType", currentType);
+        return json;
+    }
+}
@@ -0,0 +1,511 @@
+package be.nicholasmeyers.skoda.standin;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An embeddable stand-in for the Škoda API server described by {@code skoda-api-server.yaml}.
+ * <p>
+ * It serves all eleven operations, from {@code /vehicle} to {@code /charging/{vin}/stop}, for a simulated
+ * fleet of vehicles, and a token endpoint that hands out short-lived access tokens for any refresh token.
+ * Latency, server errors and throttling can be injected to measure the throughput and tail latency of a
+ * client without touching the real API. Requests are handled on virtual threads.
+ * </p>
+ * <pre>{@code
+ * try (StandInServer server = StandInServer.builder()
+ *         .fleetSize(5_000)
+ *         .latency(Duration.ofMillis(20), Duration.ofMillis(80))
+ *         .errorRate(0.01)
+ *         .build()
+ *         .start()) {
+ *     VehicleServiceFactory factory = VehicleServiceFactory.builder()
+ *             .server(server.getBaseUrl())
+ *             .tokenRefreshUrl(server.getTokenRefreshUrl())
+ *             .build();
+ *     VehicleService vehicleService = factory.createWithRefreshToken("stand-in");
+ * }
+ * }</pre>
+ */
+public class StandInServer implements AutoCloseable {
+
+    private static final String TOKEN_PATH = "/api/v1/authentication/refresh-token";
+
+    private final int port;
+    private final SimulatedFleet fleet;
+    private final long minLatencyNanos;
+    private final long maxLatencyNanos;
+    private final double tailLatencyRate;
+    private final long tailLatencyNanos;
+    private final double errorRate;
+    private final double throttleRate;
+    private final Duration retryAfter;
+    private final Duration tokenLifetime;
+
+    private final LongAdder requests = new LongAdder();
+    private final AtomicLong issuedTokens = new AtomicLong();
+    private HttpServer httpServer;
+    private ExecutorService executor;
+
+    private StandInServer(Builder builder) {
+        this.port = builder.port;
+        this.fleet = new SimulatedFleet(builder.fleetSize, builder.seed);
+        this.minLatencyNanos = builder.minLatency.toNanos();
+        this.maxLatencyNanos = builder.maxLatency.toNanos();
+        this.tailLatencyRate = builder.tailLatencyRate;
+        this.tailLatencyNanos = builder.tailLatency.toNanos();
+        this.errorRate = builder.errorRate;
+        this.throttleRate = builder.throttleRate;
+        this.retryAfter = builder.retryAfter;
+        this.tokenLifetime = builder.tokenLifetime;
+    }
+
+    /**
+     * Returns a new {@link Builder} with default settings.
+     *
+     * @return a new server builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Starts the server from the command line, for example
+     * {@code java -jar stand-in-server.jar --port=8080 --fleet-size=5000 --min-latency-ms=20 --max-latency-ms=80 --error-rate=0.01}.
+     *
+     * @param args the options of the server.
+     * @throws IOException if the server cannot be started.
+     */
+    public static void main(String[] args) throws IOException {
+        Builder builder = builder().port(8080);
+        long minLatencyMillis = 0;
+        long maxLatencyMillis = 0;
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            if (option.length != 2) {
+                throw new IllegalArgumentException("Options are passed as --name=value, got " + arg);
+            }
+            switch (option[0]) {
+                case "--port" -> builder.port(Integer.parseInt(option[1]));
+                case "--fleet-size" -> builder.fleetSize(Integer.parseInt(option[1]));
+                case "--min-latency-ms" -> minLatencyMillis = Long.parseLong(option[1]);
+                case "--max-latency-ms" -> maxLatencyMillis = Long.parseLong(option[1]);
+                case "--error-rate" -> builder.errorRate(Double.parseDouble(option[1]));
+                case "--throttle-rate" -> builder.throttleRate(Double.parseDouble(option[1]));
+                case "--seed" -> builder.seed(Long.parseLong(option[1]));
+                default -> throw new IllegalArgumentException("Unknown option " + option[0]);
+            }
+        }
+        builder.latency(Duration.ofMillis(minLatencyMillis), Duration.ofMillis(Math.max(minLatencyMillis, maxLatencyMillis)));
+
+        StandInServer server = builder.build().start();
+        System.out.println("Stand-in server listening on " + server.getBaseUrl() + " with " + server.getVins().size() + " vehicles");
+        System.out.println("Token refresh endpoint: " + server.getTokenRefreshUrl());
+    }
+
+    /**
+     * Starts listening for requests.
+     *
+     * @return this server.
+     * @throws IOException if the port cannot be bound.
+     */
+    public synchronized StandInServer start() throws IOException {
+        if (httpServer != null) {
+            throw new IllegalStateException("The stand-in server is already started");
+        }
+        executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("stand-in-", 0).factory());
+        httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        httpServer.setExecutor(executor);
+        httpServer.createContext("/", this::handle);
+        httpServer.start();
+        return this;
+    }
+
+    /**
+     * Returns the base URL to pass to the client as server.
+     *
+     * @return the base URL of the API.
+     */
+    public String getBaseUrl() {
+        InetSocketAddress address = httpServer.getAddress();
+        return "http://" + address.getHostString() + ":" + address.getPort();
+    }
+
+    /**
+     * Returns the URL of the token refresh endpoint, which accepts any refresh token.
+     *
+     * @return the URL of the token refresh endpoint.
+     */
+    public String getTokenRefreshUrl() {
+        return getBaseUrl() + TOKEN_PATH + "?tokenType=CONNECT";
+    }
+
+    /**
+     * Returns the VINs of the simulated fleet.
+     *
+     * @return the VINs, in the order {@code /vehicle} returns them.
+     */
+    public List<String> getVins() {
+        return fleet.getVins();
+    }
+
+    /**
+     * Returns how many requests the server received, including the ones answered with an injected error.
+     *
+     * @return the number of requests.
+     */
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    /**
+     * Returns how many access tokens the token endpoint handed out.
+     *
+     * @return the number of issued tokens.
+     */
+    public long getIssuedTokenCount() {
+        return issuedTokens.get();
+    }
+
+    /**
+     * Stops the server and the threads handling requests.
+     */
+    @Override
+    public synchronized void close() {
+        if (httpServer != null) {
+            httpServer.stop(0);
+            executor.shutdownNow();
+            httpServer = null;
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.increment();
+            simulateLatency();
+            String path = exchange.getRequestURI().getPath();
+            if (path.equals(TOKEN_PATH)) {
+                handleTokenRefresh(exchange);
+                return;
+            }
+            if (!isAuthorized(exchange)) {
+                sendProblem(exchange, 401, "Unauthorized", "Missing or expired access token");
+                return;
+            }
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            if (throttleRate > 0 && random.nextDouble() < throttleRate) {
+                exchange.getResponseHeaders().set("Retry-After", Long.toString(retryAfter.toSeconds()));
+                sendProblem(exchange, 429, "Too many requests", "Injected throttling");
+                return;
+            }
+            if (errorRate > 0 && random.nextDouble() < errorRate) {
+                sendProblem(exchange, 500, "Internal server error", "Injected error");
+                return;
+            }
+            route(exchange, Arrays.stream(path.split("/")).filter(segment -> !segment.isEmpty()).toList());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void route(HttpExchange exchange, List<String> segments) throws IOException {
+        String method = exchange.getRequestMethod();
+        if (segments.size() == 1 && segments.getFirst().equals("vehicle") && method.equals("GET")) {
+            JsonArray vehicles = new JsonArray();
+            fleet.getVehicles().forEach(vehicle -> vehicles.add(vehicle.toVehicleJson()));
+            sendJson(exchange, 200, vehicles);
+            return;
+        }
+        if (segments.size() < 2 || segments.size() > 3) {
+            sendProblem(exchange, 404, "Not found", "Unknown path " + exchange.getRequestURI().getPath());
+            return;
+        }
+
+        SimulatedVehicle vehicle = fleet.get(segments.get(1));
+        if (vehicle == null) {
+            sendProblem(exchange, 404, "Invalid vin", "No vehicle with vin " + segments.get(1));
+            return;
+        }
+        Instant now = Instant.now();
+        String operation = method + " /" + segments.getFirst() + (segments.size() == 3 ? "/{vin}/" + segments.get(2) : "/{vin}");
+        switch (operation) {
+            case "GET /location/{vin}" -> sendJson(exchange, 200, vehicle.toLocationJson(now));
+            case "GET /status/{vin}" -> sendJson(exchange, 200, vehicle.toStatusJson(now));
+            case "GET /range/{vin}" -> sendJson(exchange, 200, vehicle.toRangeJson(now));
+            case "GET /air-conditioning/{vin}" -> sendJson(exchange, 200, vehicle.toAirConditioningJson(now));
+            case "POST /air-conditioning/{vin}/start" -> {
+                JsonObject request = readJson(exchange);
+                if (request == null || !request.has("temperature") || !request.has("temperatureUnit")) {
+                    sendProblem(exchange, 400, "Invalid request", "temperature and temperatureUnit are required");
+                    return;
+                }
+                vehicle.startAirConditioning(request.get("temperature").getAsDouble(),
+                        request.get("temperatureUnit").getAsString(), now);
+                sendAccepted(exchange);
+            }
+            case "POST /air-conditioning/{vin}/stop" -> {
+                vehicle.stopAirConditioning(now);
+                sendAccepted(exchange);
+            }
+            case "GET /charging/{vin}" -> sendJson(exchange, 200, vehicle.toChargingStatusJson(now));
+            case "GET /charging/{vin}/session" -> sendJson(exchange, 200, vehicle.toChargingSessionsJson(now));
+            case "POST /charging/{vin}/start" -> {
+                vehicle.startCharging(now);
+                sendAccepted(exchange);
+            }
+            case "POST /charging/{vin}/stop" -> {
+                vehicle.stopCharging(now);
+                sendAccepted(exchange);
+            }
+            default -> sendProblem(exchange, 404, "Not found", "Unknown operation " + operation);
+        }
+    }
+
+    private void handleTokenRefresh(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestMethod().equals("POST")) {
+            sendProblem(exchange, 405, "Method not allowed", "Use POST to refresh a token");
+            return;
+        }
+        JsonObject request = readJson(exchange);
+        if (request == null || !request.has("token")) {
+            sendProblem(exchange, 400, "Invalid request", "token is required");
+            return;
+        }
+        long tokenNumber = issuedTokens.incrementAndGet();
+        JsonObject claims = new JsonObject();
+        claims.addProperty("iss", "stand-in");
+        claims.addProperty("jti", tokenNumber);
+        claims.addProperty("exp", Instant.now().plus(tokenLifetime).getEpochSecond());
+
+        JsonObject tokens = new JsonObject();
+        tokens.addProperty("accessToken", "eyJhbGciOiJub25lIn0." + base64(claims.toString()) + ".stand-in");
+        tokens.addProperty("refreshToken", "stand-in-refresh-" + tokenNumber);
+        tokens.addProperty("idToken", "stand-in-id-" + tokenNumber);
+        sendJson(exchange, 200, tokens);
+    }
+
+    /**
+     * Accepts any access token handed out by the token endpoint, as long as it has not expired.
+     */
+    private static boolean isAuthorized(HttpExchange exchange) {
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            return false;
+        }
+        String[] parts = authorization.substring("Bearer ".length()).split("\\.");
+        if (parts.length != 3) {
+            return false;
+        }
+        try {
+            JsonObject claims = JsonParser.parseString(
+                    new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8)).getAsJsonObject();
+            return claims.has("exp") && claims.get("exp").getAsLong() > Instant.now().getEpochSecond();
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private void simulateLatency() throws InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long latency = maxLatencyNanos > minLatencyNanos
+                ? random.nextLong(minLatencyNanos, maxLatencyNanos)
+                : minLatencyNanos;
+        if (tailLatencyRate > 0 && random.nextDouble() < tailLatencyRate) {
+            latency += tailLatencyNanos;
+        }
+        if (latency > 0) {
+            Thread.sleep(Duration.ofNanos(latency));
+        }
+    }
+
+    private static JsonObject readJson(HttpExchange exchange) {
+        try (InputStreamReader reader = new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8)) {
+            JsonElement json = JsonParser.parseReader(reader);
+            return json.isJsonObject() ? json.getAsJsonObject() : null;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static void sendAccepted(HttpExchange exchange) throws IOException {
+        exchange.sendResponseHeaders(202, -1);
+    }
+
+    private static void sendProblem(HttpExchange exchange, int status, String title, String detail) throws IOException {
+        JsonObject problem = new JsonObject();
+        problem.addProperty("title", title);
+        problem.addProperty("status", status);
+        problem.addProperty("detail", detail);
+        problem.addProperty("instance", exchange.getRequestURI().getPath());
+        sendJson(exchange, status, problem);
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, JsonElement json) throws IOException {
+        byte[] body = json.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(body);
+        }
+    }
+
+    private static String base64(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Builder for {@link StandInServer}.
+     */
+    public static class Builder {
+
+        private int port;
+        private int fleetSize = 1_000;
+        private long seed = 42;
+        private Duration minLatency = Duration.ZERO;
+        private Duration maxLatency = Duration.ZERO;
+        private double tailLatencyRate;
+        private Duration tailLatency = Duration.ZERO;
+        private double errorRate;
+        private double throttleRate;
+        private Duration retryAfter = Duration.ofSeconds(1);
+        private Duration tokenLifetime = Duration.ofMinutes(15);
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the port to listen on. Defaults to {@code 0}, which picks a free port.
+         *
+         * @param port the port to listen on.
+         * @return this builder.
+         */
+        public Builder port(int port) {
+            this.port = port;
+            return this;
+        }
+
+        /**
+         * Sets the number of simulated vehicles. Defaults to {@code 1000}.
+         *
+         * @param fleetSize the number of vehicles.
+         * @return this builder.
+         */
+        public Builder fleetSize(int fleetSize) {
+            this.fleetSize = fleetSize;
+            return this;
+        }
+
+        /**
+         * Sets the seed the fleet is generated from, so runs with the same seed serve the same vehicles. Defaults to {@code 42}.
+         *
+         * @param seed the seed of the fleet.
+         * @return this builder.
+         */
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * Delays every response by a random duration between {@code minLatency} and {@code maxLatency}. No delay by default.
+         *
+         * @param minLatency the shortest delay.
+         * @param maxLatency the longest delay.
+         * @return this builder.
+         */
+        public Builder latency(Duration minLatency, Duration maxLatency) {
+            if (maxLatency.compareTo(minLatency) < 0) {
+                throw new IllegalArgumentException("maxLatency must not be shorter than minLatency");
+            }
+            this.minLatency = minLatency;
+            this.maxLatency = maxLatency;
+            return this;
+        }
+
+        /**
+         * Adds {@code tailLatency} to the given fraction of responses, to exercise the tail latency of a client.
+         *
+         * @param rate        the fraction of slow responses, between {@code 0} and {@code 1}.
+         * @param tailLatency the extra delay of a slow response.
+         * @return this builder.
+         */
+        public Builder tailLatency(double rate, Duration tailLatency) {
+            this.tailLatencyRate = rate;
+            this.tailLatency = tailLatency;
+            return this;
+        }
+
+        /**
+         * Answers the given fraction of API requests with {@code 500 Internal Server Error}. Defaults to {@code 0}.
+         *
+         * @param errorRate the fraction of failed requests, between {@code 0} and {@code 1}.
+         * @return this builder.
+         */
+        public Builder errorRate(double errorRate) {
+            this.errorRate = errorRate;
+            return this;
+        }
+
+        /**
+         * Answers the given fraction of API requests with {@code 429 Too Many Requests}. Defaults to {@code 0}.
+         *
+         * @param throttleRate the fraction of throttled requests, between {@code 0} and {@code 1}.
+         * @return this builder.
+         */
+        public Builder throttleRate(double throttleRate) {
+            this.throttleRate = throttleRate;
+            return this;
+        }
+
+        /**
+         * Sets the {@code Retry-After} of throttled requests. Defaults to one second.
+         *
+         * @param retryAfter the pause requested from the client.
+         * @return this builder.
+         */
+        public Builder retryAfter(Duration retryAfter) {
+            this.retryAfter = retryAfter;
+            return this;
+        }
+
+        /**
+         * Sets how long the access tokens of the token endpoint stay valid. Defaults to 15 minutes.
+         *
+         * @param tokenLifetime the lifetime of an access token.
+         * @return this builder.
+         */
+        public Builder tokenLifetime(Duration tokenLifetime) {
+            this.tokenLifetime = tokenLifetime;
+            return this;
+        }
+
+        /**
+         * Builds the server without starting it.
+         *
+         * @return a new {@link StandInServer}.
+         */
+        public StandInServer build() {
+            return new StandInServer(this);
+        }
+    }
+}
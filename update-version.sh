@@ -12,8 +12,10 @@ else
   fi
 
   ./mvnw versions:set -DnewVersion="$VERSION"
+  ./mvnw versions:set -DnewVersion="$VERSION" -f benchmarks/pom.xml
+  ./mvnw versions:set -DnewVersion="$VERSION" -f stand-in-server/pom.xml
   echo "Maven version updated to $VERSION"
-  git add pom.xml
+  git add pom.xml benchmarks/pom.xml stand-in-server/pom.xml
   git commit -m "chore(release): Bump version to $VERSION"
   git push
 